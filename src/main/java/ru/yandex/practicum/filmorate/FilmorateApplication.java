@@ -2,11 +2,20 @@ package ru.yandex.practicum.filmorate;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class FilmorateApplication {
+
+    /**
+     * Сколько шагов запуска сохраняется для отчёта о запуске и {@code /actuator/startup}.
+     */
+    private static final int STARTUP_STEPS = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(FilmorateApplication.class, args);
+        SpringApplication application = new SpringApplication(FilmorateApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package ru.yandex.practicum.filmorate.admission;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация ограничения одновременных запросов к дорогим конечным точкам.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig {
+
+    /**
+     * Фильтр ограничения; регистрируется для всех запросов и сам отбирает ограничиваемые.
+     *
+     * @param properties настройки ограничения
+     * @return фильтр ограничения
+     */
+    @Bean
+    public AdmissionControlFilter admissionControlFilter(AdmissionProperties properties) {
+        return new AdmissionControlFilter(properties);
+    }
+}
\ No newline at end of file
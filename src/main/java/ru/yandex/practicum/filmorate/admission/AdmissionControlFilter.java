@@ -0,0 +1,133 @@
+package ru.yandex.practicum.filmorate.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Фильтр, ограничивающий количество одновременно выполняемых дорогих запросов.
+ * <p>
+ * Для каждого правила из {@link AdmissionProperties} действует свой {@link AimdLimiter}.
+ * Запрос, не получивший места, сразу получает ответ 503 с заголовком {@code Retry-After}
+ * и не занимает соединение с базой данных. Запросы, не подходящие ни под одно правило
+ * (в том числе запись лайков и друзей), проходят без ограничений.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String REJECTED_BODY = "{\"message\":\"Сервис перегружен, повторите запрос позже\"}";
+
+    private final AdmissionProperties properties;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final List<Limited> limits = new ArrayList<>();
+
+    public AdmissionControlFilter(AdmissionProperties properties) {
+        this.properties = properties;
+        for (AdmissionProperties.Rule rule : properties.getRules()) {
+            limits.add(new Limited(rule, new AimdLimiter(rule)));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || find(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Limited limited = find(request);
+        AimdLimiter limiter = limited.limiter();
+        boolean acquired;
+        try {
+            acquired = limiter.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.debug("Запрос {} {} отклонён ограничением {}", request.getMethod(), request.getRequestURI(),
+                    limited.rule().getName());
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            chain.doFilter(request, response);
+            success = response.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limiter.release(System.nanoTime() - start, success);
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(REJECTED_BODY);
+    }
+
+    private Limited find(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Limited limited : limits) {
+            AdmissionProperties.Rule rule = limited.rule();
+            if (rule.getMethod().equalsIgnoreCase(request.getMethod()) && matcher.match(rule.getPath(), path)) {
+                return limited;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Limited limited : limits) {
+            String name = limited.rule().getName();
+            AimdLimiter limiter = limited.limiter();
+            Gauge.builder("filmorate.admission.limit", limiter, AimdLimiter::getLimit)
+                    .tag("rule", name)
+                    .description("Текущее ограничение одновременных запросов")
+                    .register(registry);
+            Gauge.builder("filmorate.admission.inflight", limiter, AimdLimiter::getInFlight)
+                    .tag("rule", name)
+                    .description("Выполняющиеся запросы")
+                    .register(registry);
+            FunctionCounter.builder("filmorate.admission.requests", limiter, AimdLimiter::getAccepted)
+                    .tag("rule", name)
+                    .tag("outcome", "accepted")
+                    .description("Запросы по результату допуска")
+                    .register(registry);
+            FunctionCounter.builder("filmorate.admission.requests", limiter, AimdLimiter::getQueued)
+                    .tag("rule", name)
+                    .tag("outcome", "queued")
+                    .description("Запросы по результату допуска")
+                    .register(registry);
+            FunctionCounter.builder("filmorate.admission.requests", limiter, AimdLimiter::getRejected)
+                    .tag("rule", name)
+                    .tag("outcome", "rejected")
+                    .description("Запросы по результату допуска")
+                    .register(registry);
+        }
+    }
+
+    private record Limited(AdmissionProperties.Rule rule, AimdLimiter limiter) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки ограничения одновременных запросов (префикс {@code filmorate.admission}).
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.admission")
+public class AdmissionProperties {
+
+    /**
+     * Включено ли ограничение.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Значение заголовка {@code Retry-After} в секундах для отклонённых запросов.
+     */
+    private int retryAfterSeconds = 1;
+
+    /**
+     * Правила ограничения; запрос подчиняется первому подходящему правилу,
+     * запросы, не подходящие ни под одно правило, не ограничиваются.
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Правило ограничения для группы запросов.
+     */
+    @Data
+    public static class Rule {
+
+        /**
+         * Имя правила, под которым публикуются метрики.
+         */
+        private String name;
+
+        /**
+         * HTTP-метод запросов.
+         */
+        private String method = "GET";
+
+        /**
+         * Шаблон пути (в формате Ant).
+         */
+        private String path;
+
+        /**
+         * Начальное количество одновременно выполняемых запросов.
+         */
+        private int initialLimit = 20;
+
+        /**
+         * Наименьшее количество одновременно выполняемых запросов.
+         */
+        private int minLimit = 2;
+
+        /**
+         * Наибольшее количество одновременно выполняемых запросов.
+         */
+        private int maxLimit = 100;
+
+        /**
+         * Наибольшее количество запросов, ожидающих освобождения места.
+         */
+        private int queueSize = 20;
+
+        /**
+         * Наибольшее время ожидания в очереди.
+         */
+        private Duration maxWait = Duration.ofMillis(50);
+
+        /**
+         * Время ответа, при превышении которого количество одновременных запросов уменьшается.
+         */
+        private Duration targetLatency = Duration.ofMillis(200);
+    }
+}
\ No newline at end of file
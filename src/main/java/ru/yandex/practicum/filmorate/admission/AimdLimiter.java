@@ -0,0 +1,138 @@
+package ru.yandex.practicum.filmorate.admission;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Адаптивное ограничение количества одновременно выполняемых запросов (AIMD).
+ * <p>
+ * Если запрос выполнился быстрее целевого времени, а ограничение было почти исчерпано,
+ * ограничение увеличивается на единицу; если медленнее или с ошибкой — уменьшается
+ * в {@code 1 / }{@value #BACKOFF_RATIO} раза. Запрос, для которого нет места, ждёт в короткой
+ * очереди ограниченного размера, а при переполнении очереди или истечении ожидания отклоняется.
+ */
+public class AimdLimiter {
+
+    /**
+     * Множитель уменьшения ограничения при перегрузке.
+     */
+    static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final long maxWaitNanos;
+    private final long targetLatencyNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int waiting;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public AimdLimiter(AdmissionProperties.Rule rule) {
+        this.minLimit = Math.max(1, rule.getMinLimit());
+        this.maxLimit = Math.max(minLimit, rule.getMaxLimit());
+        this.queueSize = Math.max(0, rule.getQueueSize());
+        this.maxWaitNanos = rule.getMaxWait().toNanos();
+        this.targetLatencyNanos = rule.getTargetLatency().toNanos();
+        this.limit = Math.min(maxLimit, Math.max(minLimit, rule.getInitialLimit()));
+    }
+
+    /**
+     * Занимает место для запроса, при необходимости ожидая в очереди.
+     *
+     * @return true, если место получено; false, если запрос нужно отклонить
+     * @throws InterruptedException если поток прерван во время ожидания
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                accepted.increment();
+                return true;
+            }
+            if (waiting >= queueSize) {
+                rejected.increment();
+                return false;
+            }
+            queued.increment();
+            waiting++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        return false;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            accepted.increment();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Освобождает место и корректирует ограничение по результату запроса.
+     *
+     * @param latencyNanos время выполнения запроса
+     * @param success      завершился ли запрос без ошибки сервера
+     */
+    public void release(long latencyNanos, boolean success) {
+        lock.lock();
+        try {
+            if (!success || latencyNanos > targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            } else if (inFlight >= (int) limit / 2) {
+                // Ограничение растёт только тогда, когда оно действительно используется
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            inFlight--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getQueued() {
+        return queued.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
\ No newline at end of file
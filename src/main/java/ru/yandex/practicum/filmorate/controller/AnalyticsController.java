@@ -0,0 +1,77 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.UniqueLikers;
+import ru.yandex.practicum.filmorate.service.AnalyticsService;
+
+import java.time.LocalDate;
+
+/**
+ * Класс-контроллер аналитики лайков. Периоды задаются датами {@code from} и {@code to}
+ * в формате {@code yyyy-MM-dd} (UTC) включительно; по умолчанию — текущий день.
+ */
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    /**
+     * Сервис аналитики лайков.
+     */
+    private final AnalyticsService analyticsService;
+
+    /**
+     * Возвращает количество уникальных пользователей, поставивших лайк фильму за период.
+     *
+     * @param id   идентификатор фильма
+     * @param from первый день периода (необязательно)
+     * @param to   последний день периода (необязательно)
+     * @return оценка количества уникальных пользователей
+     */
+    @GetMapping("/films/{id}/likers")
+    public ResponseEntity<UniqueLikers> getFilmLikers(
+            @PathVariable Long id,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.getFilmLikers(id, from, to));
+    }
+
+    /**
+     * Возвращает количество уникальных пользователей, поставивших лайк фильмам жанра за период.
+     *
+     * @param id   идентификатор жанра
+     * @param from первый день периода (необязательно)
+     * @param to   последний день периода (необязательно)
+     * @return оценка количества уникальных пользователей
+     */
+    @GetMapping("/genres/{id}/likers")
+    public ResponseEntity<UniqueLikers> getGenreLikers(
+            @PathVariable Integer id,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.getGenreLikers(id, from, to));
+    }
+
+    /**
+     * Возвращает количество уникальных пользователей, поставивших лайк фильмам рейтинга MPA за период.
+     *
+     * @param id   идентификатор рейтинга
+     * @param from первый день периода (необязательно)
+     * @param to   последний день периода (необязательно)
+     * @return оценка количества уникальных пользователей
+     */
+    @GetMapping("/mpa/{id}/likers")
+    public ResponseEntity<UniqueLikers> getMpaLikers(
+            @PathVariable Integer id,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.getMpaLikers(id, from, to));
+    }
+}
\ No newline at end of file
@@ -1,16 +1,26 @@
 package ru.yandex.practicum.filmorate.controller;
 
-import jakarta.validation.Valid;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.yandex.practicum.filmorate.fields.SparseFields;
+import ru.yandex.practicum.filmorate.model.BatchItemResult;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.BatchImportService;
+import ru.yandex.practicum.filmorate.service.CommonFilmsService;
 import ru.yandex.practicum.filmorate.service.FilmDbService;
+import ru.yandex.practicum.filmorate.service.PopularStreamService;
+import ru.yandex.practicum.filmorate.service.TrendingService;
 
+import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Класс-контроллер для работы с фильмами
@@ -22,6 +32,10 @@ public class FilmController {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
     private final FilmDbService filmService;
+    private final BatchImportService importService;
+    private final TrendingService trendingService;
+    private final PopularStreamService popularStreamService;
+    private final CommonFilmsService commonFilmsService;
 
     /**
      * Добавляет новый фильм в базу данных.
@@ -31,11 +45,24 @@ public class FilmController {
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Film addFilm(@Valid @RequestBody Film film) {
+    public Film addFilm(@RequestBody Film film) {
         log.info("Добавление нового фильма {}", film.getName());
         return filmService.addFilm(film);
     }
 
+    /**
+     * Импортирует пакет фильмов, переданный JSON-массивом или в формате NDJSON.
+     *
+     * @param request HTTP-запрос, тело которого читается потоково
+     * @return результаты обработки каждого фильма в исходном порядке
+     * @throws IOException если тело запроса не удалось прочитать
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public List<BatchItemResult> addFilms(HttpServletRequest request) throws IOException {
+        log.info("Пакетный импорт фильмов");
+        return importService.importFilms(request.getInputStream());
+    }
+
     /**
      * Обновляет существующий фильм в базе данных.
      *
@@ -43,7 +70,7 @@ public class FilmController {
      * @return обновленный объект фильма
      */
     @PutMapping
-    public Film updateFilm(@Valid @RequestBody Film film) {
+    public Film updateFilm(@RequestBody Film film) {
         log.info("Обновление фильма с id={}", film.getId());
         return filmService.updateFilm(film);
     }
@@ -71,18 +98,27 @@ public class FilmController {
      */
     @DeleteMapping("/{film_id}/like/{id}")
     public ResponseEntity<Void> deleteLikeFilm(@PathVariable("film_id") Long filmId, @PathVariable("id") Long userId) {
-        filmService.deleteLike(filmId, userId);
+        filmService.deleteLike(userId, filmId);
         log.info("У фильма с id={} удален лайк от пользователя id={}", filmId, userId);
         return ResponseEntity.noContent().build();
     }
 
     /**
-     * Получает полный список всех фильмов.
+     * Получает полный список всех фильмов или фильмы по списку идентификаторов.
+     * Параметр {@code fields} (как и у остальных запросов фильмов) ограничивает набор полей в ответе.
      *
+     * @param ids    идентификаторы фильмов через запятую (необязательно); фильмы возвращаются в порядке списка
+     * @param fields возвращаемые поля через запятую (необязательно), например {@code id,name}
      * @return коллекция объектов Film
      */
     @GetMapping
-    public Collection<Film> getAllFilms() {
+    public Collection<Film> getAllFilms(@RequestParam(value = "ids", required = false) List<Long> ids,
+                                        @RequestParam(value = "fields", required = false) String fields) {
+        // Поля ответа отбирает сериализатор, здесь параметр только проверяется
+        SparseFields.parse(fields, Film.class);
+        if (ids != null) {
+            return filmService.getFilmsByIds(ids);
+        }
         return filmService.getAllFilms();
     }
 
@@ -104,7 +140,61 @@ public class FilmController {
      * @return коллекция популярных фильмов
      */
     @GetMapping("/popular")
-    public Collection<Film> getPopularFilms(@RequestParam(value = "count", defaultValue = "10") Integer count) {
-        return filmService.getPopularFilms(count);
+    public Collection<Film> getPopularFilms(@RequestParam(value = "count", defaultValue = "10") Integer count,
+                                            @RequestParam(value = "genreId", required = false) Integer genreId) {
+        return filmService.getPopularFilms(count, genreId);
+    }
+
+    /**
+     * Получает фильмы, у которых есть общие жанры с указанным фильмом.
+     *
+     * @param id    идентификатор фильма
+     * @param count количество возвращаемых фильмов (по умолчанию — 10)
+     * @return коллекция фильмов, начиная с фильмов с наибольшим числом общих жанров
+     */
+    @GetMapping("/{id}/sharing-genres")
+    public Collection<Film> getFilmsSharingGenres(@PathVariable Long id,
+                                                  @RequestParam(value = "count", defaultValue = "10") Integer count) {
+        return filmService.getFilmsSharingGenres(id, count);
+    }
+
+    /**
+     * Получает фильмы, которым поставили лайк оба пользователя, по убыванию количества лайков.
+     *
+     * @param userId   идентификатор первого пользователя
+     * @param friendId идентификатор второго пользователя
+     * @param count    наибольшее количество фильмов (необязательно; по умолчанию — все общие фильмы)
+     * @return коллекция общих фильмов
+     */
+    @GetMapping("/common")
+    public Collection<Film> getCommonFilms(@RequestParam("userId") Long userId,
+                                           @RequestParam("friendId") Long friendId,
+                                           @RequestParam(value = "count", required = false) Integer count) {
+        return commonFilmsService.getCommonFilms(userId, friendId, count);
+    }
+
+    /**
+     * Подписывает клиента на поток изменений популярности фильмов (Server-Sent Events).
+     * Первое сообщение {@code snapshot} содержит текущий рейтинг, последующие сообщения {@code update} —
+     * изменения количества лайков и мест в рейтинге.
+     *
+     * @return SSE-подключение
+     */
+    @GetMapping(value = "/popular/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPopularFilms() {
+        return popularStreamService.subscribe();
+    }
+
+    /**
+     * Получает список фильмов, набравших больше всего лайков за последнее время.
+     *
+     * @param window окно подсчёта лайков: {@code 24h} или {@code 7d} (по умолчанию — 24h)
+     * @param count  количество возвращаемых фильмов (по умолчанию — 10)
+     * @return коллекция трендовых фильмов
+     */
+    @GetMapping("/trending")
+    public Collection<Film> getTrendingFilms(@RequestParam(value = "window", defaultValue = "24h") String window,
+                                             @RequestParam(value = "count", defaultValue = "10") Integer count) {
+        return trendingService.getTrendingFilms(window, count);
     }
 }
\ No newline at end of file
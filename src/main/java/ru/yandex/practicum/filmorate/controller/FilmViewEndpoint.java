@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.FilmViewDrift;
+import ru.yandex.practicum.filmorate.service.FilmViewService;
+
+import java.util.Map;
+
+/**
+ * Служебная точка управления представлением фильмов: {@code GET /actuator/filmview}
+ * сверяет представление с базой данных, {@code POST /actuator/filmview} перестраивает его.
+ */
+@Component
+@Endpoint(id = "filmview")
+@RequiredArgsConstructor
+public class FilmViewEndpoint {
+
+    private final FilmViewService filmViewService;
+
+    /**
+     * Сверяет представление фильмов с базой данных.
+     *
+     * @return найденные расхождения
+     */
+    @ReadOperation
+    public FilmViewDrift checkDrift() {
+        return filmViewService.checkDrift();
+    }
+
+    /**
+     * Перестраивает представление фильмов по данным базы.
+     *
+     * @return количество фильмов в перестроенном представлении
+     */
+    @WriteOperation
+    public Map<String, Integer> rebuild() {
+        return Map.of("films", filmViewService.rebuild());
+    }
+}
\ No newline at end of file
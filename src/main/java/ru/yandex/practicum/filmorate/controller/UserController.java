@@ -1,13 +1,26 @@
 package ru.yandex.practicum.filmorate.controller;
 
-import jakarta.validation.Valid;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.yandex.practicum.filmorate.fields.SparseFields;
+import ru.yandex.practicum.filmorate.model.BatchItemResult;
+import ru.yandex.practicum.filmorate.model.FeedPage;
+import ru.yandex.practicum.filmorate.model.FilmPage;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserProfile;
+import ru.yandex.practicum.filmorate.service.BatchImportService;
+import ru.yandex.practicum.filmorate.service.FeedService;
+import ru.yandex.practicum.filmorate.service.FilmDbService;
+import ru.yandex.practicum.filmorate.service.SimilarUsersService;
 import ru.yandex.practicum.filmorate.service.UserDbService;
 
+import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Класс-контроллер для создания и редактирования пользователей
@@ -22,6 +35,26 @@ public class UserController {
      */
     private final UserDbService userService;
 
+    /**
+     * Сервис пакетного импорта.
+     */
+    private final BatchImportService importService;
+
+    /**
+     * Сервис ленты активности.
+     */
+    private final FeedService feedService;
+
+    /**
+     * Сервис фильмов.
+     */
+    private final FilmDbService filmService;
+
+    /**
+     * Сервис поиска похожих пользователей.
+     */
+    private final SimilarUsersService similarUsersService;
+
     /**
      * Создает нового пользователя и сохраняет его в хранилище.
      *
@@ -29,10 +62,22 @@ public class UserController {
      * @return сохраненный объект пользователя
      */
     @PostMapping
-    public ResponseEntity<User> createUser(@Valid @RequestBody User user) {
+    public ResponseEntity<User> createUser(@RequestBody User user) {
         return ResponseEntity.ok(userService.createUser(user));
     }
 
+    /**
+     * Импортирует пакет пользователей, переданный JSON-массивом или в формате NDJSON.
+     *
+     * @param request HTTP-запрос, тело которого читается потоково
+     * @return результаты обработки каждого пользователя в исходном порядке
+     * @throws IOException если тело запроса не удалось прочитать
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<BatchItemResult>> createUsers(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(importService.importUsers(request.getInputStream()));
+    }
+
     /**
      * Обновляет информацию о существующем пользователе.
      *
@@ -40,7 +85,7 @@ public class UserController {
      * @return обновленный объект пользователя
      */
     @PutMapping
-    public ResponseEntity<User> updateUser(@Valid @RequestBody User user) {
+    public ResponseEntity<User> updateUser(@RequestBody User user) {
         return ResponseEntity.ok(userService.updateUser(user));
     }
 
@@ -92,6 +137,17 @@ public class UserController {
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    /**
+     * Возвращает профиль пользователя с количеством друзей и лайков.
+     *
+     * @param id идентификатор пользователя
+     * @return профиль пользователя
+     */
+    @GetMapping("{id}/profile")
+    public ResponseEntity<UserProfile> getUserProfile(@PathVariable Long id) {
+        return ResponseEntity.ok(userService.getUserProfile(id));
+    }
+
     /**
      * Возвращает список общих друзей между двумя пользователями.
      *
@@ -105,12 +161,63 @@ public class UserController {
     }
 
     /**
-     * Возвращает полный список всех зарегистрированных пользователей.
+     * Возвращает полный список всех зарегистрированных пользователей или пользователей по списку идентификаторов.
+     * Параметр {@code fields} (как и у запроса одного пользователя) ограничивает набор полей в ответе.
      *
-     * @return коллекция всех пользователей
+     * @param ids    идентификаторы пользователей через запятую (необязательно); пользователи возвращаются в порядке списка
+     * @param fields возвращаемые поля через запятую (необязательно), например {@code id,name}
+     * @return коллекция пользователей
      */
     @GetMapping
-    public ResponseEntity<Collection<User>> getUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<Collection<User>> getUsers(@RequestParam(value = "ids", required = false) List<Long> ids,
+                                                     @RequestParam(value = "fields", required = false) String fields) {
+        Set<String> selected = SparseFields.parse(fields, User.class);
+        if (ids != null) {
+            return ResponseEntity.ok(userService.getUsersByIds(ids));
+        }
+        return ResponseEntity.ok(userService.getAllUsers(selected));
+    }
+
+    /**
+     * Возвращает ленту активности друзей пользователя: лайки и новые дружеские связи.
+     *
+     * @param id     идентификатор пользователя
+     * @param cursor курсор следующей страницы из предыдущего ответа
+     * @param limit  размер страницы (по умолчанию — 20)
+     * @return страница ленты от новых событий к старым
+     */
+    @GetMapping("{id}/feed")
+    public ResponseEntity<FeedPage> getFeed(@PathVariable Long id,
+                                            @RequestParam(value = "cursor", required = false) Long cursor,
+                                            @RequestParam(value = "limit", defaultValue = "20") Integer limit) {
+        return ResponseEntity.ok(feedService.getFeed(id, cursor, limit));
+    }
+
+    /**
+     * Возвращает страницу фильмов, которым пользователь поставил лайк, по возрастанию идентификатора фильма.
+     *
+     * @param id    идентификатор пользователя
+     * @param after значение {@code nextAfter} из предыдущей страницы (необязательно)
+     * @param limit размер страницы (по умолчанию — 20)
+     * @return страница фильмов
+     */
+    @GetMapping("{id}/likes")
+    public ResponseEntity<FilmPage> getLikedFilms(@PathVariable Long id,
+                                                  @RequestParam(value = "after", required = false) Long after,
+                                                  @RequestParam(value = "limit", defaultValue = "20") Integer limit) {
+        return ResponseEntity.ok(filmService.getLikedFilms(id, after, limit));
+    }
+
+    /**
+     * Возвращает пользователей с наиболее похожими лайками.
+     *
+     * @param id    идентификатор пользователя
+     * @param count количество пользователей (по умолчанию — 10)
+     * @return похожие пользователи по убыванию сходства
+     */
+    @GetMapping("{id}/similar")
+    public ResponseEntity<List<User>> getSimilarUsers(@PathVariable Long id,
+                                                      @RequestParam(value = "count", defaultValue = "10") Integer count) {
+        return ResponseEntity.ok(similarUsersService.getSimilarUsers(id, count));
     }
 }
\ No newline at end of file
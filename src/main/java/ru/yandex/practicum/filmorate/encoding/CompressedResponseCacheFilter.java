@@ -0,0 +1,132 @@
+package ru.yandex.practicum.filmorate.encoding;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Фильтр, который запоминает неизменяемые ответы (справочники) вместе с их сжатой формой
+ * и затем отдаёт готовые байты без повторной сериализации и сжатия.
+ * <p>
+ * Ключ записи — путь, строка запроса и заголовок {@code Accept}, поэтому JSON и бинарные
+ * форматы хранятся раздельно; ответ помечается {@code Vary: Accept, Accept-Encoding}.
+ * Запоминаются ответы любого размера, а сжимаются только ответы не меньше
+ * {@code filmorate.compression.min-response-size}: короткие справочники gzip не уменьшает.
+ * Сжатая форма отдаётся клиентам, которые принимают gzip, остальным — исходное тело.
+ * Остальные ответы сжимает сервер ({@code server.compression.*}); ответ с уже установленным
+ * {@code Content-Encoding} сервер повторно не сжимает.
+ */
+public class CompressedResponseCacheFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+    private final EncodingProperties properties;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final Cache<String, CachedResponse> responses;
+
+    public CompressedResponseCacheFilter(EncodingProperties properties) {
+        this.properties = properties;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : properties.getCachedPaths()) {
+            if (matcher.match(pattern, path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getRequestURI() + '?' + Objects.toString(request.getQueryString(), "")
+                + '|' + request.getHeader(HttpHeaders.ACCEPT);
+        CachedResponse cached = responses.getIfPresent(key);
+        if (cached != null) {
+            cached.writeTo(response, acceptsGzip(request));
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() != HttpStatus.OK.value()) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        byte[] body = wrapper.getContentAsByteArray();
+        byte[] compressed = body.length < properties.getMinResponseSize() ? null : gzip(body);
+        CachedResponse created = new CachedResponse(wrapper.getContentType(), body, compressed);
+        responses.put(key, created);
+        wrapper.resetBuffer();
+        created.writeTo(response, acceptsGzip(request));
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, "compressed-responses");
+    }
+
+    /**
+     * Запомненный ответ, готовый к повторной отправке.
+     *
+     * @param contentType тип содержимого исходного ответа
+     * @param body        исходное тело
+     * @param compressed  тело, сжатое gzip, или {@code null}, если ответ слишком короткий для сжатия
+     */
+    private record CachedResponse(String contentType, byte[] body, byte[] compressed) {
+
+        void writeTo(HttpServletResponse response, boolean gzip) throws IOException {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.VARY, VARY);
+            byte[] payload = body;
+            if (gzip && compressed != null) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                payload = compressed;
+            }
+            response.setContentLength(payload.length);
+            response.getOutputStream().write(payload);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package ru.yandex.practicum.filmorate.encoding;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+/**
+ * Конфигурация форматов ответов: помимо JSON клиент может запросить Smile
+ * ({@code Accept: application/x-jackson-smile}) или CBOR ({@code Accept: application/cbor}).
+ */
+@Configuration
+@EnableConfigurationProperties(EncodingProperties.class)
+public class EncodingConfig {
+
+    /**
+     * Преобразователь Smile. ObjectMapper строится тем же построителем, что и для JSON,
+     * поэтому настройки сериализации (в том числе фильтр полей) совпадают.
+     *
+     * @param builder построитель ObjectMapper с настройками приложения
+     * @return преобразователь Smile
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Преобразователь CBOR с теми же настройками сериализации, что и для JSON.
+     *
+     * @param builder построитель ObjectMapper с настройками приложения
+     * @return преобразователь CBOR
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Модуль Jackson с прямыми сериализаторами фильмов и пользователей; подключается
+     * ко всем ObjectMapper приложения, включая Smile и CBOR.
+     *
+     * @return модуль сериализаторов
+     */
+    @Bean
+    public Module modelSerializers() {
+        SimpleModule module = new SimpleModule("filmorate-model-serializers");
+        module.addSerializer(Film.class, new FilmSerializer());
+        module.addSerializer(User.class, new UserSerializer());
+        return module;
+    }
+
+    /**
+     * Фильтр повторного использования сжатых неизменяемых ответов.
+     *
+     * @param properties настройки сжатия
+     * @return фильтр
+     */
+    @Bean
+    public CompressedResponseCacheFilter compressedResponseCacheFilter(EncodingProperties properties) {
+        return new CompressedResponseCacheFilter(properties);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.encoding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки повторного использования сжатых ответов (префикс {@code filmorate.compression}).
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.compression")
+public class EncodingProperties {
+
+    /**
+     * Шаблоны путей (в формате Ant) неизменяемых ответов, которые запоминаются вместе со сжатой формой.
+     */
+    private List<String> cachedPaths = new ArrayList<>();
+
+    /**
+     * Наименьший размер ответа в байтах, начиная с которого запомненный ответ сжимается;
+     * более короткие ответы запоминаются без сжатия.
+     */
+    private int minResponseSize = 256;
+
+    /**
+     * Наибольшее количество запомненных ответов.
+     */
+    private int maxEntries = 256;
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package ru.yandex.practicum.filmorate.encoding;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ru.yandex.practicum.filmorate.fields.SparseFields;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+
+/**
+ * Сериализатор фильма, который пишет поля напрямую в {@link JsonGenerator} без обхода
+ * свойств через отражение. Порядок и формат полей совпадают со стандартной сериализацией;
+ * жанры всегда выводятся по возрастанию идентификатора. Учитывает параметр {@code fields}.
+ */
+public class FilmSerializer extends StdSerializer<Film> {
+
+    private static final Comparator<Genre> BY_ID = Comparator.comparing(Genre::getId);
+
+    public FilmSerializer() {
+        super(Film.class);
+    }
+
+    @Override
+    public void serialize(Film film, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Set<String> fields = SparseFields.selected(provider);
+        gen.writeStartObject(film);
+        if (SparseFields.includes(fields, "id")) {
+            SerializerSupport.writeNumber(gen, "id", film.getId());
+        }
+        if (SparseFields.includes(fields, "name")) {
+            gen.writeStringField("name", film.getName());
+        }
+        if (SparseFields.includes(fields, "description")) {
+            gen.writeStringField("description", film.getDescription());
+        }
+        if (SparseFields.includes(fields, "releaseDate")) {
+            SerializerSupport.writeDate(gen, "releaseDate", film.getReleaseDate());
+        }
+        if (SparseFields.includes(fields, "duration")) {
+            SerializerSupport.writeNumber(gen, "duration", film.getDuration());
+        }
+        if (SparseFields.includes(fields, "genres")) {
+            writeGenres(gen, film.getGenres());
+        }
+        if (SparseFields.includes(fields, "mpa")) {
+            writeMpa(gen, film.getMpa());
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeGenres(JsonGenerator gen, Set<Genre> genres) throws IOException {
+        gen.writeFieldName("genres");
+        if (genres == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray(genres, genres.size());
+        if (isOrdered(genres)) {
+            for (Genre genre : genres) {
+                writeGenre(gen, genre);
+            }
+        } else {
+            Genre[] sorted = genres.toArray(new Genre[0]);
+            Arrays.sort(sorted, BY_ID);
+            for (Genre genre : sorted) {
+                writeGenre(gen, genre);
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    /**
+     * Проверяет, что жанры уже идут по возрастанию идентификатора — так хранятся
+     * собранные фильмы, и копирование с сортировкой для них не нужно.
+     */
+    private static boolean isOrdered(Set<Genre> genres) {
+        Integer previous = null;
+        for (Genre genre : genres) {
+            Integer id = genre.getId();
+            if (id == null || previous != null && previous >= id) {
+                return false;
+            }
+            previous = id;
+        }
+        return true;
+    }
+
+    private static void writeGenre(JsonGenerator gen, Genre genre) throws IOException {
+        gen.writeStartObject();
+        SerializerSupport.writeNumber(gen, "id", genre.getId());
+        gen.writeStringField("name", genre.getName());
+        gen.writeEndObject();
+    }
+
+    private static void writeMpa(JsonGenerator gen, Mpa mpa) throws IOException {
+        gen.writeFieldName("mpa");
+        if (mpa == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        SerializerSupport.writeNumber(gen, "id", mpa.getId());
+        gen.writeStringField("name", mpa.getName());
+        gen.writeEndObject();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.encoding;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Общие методы записи значений для сериализаторов моделей.
+ */
+final class SerializerSupport {
+
+    private SerializerSupport() {
+    }
+
+    /**
+     * Записывает числовое поле или {@code null}.
+     */
+    static void writeNumber(JsonGenerator gen, String name, Number value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (value instanceof Long longValue) {
+            gen.writeNumber(longValue);
+        } else {
+            gen.writeNumber(value.intValue());
+        }
+    }
+
+    /**
+     * Записывает дату в формате ISO-8601 ({@code yyyy-MM-dd}) или {@code null}.
+     */
+    static void writeDate(JsonGenerator gen, String name, LocalDate value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value.toString());
+        }
+    }
+}
\ No newline at end of file
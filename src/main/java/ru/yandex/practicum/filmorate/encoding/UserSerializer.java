@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.encoding;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ru.yandex.practicum.filmorate.fields.SparseFields;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Сериализатор пользователя, который пишет поля напрямую в {@link JsonGenerator}.
+ * Порядок и формат полей совпадают со стандартной сериализацией. Учитывает параметр {@code fields}.
+ */
+public class UserSerializer extends StdSerializer<User> {
+
+    public UserSerializer() {
+        super(User.class);
+    }
+
+    @Override
+    public void serialize(User user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Set<String> fields = SparseFields.selected(provider);
+        gen.writeStartObject(user);
+        if (SparseFields.includes(fields, "id")) {
+            SerializerSupport.writeNumber(gen, "id", user.getId());
+        }
+        if (SparseFields.includes(fields, "email")) {
+            gen.writeStringField("email", user.getEmail());
+        }
+        if (SparseFields.includes(fields, "login")) {
+            gen.writeStringField("login", user.getLogin());
+        }
+        if (SparseFields.includes(fields, "name")) {
+            gen.writeStringField("name", user.getName());
+        }
+        if (SparseFields.includes(fields, "birthday")) {
+            SerializerSupport.writeDate(gen, "birthday", user.getBirthday());
+        }
+        gen.writeEndObject();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.yandex.practicum.filmorate.event;
+
+import ru.yandex.practicum.filmorate.model.Film;
+
+/**
+ * Событие сохранения фильма, публикуемое при создании или обновлении фильма
+ * внутри транзакции записи.
+ *
+ * @param film сохранённый фильм с идентификатором, рейтингом и жанрами
+ */
+public record FilmEvent(Film film) {
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package ru.yandex.practicum.filmorate.event;
+
+import java.time.Instant;
+
+/**
+ * Событие изменения дружбы, публикуемое {@code FriendDao} после записи в базу данных.
+ *
+ * @param userId    идентификатор пользователя, изменившего список друзей
+ * @param friendId  идентификатор друга
+ * @param createdAt время изменения
+ * @param operation вид изменения
+ */
+public record FriendEvent(long userId, long friendId, Instant createdAt, Operation operation) {
+
+    /**
+     * Вид изменения дружбы.
+     */
+    public enum Operation {
+        ADDED,
+        REMOVED
+    }
+}
\ No newline at end of file
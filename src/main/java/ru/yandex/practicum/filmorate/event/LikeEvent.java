@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.event;
+
+import java.time.Instant;
+
+/**
+ * Событие изменения лайков, публикуемое {@code LikeDao} после записи в базу данных.
+ *
+ * @param userId    идентификатор пользователя
+ * @param filmId    идентификатор фильма
+ * @param likedAt   время, когда был поставлен лайк (для удаления — время удалённого лайка)
+ * @param operation вид изменения
+ */
+public record LikeEvent(long userId, long filmId, Instant likedAt, Operation operation) {
+
+    /**
+     * Вид изменения лайка.
+     */
+    public enum Operation {
+        ADDED,
+        REMOVED
+    }
+
+    /**
+     * Возвращает изменение количества лайков фильма: +1 или -1.
+     *
+     * @return изменение количества лайков
+     */
+    public int delta() {
+        return operation == Operation.ADDED ? 1 : -1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.exception;
+
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
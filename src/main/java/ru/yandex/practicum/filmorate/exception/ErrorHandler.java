@@ -49,6 +49,18 @@ public class ErrorHandler {
         return createErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Обработчик исключений, возникающих, когда чтение не уложилось в отведённый срок.
+     *
+     * @param ex исключение DeadlineExceededException
+     * @return сформированный ответ с сообщением об ошибке и статус-код SERVICE_UNAVAILABLE
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<Map<String, Object>> handleDeadlineExceededException(DeadlineExceededException ex) {
+        return createErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Обработчик любых других необработанных исключений, приводящих к состоянию внутреннего сбоя сервера.
      *
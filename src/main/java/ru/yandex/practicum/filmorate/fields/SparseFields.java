@@ -0,0 +1,125 @@
+package ru.yandex.practicum.filmorate.fields;
+
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Разбор параметра {@code fields} — списка полей, которые нужно вернуть клиенту.
+ */
+public final class SparseFields {
+
+    /**
+     * Имя параметра запроса.
+     */
+    public static final String PARAMETER = "fields";
+
+    /**
+     * Имя фильтра Jackson, которым помечены модели с выборочной сериализацией полей.
+     */
+    public static final String FILTER = "fields";
+
+    private static final ConcurrentHashMap<Class<?>, Set<String>> PROPERTIES = new ConcurrentHashMap<>();
+
+    private SparseFields() {
+    }
+
+    /**
+     * Разбирает список полей и проверяет, что все они есть в модели.
+     *
+     * @param fields список полей через запятую или {@code null}
+     * @param type   класс модели
+     * @return набор полей или {@code null}, если нужны все поля
+     */
+    public static Set<String> parse(String fields, Class<?> type) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> known = properties(type);
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!known.contains(name)) {
+                throw new ValidationException(String.format("Неизвестное поле %s, допустимые поля: %s",
+                        name, String.join(", ", known)));
+            }
+            selected.add(name);
+        }
+        return selected.isEmpty() ? null : selected;
+    }
+
+    /**
+     * Проверяет, нужно ли вернуть поле.
+     *
+     * @param fields набор полей или {@code null}, если нужны все поля
+     * @param field  имя поля
+     * @return true, если поле нужно вернуть
+     */
+    public static boolean includes(Set<String> fields, String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * Возвращает набор полей, выбранных для текущей сериализации.
+     *
+     * @param provider поставщик сериализаторов Jackson
+     * @return набор полей или {@code null}, если нужны все поля
+     */
+    public static Set<String> selected(SerializerProvider provider) {
+        FilterProvider filters = provider.getConfig().getFilterProvider();
+        if (filters == null) {
+            return null;
+        }
+        PropertyFilter filter = filters.findPropertyFilter(FILTER, null);
+        return filter instanceof Selection selection ? selection.fields : null;
+    }
+
+    private static Set<String> properties(Class<?> type) {
+        return PROPERTIES.computeIfAbsent(type, modelType -> {
+            Set<String> names = new LinkedHashSet<>();
+            for (Field field : modelType.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    names.add(field.getName());
+                }
+            }
+            return Collections.unmodifiableSet(names);
+        });
+    }
+
+    /**
+     * Фильтр Jackson, пропускающий только выбранные поля. Набор полей доступен
+     * и сериализаторам, которые пишут модели напрямую.
+     */
+    public static final class Selection extends SimpleBeanPropertyFilter {
+
+        private final Set<String> fields;
+
+        public Selection(Set<String> fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        protected boolean include(BeanPropertyWriter writer) {
+            return fields.contains(writer.getName());
+        }
+
+        @Override
+        protected boolean include(PropertyWriter writer) {
+            return fields.contains(writer.getName());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.fields;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Оставляет в ответах с фильмами и пользователями только поля из параметра {@code fields}.
+ * Неизвестные поля отклоняются ещё в контроллере, до выполнения запроса.
+ */
+@RestControllerAdvice
+public class SparseFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        String fields = servletRequest.getServletRequest().getParameter(SparseFields.PARAMETER);
+        Class<?> type = modelType(bodyContainer.getValue());
+        if (fields == null || type == null) {
+            return;
+        }
+        Set<String> selected = SparseFields.parse(fields, type);
+        if (selected != null) {
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                    .addFilter(SparseFields.FILTER, new SparseFields.Selection(selected)));
+        }
+    }
+
+    private static Class<?> modelType(Object body) {
+        Object sample = body;
+        if (body instanceof Collection<?> collection) {
+            sample = collection.isEmpty() ? null : collection.iterator().next();
+        }
+        if (sample instanceof Film) {
+            return Film.class;
+        }
+        if (sample instanceof User) {
+            return User.class;
+        }
+        return null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package ru.yandex.practicum.filmorate.fields;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация выборочной сериализации полей.
+ */
+@Configuration
+public class SparseFieldsConfig {
+
+    /**
+     * Регистрирует фильтр по умолчанию, который сериализует все поля, — он действует,
+     * когда параметр {@code fields} не передан.
+     *
+     * @return настройка построителя ObjectMapper
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsFilter() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(SparseFields.FILTER, SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.zalando.logbook.Correlation;
+import org.zalando.logbook.HttpMessage;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Precorrelation;
+import org.zalando.logbook.Sink;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Приёмник Logbook, который журналирует HTTP-обмены вне потока обработки запроса.
+ * <p>
+ * В потоке запроса снимается только компактный снимок обмена с усечёнными телами;
+ * форматирование и запись выполняются отдельным потоком из ограниченной очереди.
+ * При переполнении очереди запись отбрасывается и учитывается в счётчике.
+ */
+@Slf4j
+public class AsyncHttpLogSink implements Sink, MeterBinder, DisposableBean {
+
+    private final HttpLogProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public AsyncHttpLogSink(HttpLogProperties properties) {
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "http-log-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> dropped.increment());
+    }
+
+    @Override
+    public boolean isActive() {
+        return properties.isEnabled() && log.isInfoEnabled();
+    }
+
+    /**
+     * Запрос журналируется вместе с ответом одной записью, поэтому здесь ничего не делается.
+     */
+    @Override
+    public void write(Precorrelation precorrelation, HttpRequest request) {
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException {
+        Exchange exchange = new Exchange(
+                correlation.getId(),
+                request.getMethod(),
+                request.getRequestUri(),
+                response.getStatus(),
+                correlation.getDuration().toMillis(),
+                truncate(request),
+                request.getCharset(),
+                truncate(response),
+                response.getCharset()
+        );
+        executor.execute(() -> {
+            log.info(exchange.format());
+            written.increment();
+        });
+    }
+
+    /**
+     * Возвращает количество записей, отброшенных из-за переполнения очереди.
+     *
+     * @return количество отброшенных записей
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("filmorate.http.log.written", written, LongAdder::sum)
+                .description("Записи HTTP-журнала, записанные асинхронно")
+                .register(registry);
+        FunctionCounter.builder("filmorate.http.log.dropped", dropped, LongAdder::sum)
+                .description("Записи HTTP-журнала, отброшенные при переполнении очереди")
+                .register(registry);
+        Gauge.builder("filmorate.http.log.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Текущая длина очереди HTTP-журнала")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Копирует не более {@code maxBodySize} байт тела сообщения.
+     *
+     * @param message HTTP-сообщение
+     * @return усечённое тело сообщения
+     * @throws IOException если тело не удалось прочитать
+     */
+    private byte[] truncate(HttpMessage message) throws IOException {
+        byte[] body = message.getBody();
+        int limit = Math.max(0, properties.getMaxBodySize());
+        return body.length <= limit ? body : Arrays.copyOf(body, limit);
+    }
+
+    /**
+     * Неизменяемый снимок HTTP-обмена, который форматируется уже в потоке записи.
+     */
+    private record Exchange(String id, String method, String uri, int status, long durationMs,
+                            byte[] requestBody, Charset requestCharset,
+                            byte[] responseBody, Charset responseCharset) {
+
+        String format() {
+            return String.format("%s %s %s -> %d (%d ms) request=%s response=%s", id, method, uri, status,
+                    durationMs, new String(requestBody, requestCharset), new String(responseBody, responseCharset));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.AntPathMatcher;
+import org.zalando.logbook.HttpRequest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Конфигурация Logbook: выборочное журналирование и асинхронная запись HTTP-обменов.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpLogProperties.class)
+public class HttpLogConfig {
+
+    /**
+     * Заменяет стандартный синхронный приёмник Logbook асинхронным.
+     *
+     * @param properties настройки журналирования
+     * @return асинхронный приёмник записей
+     */
+    @Bean
+    public AsyncHttpLogSink sink(HttpLogProperties properties) {
+        return new AsyncHttpLogSink(properties);
+    }
+
+    /**
+     * Условие журналирования запроса. Logbook не буферизует тела запросов, не прошедших условие,
+     * поэтому исключённые и не попавшие в выборку запросы почти ничего не стоят.
+     *
+     * @param properties настройки журналирования
+     * @return предикат отбора запросов
+     */
+    @Bean
+    public Predicate<HttpRequest> requestCondition(HttpLogProperties properties) {
+        AntPathMatcher matcher = new AntPathMatcher();
+        return request -> {
+            if (!properties.isEnabled()) {
+                return false;
+            }
+            for (String pattern : properties.getExcludePaths()) {
+                if (matcher.match(pattern, request.getPath())) {
+                    return false;
+                }
+            }
+            double rate = properties.getSampleRate();
+            return rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate;
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки журналирования HTTP-обменов (префикс {@code filmorate.http-log}).
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.http-log")
+public class HttpLogProperties {
+
+    /**
+     * Включено ли журналирование запросов и ответов.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Доля журналируемых запросов от 0.0 (ни одного) до 1.0 (все).
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Максимальный размер тела запроса или ответа в байтах, попадающий в журнал.
+     */
+    private int maxBodySize = 1024;
+
+    /**
+     * Ёмкость очереди записей; при переполнении новые записи отбрасываются.
+     */
+    private int queueCapacity = 1024;
+
+    /**
+     * Шаблоны путей (в формате Ant), запросы к которым не журналируются.
+     */
+    private List<String> excludePaths = new ArrayList<>();
+}
@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат обработки одного элемента пакетного импорта.
+ */
+@Data
+@NoArgsConstructor
+public class BatchItemResult {
+
+    /**
+     * Порядковый номер элемента во входных данных (начиная с 0).
+     */
+    private int index;
+
+    /**
+     * HTTP-статус обработки элемента: 201 — создан, 400 — ошибка валидации,
+     * 404 — не найден связанный объект, 409 — конфликт при записи в базу данных.
+     */
+    private int status;
+
+    /**
+     * Идентификатор созданной сущности, если элемент сохранён.
+     */
+    private Long id;
+
+    /**
+     * Описание ошибки, если элемент не сохранён.
+     */
+    private String error;
+
+    /**
+     * Конструктор результата для элемента с указанным порядковым номером.
+     *
+     * @param index порядковый номер элемента
+     */
+    public BatchItemResult(int index) {
+        this.index = index;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Событие ленты активности пользователя.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedEvent {
+
+    /**
+     * Номер события: время события в микросекундах от начала эпохи, при совпадении — следующий
+     * свободный номер. Чем больше номер, тем позже событие.
+     */
+    private long eventId;
+
+    /**
+     * Время события.
+     */
+    private Instant timestamp;
+
+    /**
+     * Идентификатор пользователя, совершившего действие.
+     */
+    private long userId;
+
+    /**
+     * Тип события.
+     */
+    private EventType eventType;
+
+    /**
+     * Идентификатор объекта события: фильма для лайка или пользователя для дружбы.
+     */
+    private long entityId;
+
+    /**
+     * Тип события ленты.
+     */
+    public enum EventType {
+        LIKE,
+        FRIEND
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница ленты активности.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedPage {
+
+    /**
+     * События страницы, от новых к старым.
+     */
+    private List<FeedEvent> events;
+
+    /**
+     * Курсор для запроса следующей страницы или {@code null}, если страница последняя.
+     */
+    private Long nextCursor;
+
+    /**
+     * Признак того, что лента закончилась из-за ограничения хранимой истории. Вытесненные из журнала
+     * события дочитываются из базы данных, поэтому признак всегда {@code false}; поле сохранено
+     * для совместимости формата ответа.
+     */
+    private boolean truncated;
+}
\ No newline at end of file
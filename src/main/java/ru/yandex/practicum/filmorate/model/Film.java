@@ -1,15 +1,16 @@
 package ru.yandex.practicum.filmorate.model;
 
-import jakarta.validation.constraints.*;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.validator.constraints.Length;
+import ru.yandex.practicum.filmorate.fields.SparseFields;
 
 import java.time.LocalDate;
-import java.util.HashSet;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
+@JsonFilter(SparseFields.FILTER)
 public class Film {
 
     /**
@@ -20,38 +21,32 @@ public class Film {
     /**
      * Название фильма, обязательное для заполнения, длина от 1 до 255 символов.
      */
-    @NotBlank(message = "Название фильма обязательно")
-    @Length(min = 1, max = 255, message = "Название фильма должно быть длиной от 1 до 255 символов.")
     private String name;
 
     /**
      * Описание фильма, обязательное для заполнения, максимум 200 символов.
      */
-    @NotBlank
-    @Size(max = 200, message = "Описание фильма не должно превышать 200 символов")
     private String description;
 
     /**
      * Дата выпуска фильма, значение должно быть не ранее 28 декабря 1895 года.
      */
-    @Past(message = "Дата релиза должна быть позже или равна 28 декабря 1895 года")
     private LocalDate releaseDate;
 
     /**
-     * Длительность фильма в минутах, значение должно быть неотрицательным.
+     * Длительность фильма в минутах, значение должно быть положительным.
      */
-    @PositiveOrZero(message = "Продолжительность фильма должна быть неотрицательным числом")
     private Integer duration;
 
     /**
-     * Набор жанров, к которым относится фильм.
+     * Набор жанров, к которым относится фильм. Наборы из кэша справочников общие для многих
+     * фильмов и не изменяются; чтобы изменить жанры, фильму назначают новый набор.
      */
-    private HashSet<Genre> genres;
+    private Set<Genre> genres;
 
     /**
      * Рейтинг MPA фильма, обязательное поле.
      */
-    @NotNull
     private Mpa mpa;
 
     /**
@@ -68,4 +63,20 @@ public class Film {
         this.releaseDate = releaseDate;
         this.duration = duration;
     }
+
+    /**
+     * Конструктор копирования. Набор жанров, сами жанры и рейтинг не копируются: наборы жанров
+     * не изменяются на месте, поэтому копия может разделять набор с исходным фильмом.
+     *
+     * @param other копируемый фильм
+     */
+    public Film(Film other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.description = other.description;
+        this.releaseDate = other.releaseDate;
+        this.duration = other.duration;
+        this.genres = other.genres;
+        this.mpa = other.mpa;
+    }
 }
\ No newline at end of file
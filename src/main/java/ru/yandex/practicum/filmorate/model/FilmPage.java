@@ -0,0 +1,26 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница списка фильмов с постраничным переходом по идентификатору.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilmPage {
+
+    /**
+     * Фильмы страницы в порядке возрастания идентификатора.
+     */
+    private List<Film> films;
+
+    /**
+     * Значение параметра {@code after} для следующей страницы или {@code null}, если страница последняя.
+     */
+    private Long nextAfter;
+}
\ No newline at end of file
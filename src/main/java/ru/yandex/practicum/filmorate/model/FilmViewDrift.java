@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат сверки представления фильмов с базой данных.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilmViewDrift {
+
+    /**
+     * Количество фильмов в базе данных на момент сверки.
+     */
+    private int checkedFilms;
+
+    /**
+     * Фильмы, которые есть в базе данных, но отсутствуют в представлении.
+     */
+    private List<Long> missing;
+
+    /**
+     * Фильмы, которые есть в представлении, но отсутствуют в базе данных.
+     */
+    private List<Long> orphaned;
+
+    /**
+     * Фильмы, у которых данные или количество лайков в представлении отличаются от базы данных.
+     */
+    private List<Long> mismatched;
+
+    /**
+     * Признак полного совпадения представления с базой данных.
+     *
+     * @return true, если расхождений нет
+     */
+    public boolean isConsistent() {
+        return missing.isEmpty() && orphaned.isEmpty() && mismatched.isEmpty();
+    }
+}
\ No newline at end of file
@@ -3,6 +3,8 @@ package ru.yandex.practicum.filmorate.model;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Data
 @NoArgsConstructor
 public class Friend {
@@ -23,4 +25,9 @@ public class Friend {
      * false — отправлен запрос на установление дружбы.
      */
     boolean status;
+
+    /**
+     * Время добавления в друзья.
+     */
+    private Instant createdAt;
 }
\ No newline at end of file
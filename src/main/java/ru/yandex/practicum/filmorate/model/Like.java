@@ -3,6 +3,8 @@ package ru.yandex.practicum.filmorate.model;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Data
 @NoArgsConstructor
 public class Like {
@@ -16,4 +18,9 @@ public class Like {
      * Идентификатор пользователя, поставившего лайк.
      */
     private Long userId;
+
+    /**
+     * Время, когда был поставлен лайк.
+     */
+    private Instant createdAt;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Изменение популярности фильма, передаваемое подписчикам потока популярных фильмов.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PopularityUpdate {
+
+    /**
+     * Идентификатор фильма.
+     */
+    private long filmId;
+
+    /**
+     * Текущее количество лайков фильма.
+     */
+    private int likes;
+
+    /**
+     * Место фильма в рейтинге популярных (начиная с 1) или {@code null}, если фильм в рейтинг не входит.
+     */
+    private Integer rank;
+}
\ No newline at end of file
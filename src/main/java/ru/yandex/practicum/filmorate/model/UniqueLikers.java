@@ -0,0 +1,36 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Приблизительное количество уникальных пользователей, поставивших лайк за период.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UniqueLikers {
+
+    /**
+     * Первый день периода.
+     */
+    private LocalDate from;
+
+    /**
+     * Последний день периода (включительно).
+     */
+    private LocalDate to;
+
+    /**
+     * Оценка количества уникальных пользователей.
+     */
+    private long uniqueLikers;
+
+    /**
+     * Стандартная относительная ошибка оценки, например 0.016 — 1,6%.
+     */
+    private double relativeError;
+}
\ No newline at end of file
@@ -1,13 +1,15 @@
 package ru.yandex.practicum.filmorate.model;
 
-import jakarta.validation.constraints.*;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import ru.yandex.practicum.filmorate.fields.SparseFields;
 
 import java.time.LocalDate;
 
 @Data
 @NoArgsConstructor
+@JsonFilter(SparseFields.FILTER)
 public class User {
 
     /**
@@ -18,16 +20,11 @@ public class User {
     /**
      * Электронная почта пользователя, должна быть валидной и обязательной.
      */
-    @Email(message = "Электронная почта должна соответствовать стандартному формату.")
-    @NotBlank(message = "Адрес электронной почты не может быть пустым.")
-    @NotNull
     private String email;
 
     /**
      * Логин пользователя, обязательный для заполнения.
      */
-    @NotBlank(message = "Логин пользователя должен быть заполнен.")
-    @NotEmpty
     private String login;
 
     /**
@@ -38,8 +35,6 @@ public class User {
     /**
      * Дата рождения пользователя, обязательная и не может быть в будущем.
      */
-    @PastOrPresent(message = "Дата рождения не может быть в будущем.")
-    @NotNull
     private LocalDate birthday;
 
     /**
@@ -56,4 +51,17 @@ public class User {
         this.name = name;
         this.birthday = birthday;
     }
+
+    /**
+     * Конструктор копирования.
+     *
+     * @param other копируемый пользователь
+     */
+    public User(User other) {
+        this.id = other.id;
+        this.email = other.email;
+        this.login = other.login;
+        this.name = other.name;
+        this.birthday = other.birthday;
+    }
 }
\ No newline at end of file
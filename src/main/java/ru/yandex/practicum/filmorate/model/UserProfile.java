@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Профиль пользователя: данные пользователя вместе с количеством друзей и лайков.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfile {
+
+    /**
+     * Пользователь.
+     */
+    private User user;
+
+    /**
+     * Количество друзей пользователя.
+     */
+    private int friendsCount;
+
+    /**
+     * Количество фильмов, которым пользователь поставил лайк.
+     */
+    private int likesCount;
+}
\ No newline at end of file
@@ -0,0 +1,176 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.UniqueLikers;
+import ru.yandex.practicum.filmorate.storage.analytics.LikeSketchStore;
+import ru.yandex.practicum.filmorate.storage.analytics.LikeSketchStore.Dimension;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
+import ru.yandex.practicum.filmorate.storage.films.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.index.FilmViewIndex;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Сервис аналитики лайков: приблизительное количество уникальных пользователей, поставивших лайк
+ * фильму, фильмам жанра или фильмам рейтинга MPA за произвольный период.
+ * <p>
+ * Каждый лайк добавляет пользователя в дневные скетчи {@link LikeSketchStore} фильма, его жанров
+ * и рейтинга, поэтому запрос не обращается к таблице лайков и не зависит от её размера. Дни
+ * считаются по UTC. Скетчи учитывают только добавление лайков: пользователь, убравший лайк,
+ * остаётся среди поставивших лайк в тот день.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsService {
+
+    private final LikeSketchStore sketchStore;
+    private final FilmViewIndex filmViewIndex;
+    private final FilmStorage filmStorage;
+    private final LikeDao likeDao;
+    private final ReferenceDataCache referenceData;
+
+    /**
+     * Заполняет скетчи по лайкам за срок хранения. Вызывается при прогреве приложения.
+     */
+    public void rebuild() {
+        LocalDate today = today();
+        Map<Long, Film> films = new HashMap<>();
+        for (Film film : filmStorage.getFilms()) {
+            films.put(film.getId(), film);
+        }
+        Instant since = sketchStore.firstRetainedDay(today).atStartOfDay(ZoneOffset.UTC).toInstant();
+        sketchStore.clear();
+        int[] likes = {0};
+        likeDao.forEachLikeSince(since, like -> {
+            record(films.get(like.getFilmId()), like.getFilmId(), like.getUserId(), like.getCreatedAt());
+            likes[0]++;
+        });
+        sketchStore.roll(today);
+        log.info("Скетчи уникальных пользователей восстановлены, лайков: {}", likes[0]);
+    }
+
+    /**
+     * Учитывает новый лайк.
+     *
+     * @param event событие изменения лайка
+     */
+    @EventListener
+    public void onLike(LikeEvent event) {
+        if (event.operation() != LikeEvent.Operation.ADDED) {
+            return;
+        }
+        sketchStore.roll(today());
+        record(film(event.filmId()), event.filmId(), event.userId(), event.likedAt());
+    }
+
+    /**
+     * Возвращает количество уникальных пользователей, поставивших лайк фильму.
+     *
+     * @param filmId идентификатор фильма
+     * @param from   первый день периода или {@code null}, если период начинается с {@code to}
+     * @param to     последний день периода или {@code null} для текущего дня
+     * @return оценка количества уникальных пользователей
+     */
+    public UniqueLikers getFilmLikers(Long filmId, LocalDate from, LocalDate to) {
+        if (!filmStorage.existsById(filmId)) {
+            throw new EntityNotFoundException(String.format("Фильм с id %s не существует", filmId));
+        }
+        return uniqueLikers(Dimension.FILM, filmId, from, to);
+    }
+
+    /**
+     * Возвращает количество уникальных пользователей, поставивших лайк фильмам жанра.
+     *
+     * @param genreId идентификатор жанра
+     * @param from    первый день периода или {@code null}, если период начинается с {@code to}
+     * @param to      последний день периода или {@code null} для текущего дня
+     * @return оценка количества уникальных пользователей
+     */
+    public UniqueLikers getGenreLikers(Integer genreId, LocalDate from, LocalDate to) {
+        if (!referenceData.hasGenre(genreId)) {
+            throw new EntityNotFoundException(String.format("Жанр с id %s не существует", genreId));
+        }
+        return uniqueLikers(Dimension.GENRE, genreId, from, to);
+    }
+
+    /**
+     * Возвращает количество уникальных пользователей, поставивших лайк фильмам рейтинга MPA.
+     *
+     * @param mpaId идентификатор рейтинга
+     * @param from  первый день периода или {@code null}, если период начинается с {@code to}
+     * @param to    последний день периода или {@code null} для текущего дня
+     * @return оценка количества уникальных пользователей
+     */
+    public UniqueLikers getMpaLikers(Integer mpaId, LocalDate from, LocalDate to) {
+        if (!referenceData.hasMpa(mpaId)) {
+            throw new EntityNotFoundException(String.format("Рейтинг с id %s не существует", mpaId));
+        }
+        return uniqueLikers(Dimension.MPA, mpaId, from, to);
+    }
+
+    private UniqueLikers uniqueLikers(Dimension dimension, long id, LocalDate from, LocalDate to) {
+        LocalDate today = today();
+        sketchStore.roll(today);
+        LocalDate last = to == null ? today : to;
+        LocalDate first = from == null ? last : from;
+        if (first.isAfter(last)) {
+            throw new ValidationException("Начало периода не может быть позже его окончания");
+        }
+        LocalDate firstRetained = sketchStore.firstRetainedDay(today);
+        if (first.isBefore(firstRetained) || last.isAfter(today)) {
+            throw new ValidationException(String.format("Период должен быть в пределах последних %d дней (с %s по %s)",
+                    sketchStore.getRetentionDays(), firstRetained, today));
+        }
+        long estimate = sketchStore.uniqueUsers(dimension, id, first, last);
+        return new UniqueLikers(first, last, estimate, sketchStore.relativeError());
+    }
+
+    private void record(Film film, long filmId, long userId, Instant likedAt) {
+        LocalDate day = LocalDate.ofInstant(likedAt, ZoneOffset.UTC);
+        sketchStore.record(Dimension.FILM, filmId, day, userId);
+        if (film == null) {
+            return;
+        }
+        if (film.getMpa() != null && film.getMpa().getId() != null) {
+            sketchStore.record(Dimension.MPA, film.getMpa().getId(), day, userId);
+        }
+        if (film.getGenres() != null) {
+            for (Genre genre : film.getGenres()) {
+                sketchStore.record(Dimension.GENRE, genre.getId(), day, userId);
+            }
+        }
+    }
+
+    /**
+     * Возвращает фильм из представления фильмов, а если его там нет — из хранилища.
+     */
+    private Film film(long filmId) {
+        FilmViewIndex.View view = filmViewIndex.view(filmId);
+        if (view != null) {
+            return view.film();
+        }
+        try {
+            return filmStorage.getFilmById(filmId);
+        } catch (EntityNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,183 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.filmorate.event.FilmEvent;
+import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.BatchItemResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.storage.dao.genre.GenreDao;
+import ru.yandex.practicum.filmorate.storage.films.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.utils.ValidationUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Сервис пакетного импорта фильмов и пользователей.
+ * <p>
+ * Входные данные читаются потоково (JSON-массив или NDJSON), каждый элемент проверяется
+ * по кэшу справочников, а корректные элементы сохраняются пакетными JDBC-запросами
+ * порциями по {@value #CHUNK_SIZE} штук, каждая порция — в отдельной транзакции.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchImportService {
+
+    /**
+     * Количество элементов, сохраняемых в одной транзакции.
+     */
+    private static final int CHUNK_SIZE = 500;
+
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final GenreDao genreDao;
+    private final ReferenceDataCache referenceData;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Импортирует фильмы из потока.
+     *
+     * @param body поток с JSON-массивом или NDJSON фильмов
+     * @return результаты обработки каждого элемента в исходном порядке
+     * @throws IOException если поток не удалось прочитать
+     */
+    public List<BatchItemResult> importFilms(InputStream body) throws IOException {
+        return importItems(body, Film.class,
+                film -> ValidationUtils.validateFilm(film, referenceData),
+                films -> {
+                    filmStorage.addFilms(films);
+                    genreDao.addGenres(films);
+                    films.forEach(film -> eventPublisher.publishEvent(new FilmEvent(film)));
+                },
+                Film::getId);
+    }
+
+    /**
+     * Импортирует пользователей из потока.
+     *
+     * @param body поток с JSON-массивом или NDJSON пользователей
+     * @return результаты обработки каждого элемента в исходном порядке
+     * @throws IOException если поток не удалось прочитать
+     */
+    public List<BatchItemResult> importUsers(InputStream body) throws IOException {
+        return importItems(body, User.class,
+                ValidationUtils::validateUser,
+                userStorage::addUsers,
+                User::getId);
+    }
+
+    private <T> List<BatchItemResult> importItems(InputStream body, Class<T> type, Consumer<T> validator,
+                                                  Consumer<List<T>> writer, Function<T, Long> idGetter)
+            throws IOException {
+        List<BatchItemResult> results = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<BatchItemResult> chunkResults = new ArrayList<>(CHUNK_SIZE);
+
+        try (MappingIterator<T> items = objectMapper.readerFor(type).readValues(body)) {
+            int index = 0;
+            while (true) {
+                BatchItemResult result = new BatchItemResult(index++);
+                T item;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    item = items.nextValue();
+                } catch (JsonParseException e) {
+                    // После синтаксической ошибки позиция в потоке не восстанавливается
+                    results.add(fail(result, HttpStatus.BAD_REQUEST, "Некорректный JSON: " + e.getOriginalMessage()));
+                    break;
+                } catch (JsonProcessingException e) {
+                    results.add(fail(result, HttpStatus.BAD_REQUEST, e.getOriginalMessage()));
+                    continue;
+                }
+                results.add(result);
+
+                try {
+                    validator.accept(item);
+                } catch (ValidationException e) {
+                    fail(result, HttpStatus.BAD_REQUEST, e.getMessage());
+                    continue;
+                } catch (EntityNotFoundException e) {
+                    fail(result, HttpStatus.NOT_FOUND, e.getMessage());
+                    continue;
+                }
+
+                chunk.add(item);
+                chunkResults.add(result);
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, chunkResults, writer, idGetter);
+                }
+            }
+        }
+        writeChunk(chunk, chunkResults, writer, idGetter);
+
+        log.info("Пакетный импорт {}: обработано элементов {}", type.getSimpleName(), results.size());
+        return results;
+    }
+
+    /**
+     * Сохраняет порцию элементов одной транзакцией. Если порция отклонена базой данных
+     * (например, из-за нарушения уникальности), элементы сохраняются по одному,
+     * чтобы ошибка одного элемента не отменяла остальные.
+     */
+    private <T> void writeChunk(List<T> chunk, List<BatchItemResult> chunkResults, Consumer<List<T>> writer,
+                                Function<T, Long> idGetter) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.accept(chunk));
+            for (int i = 0; i < chunk.size(); i++) {
+                created(chunkResults.get(i), idGetter.apply(chunk.get(i)));
+            }
+        } catch (DataAccessException chunkFailure) {
+            log.warn("Порция из {} элементов отклонена, сохранение по одному: {}", chunk.size(),
+                    chunkFailure.getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                List<T> single = new ArrayList<>(List.of(chunk.get(i)));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writer.accept(single));
+                    created(chunkResults.get(i), idGetter.apply(single.get(0)));
+                } catch (DataAccessException e) {
+                    fail(chunkResults.get(i), HttpStatus.CONFLICT, e.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        chunk.clear();
+        chunkResults.clear();
+    }
+
+    private BatchItemResult created(BatchItemResult result, Long id) {
+        result.setStatus(HttpStatus.CREATED.value());
+        result.setId(id);
+        return result;
+    }
+
+    private BatchItemResult fail(BatchItemResult result, HttpStatus status, String error) {
+        result.setStatus(status.value());
+        result.setError(error);
+        return result;
+    }
+}
\ No newline at end of file
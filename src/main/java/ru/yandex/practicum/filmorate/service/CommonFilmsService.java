@@ -0,0 +1,121 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
+import ru.yandex.practicum.filmorate.storage.index.FilmViewIndex;
+import ru.yandex.practicum.filmorate.storage.index.LikedFilmsIndex;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Сервис общих фильмов двух пользователей — фильмов, которым поставили лайк оба.
+ * <p>
+ * Общие фильмы находятся пересечением отсортированных массивов из {@link LikedFilmsIndex},
+ * а упорядочиваются по количеству лайков из представления фильмов, поэтому запрос
+ * не обращается к таблице лайков.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CommonFilmsService {
+
+    private static final Comparator<FilmViewIndex.View> BY_POPULARITY = Comparator
+            .comparingInt(FilmViewIndex.View::likes)
+            .thenComparing(view -> view.film().getId(), Comparator.reverseOrder());
+
+    private final LikedFilmsIndex likedFilmsIndex;
+    private final FilmViewIndex filmViewIndex;
+    private final FilmDbService filmService;
+    private final LikeDao likeDao;
+    private final UserStorage userStorage;
+
+    /**
+     * Перестраивает индекс по всем лайкам из базы данных. Вызывается при прогреве приложения.
+     */
+    public void rebuild() {
+        likedFilmsIndex.rebuild(likeDao::forEachLike);
+        log.info("Индекс лайков пользователей перестроен");
+    }
+
+    /**
+     * Обновляет индекс при добавлении или удалении лайка.
+     *
+     * @param event событие изменения лайка
+     */
+    @EventListener
+    public void onLike(LikeEvent event) {
+        if (event.operation() == LikeEvent.Operation.ADDED) {
+            likedFilmsIndex.add(event.userId(), event.filmId());
+        } else {
+            likedFilmsIndex.remove(event.userId(), event.filmId());
+        }
+    }
+
+    /**
+     * Возвращает фильмы, которым поставили лайк оба пользователя, по убыванию количества лайков;
+     * при равенстве выше фильм с меньшим идентификатором.
+     *
+     * @param userId   идентификатор первого пользователя
+     * @param friendId идентификатор второго пользователя
+     * @param count    наибольшее количество фильмов или {@code null}, если нужны все общие фильмы
+     * @return общие фильмы
+     */
+    public List<Film> getCommonFilms(Long userId, Long friendId, Integer count) {
+        if (count != null && count <= 0) {
+            throw new ValidationException("Количество фильмов должно быть положительным");
+        }
+        for (Long id : List.of(userId, friendId)) {
+            if (!userStorage.existsById(id)) {
+                throw new EntityNotFoundException(String.format("Пользователь с id %s не существует", id));
+            }
+        }
+
+        long[] common = likedFilmsIndex.common(userId, friendId);
+        int limit = count == null ? common.length : Math.min(count, common.length);
+        PriorityQueue<FilmViewIndex.View> heap = new PriorityQueue<>(limit + 1, BY_POPULARITY);
+        for (long filmId : common) {
+            FilmViewIndex.View view = view(filmId);
+            if (view == null) {
+                continue;
+            }
+            heap.offer(view);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Film> films = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            films.add(new Film(heap.poll().film()));
+        }
+        Collections.reverse(films);
+        return films;
+    }
+
+    /**
+     * Возвращает запись представления фильма, при необходимости загружая фильм в представление.
+     */
+    private FilmViewIndex.View view(long filmId) {
+        FilmViewIndex.View view = filmViewIndex.view(filmId);
+        if (view != null) {
+            return view;
+        }
+        try {
+            filmService.getFilmById(filmId);
+        } catch (EntityNotFoundException e) {
+            return null;
+        }
+        return filmViewIndex.view(filmId);
+    }
+}
\ No newline at end of file
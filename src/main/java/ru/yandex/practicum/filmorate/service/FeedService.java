@@ -0,0 +1,317 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.event.FriendEvent;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.FeedEvent;
+import ru.yandex.practicum.filmorate.model.FeedPage;
+import ru.yandex.practicum.filmorate.model.Friend;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.storage.dao.friends.FriendDao;
+import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
+import ru.yandex.practicum.filmorate.storage.index.ActivityLog;
+import ru.yandex.practicum.filmorate.storage.index.FriendActivityIndex;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Сервис ленты активности друзей: лайки и новые дружеские связи.
+ * <p>
+ * Лента собирается при чтении: из {@link ActivityLog} берутся последние события друзей,
+ * которые сливаются по убыванию номера через кучу (k-путевое слияние). Номера событий выводятся
+ * из их времени, поэтому курсор остаётся действительным после перезапуска.
+ * <p>
+ * В слиянии участвуют не больше {@value #MAX_FAN_OUT} друзей с самыми свежими событиями. Их список
+ * поддерживается при записи в {@link FriendActivityIndex}, поэтому страница выше его нижней границы
+ * собирается без чтения полного списка друзей и время ответа не растёт вместе с их количеством.
+ * События друзей, не попавших в список, не новее этой границы; на ней страница заканчивается,
+ * и только страницы ниже неё выбирают друзей полным обходом.
+ * <p>
+ * Если история друга вытеснена из журнала, более ранние события дочитываются из таблиц лайков
+ * и друзей по индексу {@code (user_id, created_at)} и только тогда, когда слияние до них доходит,
+ * поэтому активный друг не обрезает ленту остальным.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedService {
+
+    /**
+     * Наибольшее количество друзей, чьи события сливаются в одном запросе.
+     */
+    static final int MAX_FAN_OUT = FriendActivityIndex.MAX_FRIENDS;
+
+    /**
+     * Наибольший размер страницы ленты.
+     */
+    static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Глубина истории, восстанавливаемой из базы данных при запуске и дочитываемой при чтении ленты.
+     */
+    private static final Duration RETENTION = Duration.ofDays(30);
+
+    private final ActivityLog activityLog;
+    private final FriendActivityIndex friendActivity;
+    private final FriendDao friendDao;
+    private final LikeDao likeDao;
+    private final UserStorage userStorage;
+
+    /**
+     * Восстанавливает журнал действий по лайкам и дружеским связям за последние 30 дней
+     * и индекс друзей с самыми свежими событиями. Вызывается при прогреве приложения.
+     */
+    public void rebuild() {
+        Instant since = Instant.now().minus(RETENTION);
+        List<FeedEvent> events = new ArrayList<>();
+        likeDao.forEachLikeSince(since, like -> events.add(
+                new FeedEvent(0, like.getCreatedAt(), like.getUserId(), FeedEvent.EventType.LIKE, like.getFilmId())));
+        friendDao.forEachFriendshipSince(since, friend -> events.add(
+                new FeedEvent(0, friend.getCreatedAt(), friend.getUserId(), FeedEvent.EventType.FRIEND,
+                        friend.getFriendId())));
+        // Порядок совпадающих по времени событий фиксирован, чтобы номера не менялись от перезапуска к перезапуску
+        events.sort(Comparator.comparing(FeedEvent::getTimestamp)
+                .thenComparing(FeedEvent::getEventType)
+                .thenComparingLong(FeedEvent::getUserId)
+                .thenComparingLong(FeedEvent::getEntityId));
+
+        activityLog.clear();
+        for (FeedEvent event : events) {
+            activityLog.append(event.getUserId(), event.getEventType(), event.getEntityId(), event.getTimestamp());
+        }
+        friendActivity.clear();
+        friendDao.forEachFriendshipSince(Instant.EPOCH, friend -> friendActivity.follow(friend.getUserId(),
+                friend.getFriendId(), activityLog.lastEventIdBefore(friend.getFriendId(), Long.MAX_VALUE)));
+        log.info("Журнал действий восстановлен, событий: {}", events.size());
+    }
+
+    /**
+     * Добавляет в журнал новый лайк.
+     *
+     * @param event событие изменения лайка
+     */
+    @EventListener
+    public void onLike(LikeEvent event) {
+        if (event.operation() == LikeEvent.Operation.ADDED) {
+            FeedEvent appended = activityLog.append(
+                    event.userId(), FeedEvent.EventType.LIKE, event.filmId(), event.likedAt());
+            friendActivity.touch(event.userId(), appended.getEventId());
+        }
+    }
+
+    /**
+     * Добавляет в журнал новую дружескую связь и обновляет индекс друзей.
+     *
+     * @param event событие изменения дружбы
+     */
+    @EventListener
+    public void onFriend(FriendEvent event) {
+        if (event.operation() == FriendEvent.Operation.ADDED) {
+            friendActivity.follow(event.userId(), event.friendId(),
+                    activityLog.lastEventIdBefore(event.friendId(), Long.MAX_VALUE));
+            FeedEvent appended = activityLog.append(
+                    event.userId(), FeedEvent.EventType.FRIEND, event.friendId(), event.createdAt());
+            friendActivity.touch(event.userId(), appended.getEventId());
+        } else {
+            friendActivity.unfollow(event.userId(), event.friendId());
+        }
+    }
+
+    /**
+     * Возвращает страницу ленты активности друзей пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @param cursor курсор из предыдущей страницы или {@code null} для первой страницы
+     * @param limit  размер страницы
+     * @return страница ленты от новых событий к старым
+     */
+    public FeedPage getFeed(Long userId, Long cursor, int limit) {
+        if (!userStorage.existsById(userId)) {
+            throw new EntityNotFoundException(String.format("Пользователь с id %s не существует", userId));
+        }
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        long before = cursor == null ? Long.MAX_VALUE : cursor;
+
+        FriendActivityIndex.ActiveFriends active = friendActivity.activeFriends(userId);
+        if (before > active.floor() + 1) {
+            FeedPage page = merge(new Participants(active.friendIds(), active.floor()), before, limit);
+            if (page != null) {
+                return page;
+            }
+        }
+        // Ниже границы индекса события могут принадлежать любому из друзей
+        Participants participants = mostActive(friendDao.getFriends(userId), before);
+        FeedPage page = merge(participants, before, limit);
+        return page != null ? page : new FeedPage(List.of(), null, false);
+    }
+
+    /**
+     * Сливает события участников до курсора.
+     *
+     * @return страница или {@code null}, если до границы участников нет ни одного события
+     */
+    private FeedPage merge(Participants participants, long before, int limit) {
+        PriorityQueue<Source> heap = new PriorityQueue<>(
+                Comparator.comparingLong((Source source) -> source.current().getEventId()).reversed());
+        List<Long> evictedBeforeCursor = new ArrayList<>();
+        for (Long friendId : participants.friendIds()) {
+            List<FeedEvent> events = activityLog.eventsBefore(friendId, before, limit);
+            long horizon = activityLog.horizon(friendId);
+            if (!events.isEmpty()) {
+                heap.add(new Source(friendId, events, horizon == 0 ? 0 : Math.min(before, horizon), limit));
+            } else if (horizon > 0) {
+                evictedBeforeCursor.add(friendId);
+            }
+        }
+        for (Long friendId : participants.evictedFriendIds()) {
+            evictedBeforeCursor.add(friendId);
+        }
+        // История этих друзей до курсора целиком вытеснена из журнала и читается из базы одним запросом
+        if (!evictedBeforeCursor.isEmpty()) {
+            List<FeedEvent> events = older(evictedBeforeCursor, before, limit);
+            if (!events.isEmpty()) {
+                heap.add(new Source(0, events, 0, limit));
+            }
+        }
+
+        List<FeedEvent> page = new ArrayList<>(limit);
+        boolean fanOutBoundary = false;
+        while (page.size() < limit && !heap.isEmpty()) {
+            if (heap.peek().current().getEventId() <= participants.excludedLastEventId()) {
+                fanOutBoundary = true;
+                break;
+            }
+            Source source = heap.poll();
+            page.add(source.current());
+            if (source.advance()) {
+                heap.add(source);
+            }
+        }
+
+        // Участники исчерпаны, но у не попавших в слияние друзей могут быть события не новее границы
+        if (page.size() < limit && participants.excludedLastEventId() > 0) {
+            fanOutBoundary = true;
+        }
+        if (page.isEmpty() && fanOutBoundary) {
+            return null;
+        }
+        if (page.size() == limit || fanOutBoundary) {
+            return new FeedPage(page, page.get(page.size() - 1).getEventId(), false);
+        }
+        return new FeedPage(page, null, false);
+    }
+
+    /**
+     * Читает из базы данных события пользователей с номером меньше заданного, от новых к старым.
+     * События старше срока хранения журнала не читаются, как и при его восстановлении.
+     */
+    private List<FeedEvent> older(Collection<Long> userIds, long beforeEventId, int limit) {
+        Instant since = Instant.now().minus(RETENTION);
+        Instant before = ActivityLog.timestampOf(beforeEventId);
+        List<FeedEvent> events = new ArrayList<>();
+        for (Like like : likeDao.getLikesBetween(userIds, since, before, limit)) {
+            events.add(new FeedEvent(ActivityLog.eventIdOf(like.getCreatedAt()), like.getCreatedAt(),
+                    like.getUserId(), FeedEvent.EventType.LIKE, like.getFilmId()));
+        }
+        for (Friend friend : friendDao.getFriendshipsBetween(userIds, since, before, limit)) {
+            events.add(new FeedEvent(ActivityLog.eventIdOf(friend.getCreatedAt()), friend.getCreatedAt(),
+                    friend.getUserId(), FeedEvent.EventType.FRIEND, friend.getFriendId()));
+        }
+        events.sort(Comparator.comparingLong(FeedEvent::getEventId).reversed());
+        return events.size() > limit ? events.subList(0, limit) : events;
+    }
+
+    /**
+     * Оставляет не больше {@value #MAX_FAN_OUT} друзей с самыми свежими событиями до курсора.
+     * Самое свежее событие до курсора принадлежит одному из выбранных друзей, поэтому страница
+     * не бывает пустой из-за ограничения числа друзей. Друзья, чья история до курсора целиком
+     * вытеснена из журнала, участвуют в слиянии через чтение из базы данных.
+     */
+    private Participants mostActive(List<Long> friends, long before) {
+        PriorityQueue<long[]> heap = new PriorityQueue<>(MAX_FAN_OUT + 1, Comparator.comparingLong(a -> a[1]));
+        List<Long> evicted = new ArrayList<>();
+        long excludedLastEventId = 0;
+        for (Long friendId : friends) {
+            long lastEventId = activityLog.lastEventIdBefore(friendId, before);
+            if (lastEventId == 0) {
+                if (activityLog.horizon(friendId) > 0) {
+                    evicted.add(friendId);
+                }
+                continue;
+            }
+            heap.offer(new long[]{friendId, lastEventId});
+            if (heap.size() > MAX_FAN_OUT) {
+                excludedLastEventId = Math.max(excludedLastEventId, heap.poll()[1]);
+            }
+        }
+        List<Long> result = new ArrayList<>(heap.size());
+        for (long[] entry : heap) {
+            result.add(entry[0]);
+        }
+        return new Participants(result, evicted, excludedLastEventId);
+    }
+
+    /**
+     * Друзья, участвующие в слиянии, друзья, чьи события до курсора читаются только из базы данных,
+     * и номер, не новее которого события не попавших в слияние друзей.
+     */
+    private record Participants(List<Long> friendIds, List<Long> evictedFriendIds, long excludedLastEventId) {
+
+        Participants(List<Long> friendIds, long excludedLastEventId) {
+            this(friendIds, List.of(), excludedLastEventId);
+        }
+    }
+
+    /**
+     * Позиция в списке событий одного друга при слиянии. Когда события из журнала заканчиваются,
+     * а история друга вытеснена, следующие события один раз дочитываются из базы данных: больше
+     * страницы одному другу не понадобится.
+     */
+    private final class Source {
+
+        private final long friendId;
+        private final int limit;
+        private List<FeedEvent> events;
+        private int position;
+        private long olderThan;
+
+        Source(long friendId, List<FeedEvent> events, long olderThan, int limit) {
+            this.friendId = friendId;
+            this.events = events;
+            this.olderThan = olderThan;
+            this.limit = limit;
+        }
+
+        FeedEvent current() {
+            return events.get(position);
+        }
+
+        boolean advance() {
+            if (++position < events.size()) {
+                return true;
+            }
+            int remaining = limit - position;
+            if (olderThan == 0 || remaining <= 0) {
+                return false;
+            }
+            events = older(List.of(friendId), olderThan, remaining);
+            position = 0;
+            olderThan = 0;
+            return !events.isEmpty();
+        }
+    }
+}
\ No newline at end of file
@@ -1,23 +1,38 @@
 package ru.yandex.practicum.filmorate.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.event.FilmEvent;
 import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmPage;
+import ru.yandex.practicum.filmorate.storage.cache.GenreMask;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
 import ru.yandex.practicum.filmorate.storage.dao.genre.GenreDao;
 import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
-import ru.yandex.practicum.filmorate.storage.dao.mpa.MpaDao;
 import ru.yandex.practicum.filmorate.storage.films.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.index.FilmViewIndex;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.utils.FanOut;
+import ru.yandex.practicum.filmorate.utils.SingleFlight;
 import ru.yandex.practicum.filmorate.utils.ValidationUtils;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Сервис для обработки бизнес-логики, связанной с фильмами.
@@ -25,7 +40,12 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class FilmDbService {
+public class FilmDbService implements MeterBinder {
+
+    /**
+     * Наибольшее количество фильмов в одном запросе по списку идентификаторов.
+     */
+    static final int MAX_IDS = 100;
 
     /**
      * Хранилище фильмов.
@@ -39,14 +59,31 @@ public class FilmDbService {
      * Репозиторий для работы с жанрами.
      */
     private final GenreDao genreDao;
-    /**
-     * Репозиторий для работы с рейтингами MPAA.
-     */
-    private final MpaDao mpaDao;
     /**
      * Репозиторий для работы с лайками.
      */
     private final LikeDao likeDao;
+    /**
+     * Кэш справочников MPA и жанров.
+     */
+    private final ReferenceDataCache referenceData;
+    /**
+     * Представление фильмов для чтения.
+     */
+    private final FilmViewIndex filmViewIndex;
+    /**
+     * Публикатор событий сохранения фильмов.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+    /**
+     * Объединение одновременных загрузок одного фильма из базы данных.
+     */
+    private final SingleFlight<Long, Film> filmLoads = new SingleFlight<>("film", Film::new);
+    /**
+     * Параллельное выполнение запросов при загрузке фильма из базы данных.
+     */
+    @Qualifier("filmReads")
+    private final FanOut filmReads;
 
     /**
      * Добавляет лайк фильму от определенного пользователя.
@@ -73,53 +110,86 @@ public class FilmDbService {
 
     /**
      * Возвращает список популярных фильмов, отсортированных по количеству лайков.
+     * Рейтинг строится по представлению фильмов без обращения к базе данных;
+     * отбор по жанру сводится к проверке бита в маске жанров фильма.
      *
      * @param topNumber количество фильмов для отображения
+     * @param genreId   идентификатор жанра для отбора или {@code null}, если отбор не нужен
      * @return список популярных фильмов
      */
-    public List<Film> getPopularFilms(int topNumber) {
-        return getFilms().stream()
-                .sorted(Comparator.comparingInt((Film film) -> {
-                    int likes = likeDao.checkLikes(film.getId());
-                    return likes < 0 ? Integer.MAX_VALUE : likes; // Негативные значения считаем большими
-                }).reversed())
-                .limit(topNumber)
-                .collect(Collectors.toList());
+    public List<Film> getPopularFilms(int topNumber, Integer genreId) {
+        if (genreId == null) {
+            return filmViewIndex.top(topNumber);
+        }
+        long genreBit = GenreMask.bit(genreId);
+        if (genreBit == 0 || !referenceData.hasGenre(genreId)) {
+            throw new EntityNotFoundException(String.format("Жанр с id %s не существует", genreId));
+        }
+        return filmViewIndex.top(topNumber, genreBit);
+    }
+
+    /**
+     * Возвращает фильмы, у которых есть общие жанры с заданным фильмом: сначала фильмы с наибольшим
+     * числом общих жанров, при равенстве — более популярные. Отбор и ранжирование сводятся
+     * к побитовым операциям над масками жанров в представлении фильмов.
+     *
+     * @param filmId идентификатор фильма
+     * @param count  количество фильмов для отображения
+     * @return список фильмов с общими жанрами; пустой, если у фильма нет жанров
+     */
+    public List<Film> getFilmsSharingGenres(Long filmId, int count) {
+        Film film = getFilmById(filmId);
+        return filmViewIndex.sharingGenres(GenreMask.of(film.getGenres()), filmId, count);
     }
 
     /**
      * Создает новый фильм в базе данных.
+     * Фильм и его жанры записываются в одной транзакции, а ответ собирается из
+     * справочников без повторного чтения фильма.
      *
      * @param film объект фильма для создания
      * @return созданный фильм
      */
+    @Transactional
     public Film addFilm(Film film) {
         // Единственная проверка валидности фильма
-        ValidationUtils.validateFilm(film, mpaDao, genreDao);
+        ValidationUtils.validateFilm(film, referenceData);
 
-        Film addedFilm = filmStorage.addFilm(film);
+        Film addedFilm = filmStorage.addFilm(assembleFilm(film));
 
-        if (film.getGenres() != null && !film.getGenres().isEmpty()) {
-            genreDao.updateGenres(addedFilm.getId(), film.getGenres());
+        if (!addedFilm.getGenres().isEmpty()) {
+            genreDao.addGenres(addedFilm.getId(), addedFilm.getGenres());
         }
 
+        eventPublisher.publishEvent(new FilmEvent(addedFilm));
         return addedFilm;
     }
 
     /**
      * Обновляет данные фильма в базе данных.
+     * Существование фильма определяется по числу обновлённых строк, жанры заменяются
+     * в той же транзакции, если они переданы.
      *
      * @param film объект фильма с новыми данными
      * @return обновленный фильм
      */
+    @Transactional
     public Film updateFilm(Film film) {
-        Film currentFilm = filmStorage.getFilmById(film.getId());
-        if (currentFilm == null) {
-            throw new EntityNotFoundException("Фильм с указанным ID не найден");
-        }
+        ValidationUtils.validateFilm(film, referenceData);
 
+        boolean replaceGenres = film.getGenres() != null;
         Film updatedFilm = filmStorage.updateFilm(film);
-        enrichFilmWithDetails(updatedFilm);
+
+        if (replaceGenres) {
+            assembleFilm(updatedFilm);
+            genreDao.updateGenres(updatedFilm.getId(), updatedFilm.getGenres());
+        } else {
+            // Жанры не переданы — остаются прежними и читаются из базы
+            updatedFilm.setGenres(new HashSet<>(filmStorage.getGenresByFilm(updatedFilm.getId())));
+            assembleFilm(updatedFilm);
+        }
+
+        eventPublisher.publishEvent(new FilmEvent(updatedFilm));
         return updatedFilm;
     }
 
@@ -133,43 +203,135 @@ public class FilmDbService {
     }
 
     /**
-     * Возвращает фильм по его идентификатору.
+     * Возвращает фильм по его идентификатору из представления фильмов.
+     * Если фильма в представлении нет, он читается из базы и добавляется в представление;
+     * одновременные запросы одного фильма выполняют одну загрузку.
      *
      * @param id идентификатор фильма
      * @return объект фильма
      */
     public Film getFilmById(Long id) {
-        try {
-            Film film = filmStorage.getFilmById(id);
-            enrichFilmWithDetails(film);
+        Film film = filmViewIndex.get(id);
+        if (film != null) {
             return film;
+        }
+        return filmLoads.load(id, this::loadFilm);
+    }
+
+    /**
+     * Читает фильм из базы данных и добавляет его в представление фильмов.
+     * Фильм (с маской жанров) и количество его лайков запрашиваются параллельно;
+     * рейтинг и жанры берутся из кэша справочников.
+     *
+     * @param id идентификатор фильма
+     * @return объект фильма
+     */
+    private Film loadFilm(Long id) {
+        try {
+            return filmReads.join(() -> filmStorage.getFilmById(id), () -> likeDao.checkLikes(id), (film, likes) -> {
+                Film assembled = assembleFilm(film);
+                filmViewIndex.put(assembled, likes);
+                return assembled;
+            });
         } catch (EmptyResultDataAccessException exception) {
             throw new EntityNotFoundException(String.format("Фильма с id %s не существует", id));
         }
     }
 
     /**
-     * Возвращает список всех фильмов c жанрами и рейтингом
+     * Возвращает фильмы по списку идентификаторов в порядке запроса; повторы и
+     * несуществующие фильмы пропускаются. Фильмы берутся из представления, а отсутствующие
+     * в нём загружаются из хранилища одним запросом вместе с масками жанров, а их лайки
+     * подсчитываются вторым запросом. Загруженные фильмы добавляются в представление.
+     *
+     * @param ids идентификаторы фильмов, не больше {@value #MAX_IDS}
+     * @return найденные фильмы
+     */
+    public List<Film> getFilmsByIds(List<Long> ids) {
+        Set<Long> uniqueIds = uniqueIds(ids);
+        Map<Long, Film> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            Film film = filmViewIndex.get(id);
+            if (film != null) {
+                found.put(id, film);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<Film> loaded = filmStorage.getFilmsByIds(missing);
+            Map<Long, Integer> likes = likeDao.getLikeCounts(missing);
+            for (Film film : loaded) {
+                Film assembled = assembleFilm(film);
+                filmViewIndex.put(assembled, likes.getOrDefault(film.getId(), 0));
+                found.put(film.getId(), assembled);
+            }
+        }
+
+        List<Film> films = new ArrayList<>(found.size());
+        for (Long id : uniqueIds) {
+            Film film = found.get(id);
+            if (film != null) {
+                films.add(film);
+            }
+        }
+        return films;
+    }
+
+    /**
+     * Возвращает страницу фильмов, которым пользователь поставил лайк, по возрастанию идентификатора.
+     * Страница выбирается по индексу {@code (user_id, film_id)} после переданного идентификатора,
+     * поэтому время ответа не зависит ни от номера страницы, ни от общего числа лайков;
+     * фильмы страницы собираются одним пакетным чтением.
+     *
+     * @param userId идентификатор пользователя
+     * @param after  идентификатор последнего фильма предыдущей страницы или {@code null} для первой страницы
+     * @param limit  размер страницы, не больше {@value #MAX_IDS}
+     * @return страница фильмов
+     */
+    public FilmPage getLikedFilms(Long userId, Long after, int limit) {
+        if (limit <= 0 || limit > MAX_IDS) {
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_IDS);
+        }
+        if (!userStorage.existsById(userId)) {
+            throw new EntityNotFoundException(String.format("Пользователь с id %s не существует", userId));
+        }
+        List<Long> ids = likeDao.getLikedFilmIds(userId, after == null ? 0 : after, limit);
+        Long nextAfter = ids.size() == limit ? ids.get(ids.size() - 1) : null;
+        return new FilmPage(getFilmsByIds(ids), nextAfter);
+    }
+
+    /**
+     * Возвращает список всех фильмов c жанрами и рейтингом из представления фильмов.
      *
      * @return коллекция фильмов
      */
     public Collection<Film> getAllFilms() {
-        return filmStorage.getFilms().stream()
-                .peek(this::enrichFilmWithDetails)
-                .collect(Collectors.toList());
+        return filmViewIndex.all();
     }
 
     /**
-     * Дополняет фильм информацией о жанрах и рейтинге MPA.
+     * Заменяет рейтинг и жанры фильма полными объектами из кэша справочников.
+     * Повторяющиеся жанры при этом схлопываются.
      *
-     * @param film объект фильма
+     * @param film объект фильма с идентификаторами рейтинга и жанров
+     * @return тот же объект фильма
      */
-    private void enrichFilmWithDetails(Film film) {
-        // Получить жанры фильма
-        film.setGenres(new HashSet<>(genreDao.getGenresByFilm(film.getId())));
+    private Film assembleFilm(Film film) {
+        film.setMpa(referenceData.getMpa(film.getMpa().getId()));
+        film.setGenres(referenceData.resolveGenres(film.getGenres()));
+        return film;
+    }
 
-        // Получить рейтинг MPА
-        film.setMpa(mpaDao.getMpaById(film.getMpa().getId()));
+    /**
+     * Убирает повторы из списка идентификаторов, сохраняя порядок, и проверяет его размер.
+     */
+    private static Set<Long> uniqueIds(List<Long> ids) {
+        if (ids.size() > MAX_IDS) {
+            throw new ValidationException("За один запрос можно получить не больше " + MAX_IDS + " фильмов");
+        }
+        return new LinkedHashSet<>(ids);
     }
 
     /**
@@ -179,11 +341,16 @@ public class FilmDbService {
      * @param filmId идентификатор фильма
      */
     private void checkExistence(Long userId, Long filmId) {
-        if (filmStorage.getFilmById(filmId) == null) {
+        if (!filmStorage.existsById(filmId)) {
             throw new EntityNotFoundException("Фильма с таким Id не существует");
         }
-        if (userStorage.getUserById(userId) == null) {
+        if (!userStorage.existsById(userId)) {
             throw new EntityNotFoundException("Пользователь с таким Id не существует");
         }
     }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        filmLoads.bindTo(registry);
+    }
 }
\ No newline at end of file
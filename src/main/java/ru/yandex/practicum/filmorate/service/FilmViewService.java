@@ -0,0 +1,150 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.yandex.practicum.filmorate.event.FilmEvent;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmViewDrift;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
+import ru.yandex.practicum.filmorate.storage.films.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.index.FilmViewIndex;
+import ru.yandex.practicum.filmorate.storage.snapshot.CatalogSnapshot;
+import ru.yandex.practicum.filmorate.storage.snapshot.CatalogSnapshotStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервис поддержки представления фильмов для чтения ({@link FilmViewIndex}).
+ * <p>
+ * Фильм попадает в представление после фиксации транзакции, в которой он был сохранён,
+ * количество лайков обновляется по событиям лайков. Представление можно перестроить
+ * целиком и сверить с базой данных. Изменения, записанные во время перестроения,
+ * могут быть перезаписаны прочитанным ранее состоянием — такие расхождения выявляет сверка.
+ * <p>
+ * При запуске представление заполняется из снимка каталога, если он есть, и сразу начинает
+ * обслуживать чтения, а перестроение по базе выполняется в фоне.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FilmViewService {
+
+    private final FilmViewIndex filmViewIndex;
+    private final FilmStorage filmStorage;
+    private final LikeDao likeDao;
+    private final ReferenceDataCache referenceData;
+    private final CatalogSnapshotStore snapshotStore;
+
+    /**
+     * Заполняет представление при запуске: из снимка каталога с перестроением в фоне
+     * или, если снимка нет, перестроением по базе. Вызывается при прогреве приложения.
+     */
+    public void start() {
+        CatalogSnapshot.Contents snapshot = snapshotStore.load();
+        if (snapshot == null) {
+            rebuild();
+            return;
+        }
+        filmViewIndex.replaceAllViews(snapshot.views());
+        Thread.ofVirtual().name("film-view-catch-up").start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Не удалось перестроить представление фильмов после загрузки снимка", e);
+            }
+        });
+    }
+
+    /**
+     * Перестраивает представление по данным базы: фильмы с масками жанров и лайки читаются двумя запросами.
+     *
+     * @return количество фильмов в представлении
+     */
+    public synchronized int rebuild() {
+        Map<Long, Film> films = loadFilms();
+        filmViewIndex.replaceAll(films.values(), likeDao.getLikeCounts());
+        log.info("Представление фильмов перестроено, фильмов: {}", films.size());
+        return films.size();
+    }
+
+    /**
+     * Сохраняет фильм в представлении после фиксации транзакции записи.
+     *
+     * @param event событие сохранения фильма
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilm(FilmEvent event) {
+        filmViewIndex.put(assemble(new Film(event.film())));
+    }
+
+    /**
+     * Обновляет количество лайков фильма.
+     *
+     * @param event событие изменения лайка
+     */
+    @EventListener
+    public void onLike(LikeEvent event) {
+        filmViewIndex.addLikes(event.filmId(), event.delta());
+    }
+
+    /**
+     * Сверяет представление с базой данных.
+     *
+     * @return найденные расхождения
+     */
+    public FilmViewDrift checkDrift() {
+        Map<Long, FilmViewIndex.View> views = filmViewIndex.snapshot();
+        Map<Long, Film> films = loadFilms();
+        Map<Long, Integer> likes = likeDao.getLikeCounts();
+
+        List<Long> missing = new ArrayList<>();
+        List<Long> mismatched = new ArrayList<>();
+        for (Film film : films.values()) {
+            FilmViewIndex.View view = views.get(film.getId());
+            if (view == null) {
+                missing.add(film.getId());
+            } else if (!view.film().equals(film) || view.likes() != likes.getOrDefault(film.getId(), 0)) {
+                mismatched.add(film.getId());
+            }
+        }
+        List<Long> orphaned = new ArrayList<>();
+        for (Long filmId : views.keySet()) {
+            if (!films.containsKey(filmId)) {
+                orphaned.add(filmId);
+            }
+        }
+
+        FilmViewDrift drift = new FilmViewDrift(films.size(), missing, orphaned, mismatched);
+        if (!drift.isConsistent()) {
+            log.warn("Представление фильмов расходится с базой: отсутствуют {}, лишние {}, отличаются {}",
+                    missing.size(), orphaned.size(), mismatched.size());
+        }
+        return drift;
+    }
+
+    /**
+     * Читает все фильмы с рейтингами и жанрами. Жанры разворачиваются из маски фильма,
+     * поэтому таблица {@code film_genre} не читается.
+     */
+    private Map<Long, Film> loadFilms() {
+        Map<Long, Film> films = new HashMap<>();
+        for (Film film : filmStorage.getFilms()) {
+            films.put(film.getId(), assemble(film));
+        }
+        return films;
+    }
+
+    private Film assemble(Film film) {
+        film.setMpa(referenceData.getMpa(film.getMpa().getId()));
+        film.setGenres(referenceData.resolveGenres(film.getGenres()));
+        return film;
+    }
+}
\ No newline at end of file
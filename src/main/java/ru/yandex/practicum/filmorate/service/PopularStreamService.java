@@ -0,0 +1,282 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.model.PopularityUpdate;
+import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сервис потока изменений популярности фильмов (Server-Sent Events).
+ * <p>
+ * Запись лайка только обновляет счётчик фильма и помечает фильм изменённым — это не блокирует
+ * пишущий поток. Раз в {@value #FLUSH_INTERVAL_MS} мс изменённые фильмы собираются в одно
+ * сообщение (все лайки фильма за интервал схлопываются в одно значение), сообщение сериализуется
+ * один раз и рассылается подписчикам на виртуальных потоках. У каждого подписчика не больше
+ * одной отправки в работе; пока она не завершилась, новые изменения накапливаются у него
+ * с перезаписью по фильму. Подписчик, не принимающий данные дольше
+ * {@value #SLOW_CONSUMER_TIMEOUT_MS} мс, отключается.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PopularStreamService implements MeterBinder {
+
+    /**
+     * Интервал, за который изменения схлопываются в одно сообщение.
+     */
+    static final long FLUSH_INTERVAL_MS = 250;
+
+    /**
+     * Сколько фильмов входит в рейтинг, места в котором передаются подписчикам.
+     */
+    static final int RANKING_SIZE = 100;
+
+    /**
+     * Время, после которого не принимающий данные подписчик отключается.
+     */
+    static final long SLOW_CONSUMER_TIMEOUT_MS = 5_000;
+
+    /**
+     * Время жизни подключения; после него клиент переподключается.
+     */
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final LikeDao likeDao;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentHashMap<Long, Integer> likeCounts = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyFilms = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder sentMessages = new LongAdder();
+    private final LongAdder droppedSubscribers = new LongAdder();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "popular-stream-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Места фильмов в рейтинге на момент последней рассылки; используется только потоком рассылки.
+     */
+    private Map<Long, Integer> lastRanks = new HashMap<>();
+
+    /**
+     * Загружает текущие количества лайков и запускает периодическую рассылку.
+     * Вызывается при прогреве приложения.
+     */
+    public void start() {
+        likeCounts.putAll(likeDao.getLikeCounts());
+        lastRanks = ranks();
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Учитывает добавление или удаление лайка.
+     *
+     * @param event событие изменения лайка
+     */
+    @EventListener
+    public void onLike(LikeEvent event) {
+        likeCounts.merge(event.filmId(), event.delta(), (current, delta) -> Math.max(0, current + delta));
+        dirtyFilms.add(event.filmId());
+    }
+
+    /**
+     * Подписывает клиента на поток. Первым сообщением {@code snapshot} отправляется текущий рейтинг,
+     * далее сообщениями {@code update} — изменения.
+     *
+     * @return SSE-подключение клиента
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        List<PopularityUpdate> snapshot = new ArrayList<>();
+        ranks().forEach((filmId, rank) -> snapshot.add(new PopularityUpdate(filmId, likeCounts.getOrDefault(filmId, 0), rank)));
+        snapshot.sort(Comparator.comparing(PopularityUpdate::getRank));
+        try {
+            emitter.send(SseEmitter.event().name("snapshot").data(snapshot, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Собирает изменения за интервал и рассылает их подписчикам.
+     */
+    private void flush() {
+        try {
+            if (dirtyFilms.isEmpty()) {
+                return;
+            }
+            Set<Long> changed = new HashSet<>();
+            for (Iterator<Long> iterator = dirtyFilms.iterator(); iterator.hasNext(); ) {
+                changed.add(iterator.next());
+                iterator.remove();
+            }
+
+            Map<Long, Integer> ranks = ranks();
+            // Фильмы, у которых изменилось место в рейтинге, в том числе выбывшие из него
+            ranks.forEach((filmId, rank) -> {
+                if (!rank.equals(lastRanks.get(filmId))) {
+                    changed.add(filmId);
+                }
+            });
+            lastRanks.keySet().stream().filter(filmId -> !ranks.containsKey(filmId)).forEach(changed::add);
+            lastRanks = ranks;
+
+            List<PopularityUpdate> updates = new ArrayList<>(changed.size());
+            for (Long filmId : changed) {
+                updates.add(new PopularityUpdate(filmId, likeCounts.getOrDefault(filmId, 0), ranks.get(filmId)));
+            }
+            String payload = objectMapper.writeValueAsString(updates);
+            subscribers.forEach(subscriber -> dispatch(subscriber, updates, payload));
+        } catch (JsonProcessingException e) {
+            log.error("Не удалось сериализовать изменения популярности: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Ошибка рассылки изменений популярности", e);
+        }
+    }
+
+    private void dispatch(Subscriber subscriber, List<PopularityUpdate> updates, String payload) {
+        synchronized (subscriber) {
+            if (subscriber.sendingSince > 0) {
+                // Предыдущая отправка ещё идёт: копим изменения или отключаем медленного подписчика
+                if (System.currentTimeMillis() - subscriber.sendingSince > SLOW_CONSUMER_TIMEOUT_MS) {
+                    drop(subscriber);
+                    return;
+                }
+                updates.forEach(update -> subscriber.backlog.put(update.getFilmId(), update));
+                return;
+            }
+            subscriber.sendingSince = System.currentTimeMillis();
+        }
+        senders.execute(() -> send(subscriber, payload));
+    }
+
+    /**
+     * Отправляет сообщение подписчику, а затем — изменения, накопленные за время отправки.
+     */
+    private void send(Subscriber subscriber, String payload) {
+        String next = payload;
+        try {
+            while (next != null) {
+                subscriber.emitter.send(SseEmitter.event().name("update").data(next, MediaType.APPLICATION_JSON));
+                sentMessages.increment();
+                List<PopularityUpdate> merged;
+                synchronized (subscriber) {
+                    if (subscriber.backlog.isEmpty()) {
+                        subscriber.sendingSince = 0;
+                        return;
+                    }
+                    merged = new ArrayList<>(subscriber.backlog.values());
+                    subscriber.backlog.clear();
+                    subscriber.sendingSince = System.currentTimeMillis();
+                }
+                next = objectMapper.writeValueAsString(merged);
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            droppedSubscribers.increment();
+            subscriber.emitter.complete();
+        }
+    }
+
+    /**
+     * Вычисляет места фильмов в рейтинге популярных с помощью кучи ограниченного размера.
+     */
+    private Map<Long, Integer> ranks() {
+        PriorityQueue<Map.Entry<Long, Integer>> heap = new PriorityQueue<>(RANKING_SIZE + 1,
+                Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+        for (Map.Entry<Long, Integer> entry : likeCounts.entrySet()) {
+            if (entry.getValue() <= 0) {
+                continue;
+            }
+            heap.offer(Map.entry(entry.getKey(), entry.getValue()));
+            if (heap.size() > RANKING_SIZE) {
+                heap.poll();
+            }
+        }
+        Map<Long, Integer> ranks = new HashMap<>();
+        for (int rank = heap.size(); rank > 0; rank--) {
+            ranks.put(heap.poll().getKey(), rank);
+        }
+        return ranks;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("filmorate.popular.stream.subscribers", subscribers, Set::size)
+                .description("Подписчики потока популярных фильмов")
+                .register(registry);
+        FunctionCounter.builder("filmorate.popular.stream.sent", sentMessages, LongAdder::sum)
+                .description("Сообщения, отправленные подписчикам потока популярных фильмов")
+                .register(registry);
+        FunctionCounter.builder("filmorate.popular.stream.dropped", droppedSubscribers, LongAdder::sum)
+                .description("Медленные подписчики, отключённые от потока популярных фильмов")
+                .register(registry);
+    }
+
+    /**
+     * Подписчик потока и изменения, накопленные за время его текущей отправки.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Map<Long, PopularityUpdate> backlog = new HashMap<>();
+        private long sendingSince;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.index.LikedFilmsIndex;
+import ru.yandex.practicum.filmorate.storage.index.SimilarUsersIndex;
+import ru.yandex.practicum.filmorate.storage.index.SimilarUsersProperties;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Сервис поиска пользователей с похожими вкусами.
+ * <p>
+ * Кандидаты отбираются по совпадению полос сигнатур MinHash в {@link SimilarUsersIndex},
+ * после чего для каждого кандидата точно вычисляется сходство Жаккара наборов лайков
+ * по отсортированным массивам из {@link LikedFilmsIndex}. Полнота и время ответа
+ * настраиваются через {@link SimilarUsersProperties}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SimilarUsersService {
+
+    /**
+     * Наибольшее количество похожих пользователей в ответе.
+     */
+    static final int MAX_COUNT = 100;
+
+    private final SimilarUsersIndex similarUsersIndex;
+    private final SimilarUsersProperties properties;
+    private final LikedFilmsIndex likedFilmsIndex;
+    private final UserStorage userStorage;
+
+    /**
+     * Пересчитывает сигнатуры всех пользователей по индексу лайков. Вызывается при прогреве приложения
+     * после перестроения {@link LikedFilmsIndex}.
+     */
+    public void rebuild() {
+        similarUsersIndex.clear();
+        likedFilmsIndex.forEachUser(similarUsersIndex::replace);
+        log.info("Индекс похожих пользователей перестроен");
+    }
+
+    /**
+     * Обновляет сигнатуру пользователя при добавлении или удалении лайка.
+     *
+     * @param event событие изменения лайка
+     */
+    @EventListener
+    public void onLike(LikeEvent event) {
+        if (event.operation() == LikeEvent.Operation.ADDED) {
+            similarUsersIndex.add(event.userId(), event.filmId());
+        } else {
+            // Удалённый фильм исключается явно: индекс лайков мог ещё не обработать это событие
+            long[] films = Arrays.stream(likedFilmsIndex.likedFilms(event.userId()))
+                    .filter(filmId -> filmId != event.filmId())
+                    .toArray();
+            similarUsersIndex.replace(event.userId(), films);
+        }
+    }
+
+    /**
+     * Возвращает пользователей с наиболее похожими лайками по убыванию сходства Жаккара;
+     * при равенстве выше пользователь с меньшим идентификатором.
+     *
+     * @param userId идентификатор пользователя
+     * @param count  наибольшее количество пользователей
+     * @return похожие пользователи
+     */
+    public List<User> getSimilarUsers(Long userId, int count) {
+        if (count <= 0 || count > MAX_COUNT) {
+            throw new ValidationException("Количество пользователей должно быть от 1 до " + MAX_COUNT);
+        }
+        if (!userStorage.existsById(userId)) {
+            throw new EntityNotFoundException(String.format("Пользователь с id %s не существует", userId));
+        }
+
+        int liked = likedFilmsIndex.likedCount(userId);
+        Set<Long> candidates = similarUsersIndex.candidates(userId, properties.getMaxCandidates());
+        Comparator<Match> bySimilarity = Comparator.comparingDouble(Match::similarity)
+                .thenComparing(Match::userId, Comparator.reverseOrder());
+        PriorityQueue<Match> heap = new PriorityQueue<>(count + 1, bySimilarity);
+        for (Long candidate : candidates) {
+            int common = likedFilmsIndex.commonCount(userId, candidate);
+            if (common == 0) {
+                continue;
+            }
+            int union = liked + likedFilmsIndex.likedCount(candidate) - common;
+            heap.offer(new Match(candidate, (double) common / union));
+            if (heap.size() > count) {
+                heap.poll();
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ids.add(0, heap.poll().userId());
+        }
+        return userStorage.getUsersByIds(ids);
+    }
+
+    /**
+     * Кандидат и его точное сходство с пользователем.
+     */
+    private record Match(long userId, double similarity) {
+    }
+}
\ No newline at end of file
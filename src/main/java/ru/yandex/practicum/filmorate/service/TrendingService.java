@@ -0,0 +1,91 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
+import ru.yandex.practicum.filmorate.storage.index.TrendingIndex;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервис «трендовых» фильмов — самых популярных по лайкам за последние сутки или неделю.
+ * Запросы обслуживаются из {@link TrendingIndex} без обращения к таблице лайков.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingService {
+
+    private final TrendingIndex trendingIndex;
+    private final LikeDao likeDao;
+    private final FilmDbService filmService;
+
+    /**
+     * Перестраивает индекс по лайкам из базы данных за последние {@value TrendingIndex#MAX_WINDOW_HOURS} часов.
+     * Вызывается при прогреве приложения.
+     */
+    public void rebuild() {
+        trendingIndex.clear();
+        Instant since = Instant.now().minus(Duration.ofHours(TrendingIndex.MAX_WINDOW_HOURS));
+        likeDao.forEachLikeSince(since, like -> trendingIndex.record(like.getFilmId(), like.getCreatedAt(), 1));
+        log.info("Индекс трендовых фильмов перестроен");
+    }
+
+    /**
+     * Обновляет индекс при добавлении или удалении лайка.
+     *
+     * @param event событие изменения лайка
+     */
+    @EventListener
+    public void onLike(LikeEvent event) {
+        trendingIndex.record(event.filmId(), event.likedAt(), event.delta());
+    }
+
+    /**
+     * Возвращает фильмы, набравшие больше всего лайков за окно.
+     *
+     * @param window окно в формате {@code 24h} или {@code 7d}
+     * @param count  количество фильмов
+     * @return список фильмов по убыванию количества лайков за окно
+     */
+    public List<Film> getTrendingFilms(String window, int count) {
+        if (count <= 0) {
+            throw new ValidationException("Количество фильмов должно быть положительным");
+        }
+        List<long[]> top = trendingIndex.top(parseWindowHours(window), count);
+        List<Film> films = new ArrayList<>(top.size());
+        for (long[] entry : top) {
+            films.add(filmService.getFilmById(entry[0]));
+        }
+        return films;
+    }
+
+    /**
+     * Переводит окно вида {@code 24h} или {@code 7d} в часы.
+     */
+    private int parseWindowHours(String window) {
+        if (window != null && window.length() > 1) {
+            char unit = window.charAt(window.length() - 1);
+            try {
+                int value = Integer.parseInt(window.substring(0, window.length() - 1));
+                int hours = unit == 'h' ? value : unit == 'd' ? value * 24 : -1;
+                if (hours > 0 && hours <= TrendingIndex.MAX_WINDOW_HOURS) {
+                    return hours;
+                }
+            } catch (NumberFormatException ignored) {
+                // сообщение об ошибке формируется ниже
+            }
+        }
+        throw new ValidationException(String.format(
+                "Некорректное окно %s: ожидается значение вида 24h или 7d, не больше %d часов",
+                window, TrendingIndex.MAX_WINDOW_HOURS));
+    }
+}
\ No newline at end of file
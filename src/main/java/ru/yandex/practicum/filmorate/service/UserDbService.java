@@ -1,21 +1,29 @@
 package ru.yandex.practicum.filmorate.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserProfile;
 import ru.yandex.practicum.filmorate.storage.dao.friends.FriendDao;
 import ru.yandex.practicum.filmorate.storage.dao.genre.GenreDao;
 import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
 import ru.yandex.practicum.filmorate.storage.dao.mpa.MpaDao;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+import ru.yandex.practicum.filmorate.utils.FanOut;
+import ru.yandex.practicum.filmorate.utils.SingleFlight;
 import ru.yandex.practicum.filmorate.utils.ValidationUtils;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -25,7 +33,12 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class UserDbService {
+public class UserDbService implements MeterBinder {
+
+    /**
+     * Наибольшее количество пользователей в одном запросе по списку идентификаторов.
+     */
+    static final int MAX_IDS = 100;
 
     /**
      * Хранилище пользователей.
@@ -47,6 +60,16 @@ public class UserDbService {
      * Репозиторий для работы с друзьями.
      */
     private final FriendDao friendDao;
+    /**
+     * Объединение одновременных загрузок друзей одного пользователя.
+     */
+    private final SingleFlight<Long, List<User>> friendLoads = new SingleFlight<>("friends",
+            friends -> friends.stream().map(User::new).collect(Collectors.toList()));
+    /**
+     * Параллельное выполнение запросов профиля пользователя.
+     */
+    @Qualifier("profileReads")
+    private final FanOut profileReads;
 
     /**
      * Регистрирует нового пользователя.
@@ -68,9 +91,8 @@ public class UserDbService {
      */
     public User updateUser(User user) {
         log.info("Обновление пользователя c именем {} в базе данных.", user.getName());
-        if (userStorage.getUserById(user.getId()) == null) {
-            throw new EntityNotFoundException("Такого пользователя не существует");
-        }
+        ValidationUtils.validateUser(user);
+        // Хранилище само сообщает об отсутствии пользователя по числу обновлённых строк
         return userStorage.updateUser(user);
     }
 
@@ -82,9 +104,41 @@ public class UserDbService {
      */
     public User getUserById(Long id) {
         log.info("Получение пользователя c id {} из базе данных.", id);
+        // Одновременные промахи по одному пользователю объединяет кэш хранилища
         return userStorage.getUserById(id);
     }
 
+    /**
+     * Возвращает профиль пользователя. Пользователь, количество его друзей и количество его лайков
+     * запрашиваются параллельно, поэтому время ответа определяется самым медленным запросом.
+     *
+     * @param id идентификатор пользователя
+     * @return профиль пользователя
+     */
+    public UserProfile getUserProfile(Long id) {
+        log.info("Получение профиля пользователя c id {}.", id);
+        return profileReads.join(
+                () -> getUserById(id),
+                () -> friendDao.countFriends(id),
+                () -> likeDao.countLikesByUser(id),
+                UserProfile::new);
+    }
+
+    /**
+     * Возвращает пользователей по списку идентификаторов одним запросом к хранилищу,
+     * в порядке запроса; повторы и несуществующие пользователи пропускаются.
+     *
+     * @param ids идентификаторы пользователей, не больше {@value #MAX_IDS}
+     * @return найденные пользователи
+     */
+    public List<User> getUsersByIds(List<Long> ids) {
+        if (ids.size() > MAX_IDS) {
+            throw new ValidationException("За один запрос можно получить не больше " + MAX_IDS + " пользователей");
+        }
+        log.info("Получение {} пользователей по списку идентификаторов.", ids.size());
+        return userStorage.getUsersByIds(new LinkedHashSet<>(ids));
+    }
+
     /**
      * Добавляет пользователя в список друзей другому пользователю.
      *
@@ -111,10 +165,7 @@ public class UserDbService {
         log.info("Пользователь {} удаляет из друзей пользователя {}.", userId, idFriend);
 
         // Проверяем существование пользователя и друга
-        Optional<User> userOptional = Optional.ofNullable(userStorage.getUserById(userId));
-        Optional<User> friendOptional = Optional.ofNullable(userStorage.getUserById(idFriend));
-
-        if (userOptional.isPresent() && friendOptional.isPresent()) {
+        if (userStorage.existsById(userId) && userStorage.existsById(idFriend)) {
             // Выполняем удаление дружбы
             friendDao.deleteFriends(userId, idFriend);
             log.info("Пользователь с id {} и {} удалены друг у друга из друзей", userId, idFriend);
@@ -151,17 +202,15 @@ public class UserDbService {
      * @return список друзей пользователя
      */
     public List<User> getFriends(Long id) {
-        if (userStorage.getUserById(id).getEmail().isEmpty()) {
-
+        if (!userStorage.existsById(id)) {
             throw new EntityNotFoundException(String.format("Пользователь с id %s не существует", id));
-
         }
         log.info("Запрошены друзья у пользователя с id {}", id);
 
-        return friendDao.getFriends(id).stream()
+        return friendLoads.load(id, userId -> friendDao.getFriends(userId).stream()
                 .mapToLong(Long::valueOf)
                 .mapToObj(userStorage::getUserById)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -173,4 +222,23 @@ public class UserDbService {
         log.info("Запрошены все пользователи из базы данных.");
         return userStorage.getUsers();
     }
+
+    /**
+     * Возвращает коллекцию всех зарегистрированных пользователей, читая из базы только нужные поля.
+     *
+     * @param fields набор полей или {@code null}, если нужны все поля
+     * @return коллекция объектов {@link User}, хранящихся в базе данных
+     */
+    public Collection<User> getAllUsers(Set<String> fields) {
+        if (fields == null) {
+            return getAllUsers();
+        }
+        log.info("Запрошены поля {} всех пользователей из базы данных.", fields);
+        return userStorage.getUsers(fields);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        friendLoads.bindTo(registry);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package ru.yandex.practicum.filmorate.startup;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация запуска приложения: прогрев и отчёт о времени запуска.
+ */
+@Configuration
+@EnableConfigurationProperties(StartupProperties.class)
+public class StartupConfig {
+
+    /**
+     * Исключает прогрев и отчёт о запуске из отложенной инициализации бинов
+     * ({@code spring.main.lazy-initialization}), чтобы они создавались при любом режиме запуска.
+     *
+     * @return фильтр исключений отложенной инициализации
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter startupLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(StartupWarmup.class, StartupReport.class);
+    }
+}
\ No newline at end of file
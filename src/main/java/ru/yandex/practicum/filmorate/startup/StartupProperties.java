@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.startup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки прогрева при запуске (префикс {@code filmorate.startup}).
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.startup")
+public class StartupProperties {
+
+    /**
+     * Количество потоков, на которых параллельно выполняются задачи прогрева.
+     */
+    private int warmupThreads = 4;
+
+    /**
+     * Наибольшее время прогрева; если прогрев не успел завершиться, запуск прерывается.
+     */
+    private Duration warmupTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Сколько самых популярных фильмов загружается в кэш фильмов при прогреве.
+     */
+    private int hotFilms = 1000;
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package ru.yandex.practicum.filmorate.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отчёт о времени запуска приложения по фазам.
+ * <p>
+ * Когда приложение готово принимать запросы, в журнал пишется разбивка времени до готовности:
+ * инициализация базы данных ({@code schema.sql} и {@code data.sql}), прогрев ({@link StartupWarmup})
+ * и остальной запуск контекста. Те же значения публикуются метрикой {@code filmorate.startup.phase}
+ * с тегом {@code phase}, чтобы время до готовности можно было сравнивать между версиями.
+ * Время инициализации базы берётся из шагов запуска, которые записывает
+ * {@link BufferingApplicationStartup}; без него эта фаза не выделяется.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StartupReport {
+
+    /**
+     * Бин Spring Boot, выполняющий скрипты инициализации базы данных.
+     */
+    private static final String DB_INITIALIZER_BEAN = "dataSourceScriptDatabaseInitializer";
+
+    private final StartupWarmup startupWarmup;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Время фаз запуска. Хранится в бине, потому что метрики держат свои объекты
+     * по слабой ссылке: значения, созданные внутри обработчика, собрал бы сборщик мусора.
+     */
+    private final Map<String, Duration> phases = new ConcurrentHashMap<>();
+
+    /**
+     * Пишет отчёт о запуске и публикует время фаз запуска.
+     *
+     * @param event событие готовности приложения
+     */
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        Duration ready = event.getTimeTaken();
+        Duration dbInit = Duration.ZERO;
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            dbInit = dbInitDuration(startup.getBufferedTimeline());
+        }
+        Duration warmUp = startupWarmup.getTotalDuration();
+
+        phases.put("db-init", dbInit);
+        phases.put("warm-up", warmUp);
+        phases.put("context", positive(ready.minus(dbInit).minus(warmUp)));
+        phases.put("ready", ready);
+        for (String phase : phases.keySet()) {
+            TimeGauge.builder("filmorate.startup.phase", phases, TimeUnit.MILLISECONDS,
+                            values -> values.get(phase).toMillis())
+                    .tag("phase", phase)
+                    .description("Время фазы запуска приложения")
+                    .register(meterRegistry);
+        }
+
+        log.info("Приложение готово за {} мс: контекст {} мс, инициализация базы {} мс, прогрев {} мс {}",
+                ready.toMillis(), phases.get("context").toMillis(), dbInit.toMillis(), warmUp.toMillis(),
+                startupWarmup.taskDurations());
+    }
+
+    /**
+     * Суммирует время создания бина инициализации базы данных.
+     */
+    private static Duration dbInitDuration(StartupTimeline timeline) {
+        Duration total = Duration.ZERO;
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            StartupStep step = event.getStartupStep();
+            if (!"spring.beans.instantiate".equals(step.getName())) {
+                continue;
+            }
+            for (StartupStep.Tag tag : step.getTags()) {
+                if ("beanName".equals(tag.getKey()) && DB_INITIALIZER_BEAN.equals(tag.getValue())) {
+                    total = total.plus(event.getDuration());
+                }
+            }
+        }
+        return total;
+    }
+
+    private static Duration positive(Duration duration) {
+        return duration.isNegative() ? Duration.ZERO : duration;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,165 @@
+package ru.yandex.practicum.filmorate.startup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.AnalyticsService;
+import ru.yandex.practicum.filmorate.service.CommonFilmsService;
+import ru.yandex.practicum.filmorate.service.FeedService;
+import ru.yandex.practicum.filmorate.service.FilmViewService;
+import ru.yandex.practicum.filmorate.service.PopularStreamService;
+import ru.yandex.practicum.filmorate.service.SimilarUsersService;
+import ru.yandex.practicum.filmorate.service.TrendingService;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.storage.films.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.index.FilmViewIndex;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Прогрев приложения при запуске: справочники, индексы в памяти и кэш популярных фильмов.
+ * <p>
+ * Прогрев выполняется как фаза жизненного цикла контекста раньше запуска веб-сервера, поэтому
+ * приложение начинает принимать запросы и сообщает о готовности ({@code /actuator/health/readiness})
+ * только после его завершения. Справочники загружаются первыми, остальные задачи выполняются
+ * параллельно на {@link StartupProperties#getWarmupThreads()} потоках. Сервисы получаются через
+ * {@link ObjectProvider}, поэтому при отложенной инициализации бинов они создаются только здесь.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StartupWarmup implements SmartLifecycle {
+
+    /**
+     * Фаза прогрева: раньше веб-сервера, который запускается в одной из последних фаз.
+     */
+    private static final int PHASE = 0;
+
+    private final StartupProperties properties;
+    private final ObjectProvider<ReferenceDataCache> referenceData;
+    private final ObjectProvider<FilmViewService> filmViewService;
+    private final ObjectProvider<FeedService> feedService;
+    private final ObjectProvider<TrendingService> trendingService;
+    private final ObjectProvider<PopularStreamService> popularStreamService;
+    private final ObjectProvider<CommonFilmsService> commonFilmsService;
+    private final ObjectProvider<SimilarUsersService> similarUsersService;
+    private final ObjectProvider<AnalyticsService> analyticsService;
+    private final ObjectProvider<FilmViewIndex> filmViewIndex;
+    private final ObjectProvider<FilmStorage> filmStorage;
+
+    private final Map<String, Duration> taskDurations = Collections.synchronizedMap(new LinkedHashMap<>());
+    private volatile Duration totalDuration = Duration.ZERO;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        long started = System.nanoTime();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getWarmupThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "startup-warmup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            run("reference-data", () -> referenceData.getObject().fingerprint());
+
+            CompletableFuture<Void> filmView = task(executor, "film-view", () -> filmViewService.getObject().start());
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            tasks.add(filmView);
+            tasks.add(task(executor, "feed", () -> feedService.getObject().rebuild()));
+            tasks.add(task(executor, "trending", () -> trendingService.getObject().rebuild()));
+            tasks.add(task(executor, "popular-stream", () -> popularStreamService.getObject().start()));
+            CompletableFuture<Void> likedFilms = task(executor, "liked-films", () -> commonFilmsService.getObject().rebuild());
+            tasks.add(likedFilms);
+            tasks.add(likedFilms.thenRunAsync(() -> run("similar-users", () -> similarUsersService.getObject().rebuild()), executor));
+            tasks.add(task(executor, "analytics", () -> analyticsService.getObject().rebuild()));
+            tasks.add(filmView.thenRunAsync(() -> run("hot-films", this::warmHotFilms), executor));
+
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+                    .get(properties.getWarmupTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Прогрев при запуске завершился ошибкой", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Прогрев при запуске не завершился за " + properties.getWarmupTimeout(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Прогрев при запуске прерван", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        totalDuration = Duration.ofNanos(System.nanoTime() - started);
+        running = true;
+        log.info("Прогрев при запуске завершён за {} мс: {}", totalDuration.toMillis(), taskDurations());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Общее время прогрева.
+     *
+     * @return время прогрева или ноль, если прогрев ещё не выполнялся
+     */
+    public Duration getTotalDuration() {
+        return totalDuration;
+    }
+
+    /**
+     * Время выполнения каждой задачи прогрева.
+     *
+     * @return карта «задача — время выполнения» в порядке завершения задач
+     */
+    public Map<String, Duration> taskDurations() {
+        synchronized (taskDurations) {
+            return new LinkedHashMap<>(taskDurations);
+        }
+    }
+
+    /**
+     * Загружает самые популярные фильмы в кэш фильмов одним пакетным запросом.
+     */
+    private void warmHotFilms() {
+        List<Long> ids = new ArrayList<>();
+        for (Film film : filmViewIndex.getObject().top(properties.getHotFilms())) {
+            ids.add(film.getId());
+        }
+        filmStorage.getObject().getFilmsByIds(ids);
+    }
+
+    private CompletableFuture<Void> task(ExecutorService executor, String name, Runnable action) {
+        return CompletableFuture.runAsync(() -> run(name, action), executor);
+    }
+
+    private void run(String name, Runnable action) {
+        long started = System.nanoTime();
+        action.run();
+        taskDurations.put(name, Duration.ofNanos(System.nanoTime() - started));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.storage.analytics;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация аналитики лайков.
+ */
+@Configuration
+@EnableConfigurationProperties(AnalyticsProperties.class)
+public class AnalyticsConfig {
+
+    /**
+     * Хранилище дневных скетчей уникальных пользователей.
+     *
+     * @param properties настройки аналитики
+     * @return хранилище скетчей
+     */
+    @Bean
+    public LikeSketchStore likeSketchStore(AnalyticsProperties properties) {
+        if (properties.getRetentionDays() <= 0) {
+            throw new IllegalArgumentException("Срок хранения скетчей должен быть положительным");
+        }
+        return new LikeSketchStore(properties.getPrecision(), properties.getRetentionDays());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.storage.analytics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки аналитики лайков (префикс {@code filmorate.analytics}).
+ * <p>
+ * Стандартная ошибка количества уникальных пользователей равна {@code 1.04 / sqrt(2^precision)}:
+ * 3,3% при точности 10, 1,6% при 12, 0,8% при 14. Один скетч занимает не больше {@code 2^precision}
+ * байт, а скетчи завершившихся дней хранятся сериализованными — не больше {@code 0.75 * 2^precision} байт.
+ * Количество скетчей ограничено произведением {@link #retentionDays} на количество фильмов, жанров
+ * и рейтингов, получивших лайки за день.
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.analytics")
+public class AnalyticsProperties {
+
+    /**
+     * Точность скетчей HyperLogLog, от 4 до 16.
+     */
+    private int precision = 12;
+
+    /**
+     * Сколько последних дней, включая текущий, хранятся скетчи.
+     */
+    private int retentionDays = 90;
+}
\ No newline at end of file
@@ -0,0 +1,315 @@
+package ru.yandex.practicum.filmorate.storage.analytics;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Скетч HyperLogLog для приближённого подсчёта количества различных значений.
+ * <p>
+ * Скетч точности {@code p} состоит из {@code m = 2^p} регистров. Значение хэшируется, первые {@code p}
+ * бит хэша выбирают регистр, а в регистре запоминается наибольшая позиция первой единицы в остальных
+ * битах. Стандартная ошибка оценки — {@code 1.04 / sqrt(m)}, например 1,6% при {@code p = 12};
+ * на малых количествах используется линейный подсчёт, и оценка почти точна. Два скетча одной
+ * точности объединяются поэлементным максимумом регистров, поэтому оценка объединения множеств
+ * не требует исходных значений.
+ * <p>
+ * Пока занятых регистров мало, скетч хранится разреженно — отсортированным массивом пар
+ * «регистр — значение» — и переходит в плотный вид, когда разреженный становится больше плотного.
+ */
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+    private static final int BITS_PER_REGISTER = 6;
+
+    private final int precision;
+    private final int registerCount;
+
+    /**
+     * Плотные регистры или {@code null}, пока скетч разреженный.
+     */
+    private byte[] registers;
+
+    /**
+     * Разреженные регистры: {@code (индекс << 8) | значение}, по возрастанию индекса.
+     */
+    private int[] sparse = new int[4];
+    private int sparseSize;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException(
+                    "Точность скетча должна быть от " + MIN_PRECISION + " до " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+    }
+
+    /**
+     * Стандартная относительная ошибка оценки скетча заданной точности.
+     *
+     * @param precision точность скетча
+     * @return относительная ошибка, например 0.016 для точности 12
+     */
+    public static double relativeError(int precision) {
+        return 1.04 / Math.sqrt(1 << precision);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Учитывает значение.
+     *
+     * @param value значение, например идентификатор пользователя
+     */
+    public synchronized void add(long value) {
+        long hash = mix(value);
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), Long.SIZE - precision) + 1;
+        update(index, rank);
+    }
+
+    /**
+     * Добавляет к скетчу значения другого скетча той же точности.
+     *
+     * @param other объединяемый скетч
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Объединяются только скетчи одной точности");
+        }
+        int[] entries;
+        byte[] dense;
+        synchronized (other) {
+            entries = other.registers == null ? Arrays.copyOf(other.sparse, other.sparseSize) : null;
+            dense = other.registers == null ? null : other.registers.clone();
+        }
+        synchronized (this) {
+            if (entries != null) {
+                for (int entry : entries) {
+                    update(entry >>> 8, entry & 0xFF);
+                }
+                return;
+            }
+            toDense();
+            for (int i = 0; i < registerCount; i++) {
+                registers[i] = (byte) Math.max(registers[i], dense[i]);
+            }
+        }
+    }
+
+    /**
+     * Оценивает количество различных учтённых значений.
+     *
+     * @return оценка количества различных значений
+     */
+    public synchronized long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        if (registers == null) {
+            zeros = registerCount - sparseSize;
+            sum = zeros;
+            for (int i = 0; i < sparseSize; i++) {
+                sum += Math.scalb(1.0, -(sparse[i] & 0xFF));
+            }
+        } else {
+            for (byte register : registers) {
+                if (register == 0) {
+                    zeros++;
+                }
+                sum += Math.scalb(1.0, -register);
+            }
+        }
+        double estimate = alpha() * registerCount * registerCount / sum;
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Возвращает приблизительный объём памяти, занимаемой регистрами скетча.
+     *
+     * @return размер в байтах
+     */
+    public synchronized int memoryBytes() {
+        return registers == null ? sparse.length * Integer.BYTES : registers.length;
+    }
+
+    /**
+     * Сериализует скетч: заголовок из точности и вида, затем для разреженного скетча — количество
+     * и разности соседних пар в формате varint, для плотного — регистры по 6 бит.
+     *
+     * @return сериализованный скетч
+     */
+    public synchronized byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(
+                registers == null ? 8 + sparseSize * 2 : 2 + denseBytes());
+        out.write(precision);
+        if (registers == null) {
+            out.write(SPARSE);
+            writeVarInt(out, sparseSize);
+            int previous = 0;
+            for (int i = 0; i < sparseSize; i++) {
+                writeVarInt(out, sparse[i] - previous);
+                previous = sparse[i];
+            }
+            return out.toByteArray();
+        }
+        out.write(DENSE);
+        byte[] packed = new byte[denseBytes()];
+        for (int i = 0; i < registerCount; i++) {
+            int bit = i * BITS_PER_REGISTER;
+            int value = registers[i] << (bit & 7);
+            packed[bit >>> 3] |= (byte) value;
+            if ((bit & 7) > 8 - BITS_PER_REGISTER) {
+                packed[(bit >>> 3) + 1] |= (byte) (value >>> 8);
+            }
+        }
+        out.writeBytes(packed);
+        return out.toByteArray();
+    }
+
+    /**
+     * Восстанавливает скетч из результата {@link #toBytes()}.
+     *
+     * @param bytes сериализованный скетч
+     * @return скетч
+     * @throws IllegalArgumentException если данные повреждены
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length < 2) {
+            throw new IllegalArgumentException("Скетч повреждён: нет заголовка");
+        }
+        HyperLogLog sketch = new HyperLogLog(bytes[0]);
+        int[] position = {2};
+        if (bytes[1] == SPARSE) {
+            int size = readVarInt(bytes, position);
+            sketch.sparse = new int[Math.max(4, size)];
+            int entry = 0;
+            for (int i = 0; i < size; i++) {
+                entry += readVarInt(bytes, position);
+                if (entry >>> 8 >= sketch.registerCount) {
+                    throw new IllegalArgumentException("Скетч повреждён: номер регистра вне диапазона");
+                }
+                sketch.sparse[i] = entry;
+            }
+            sketch.sparseSize = size;
+            return sketch;
+        }
+        if (bytes[1] != DENSE || bytes.length != 2 + sketch.denseBytes()) {
+            throw new IllegalArgumentException("Скетч повреждён: неизвестный вид или размер");
+        }
+        sketch.registers = new byte[sketch.registerCount];
+        for (int i = 0; i < sketch.registerCount; i++) {
+            int bit = i * BITS_PER_REGISTER;
+            int offset = 2 + (bit >>> 3);
+            int value = (bytes[offset] & 0xFF) >>> (bit & 7);
+            if ((bit & 7) > 8 - BITS_PER_REGISTER) {
+                value |= (bytes[offset + 1] & 0xFF) << (8 - (bit & 7));
+            }
+            sketch.registers[i] = (byte) (value & ((1 << BITS_PER_REGISTER) - 1));
+        }
+        sketch.sparse = null;
+        return sketch;
+    }
+
+    private void update(int index, int rank) {
+        if (registers != null) {
+            if (registers[index] < rank) {
+                registers[index] = (byte) rank;
+            }
+            return;
+        }
+        int low = 0;
+        int high = sparseSize - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int current = sparse[middle] >>> 8;
+            if (current < index) {
+                low = middle + 1;
+            } else if (current > index) {
+                high = middle - 1;
+            } else {
+                if ((sparse[middle] & 0xFF) < rank) {
+                    sparse[middle] = (index << 8) | rank;
+                }
+                return;
+            }
+        }
+        if (sparseSize == sparse.length) {
+            if (sparse.length * Integer.BYTES >= registerCount) {
+                toDense();
+                registers[index] = (byte) rank;
+                return;
+            }
+            sparse = Arrays.copyOf(sparse, sparse.length * 2);
+        }
+        System.arraycopy(sparse, low, sparse, low + 1, sparseSize - low);
+        sparse[low] = (index << 8) | rank;
+        sparseSize++;
+    }
+
+    private void toDense() {
+        if (registers != null) {
+            return;
+        }
+        registers = new byte[registerCount];
+        for (int i = 0; i < sparseSize; i++) {
+            registers[sparse[i] >>> 8] = (byte) (sparse[i] & 0xFF);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    private int denseBytes() {
+        return (registerCount * BITS_PER_REGISTER + 7) / 8;
+    }
+
+    private double alpha() {
+        return switch (registerCount) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / registerCount);
+        };
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(byte[] bytes, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            if (position[0] >= bytes.length) {
+                throw new IllegalArgumentException("Скетч повреждён: данные обрываются");
+            }
+            byte current = bytes[position[0]++];
+            value |= (current & 0x7F) << shift;
+            if (current >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Скетч повреждён: слишком длинное число");
+    }
+
+    /**
+     * Перемешивание битов из SplitMix64.
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,193 @@
+package ru.yandex.practicum.filmorate.storage.analytics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранилище дневных скетчей {@link HyperLogLog} пользователей, поставивших лайк, в разрезе
+ * фильмов, жанров и рейтингов MPA.
+ * <p>
+ * Скетч текущего дня пополняется при каждом лайке. При смене дня скетчи прошедших дней
+ * сериализуются в компактный вид, а скетчи старше {@code retentionDays} дней удаляются, поэтому
+ * память ограничена сроком хранения. Количество уникальных пользователей за период получается
+ * объединением дневных скетчей.
+ */
+public class LikeSketchStore implements MeterBinder {
+
+    /**
+     * Разрез, в котором считаются уникальные пользователи.
+     */
+    public enum Dimension {
+        FILM, GENRE, MPA
+    }
+
+    private final int precision;
+    private final int retentionDays;
+    private final ConcurrentHashMap<SketchKey, DailySketch> sketches = new ConcurrentHashMap<>();
+
+    /**
+     * Текущий день хранилища: скетчи более ранних дней сериализованы.
+     */
+    private volatile LocalDate currentDay = LocalDate.MIN;
+
+    public LikeSketchStore(int precision, int retentionDays) {
+        if (precision < HyperLogLog.MIN_PRECISION || precision > HyperLogLog.MAX_PRECISION) {
+            throw new IllegalArgumentException("Точность скетчей должна быть от "
+                    + HyperLogLog.MIN_PRECISION + " до " + HyperLogLog.MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.retentionDays = retentionDays;
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    /**
+     * Относительная ошибка оценок хранилища.
+     *
+     * @return стандартная относительная ошибка скетчей
+     */
+    public double relativeError() {
+        return HyperLogLog.relativeError(precision);
+    }
+
+    /**
+     * Первый день, скетчи которого ещё хранятся.
+     *
+     * @param today текущий день
+     * @return первый хранимый день
+     */
+    public LocalDate firstRetainedDay(LocalDate today) {
+        return today.minusDays(retentionDays - 1);
+    }
+
+    /**
+     * Учитывает пользователя, поставившего лайк.
+     *
+     * @param dimension разрез
+     * @param id        идентификатор фильма, жанра или рейтинга
+     * @param day       день лайка
+     * @param userId    идентификатор пользователя
+     */
+    public void record(Dimension dimension, long id, LocalDate day, long userId) {
+        LocalDate today = currentDay;
+        if (!today.equals(LocalDate.MIN) && day.isBefore(firstRetainedDay(today))) {
+            return;
+        }
+        sketches.computeIfAbsent(new SketchKey(dimension, id, day), key -> new DailySketch()).add(userId);
+    }
+
+    /**
+     * Оценивает количество уникальных пользователей за период.
+     *
+     * @param dimension разрез
+     * @param id        идентификатор фильма, жанра или рейтинга
+     * @param from      первый день периода
+     * @param to        последний день периода (включительно)
+     * @return оценка количества уникальных пользователей
+     */
+    public long uniqueUsers(Dimension dimension, long id, LocalDate from, LocalDate to) {
+        HyperLogLog merged = new HyperLogLog(precision);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            DailySketch sketch = sketches.get(new SketchKey(dimension, id, day));
+            if (sketch != null) {
+                merged.merge(sketch.sketch());
+            }
+        }
+        return merged.estimate();
+    }
+
+    /**
+     * Переходит на новый день: сериализует скетчи прошедших дней и удаляет устаревшие.
+     * Повторный вызов с тем же днём ничего не делает.
+     *
+     * @param today текущий день
+     */
+    public synchronized void roll(LocalDate today) {
+        if (!today.isAfter(currentDay)) {
+            return;
+        }
+        LocalDate firstRetained = firstRetainedDay(today);
+        sketches.entrySet().removeIf(entry -> entry.getKey().day().isBefore(firstRetained));
+        sketches.forEach((key, sketch) -> {
+            if (key.day().isBefore(today)) {
+                sketch.compact();
+            }
+        });
+        currentDay = today;
+    }
+
+    /**
+     * Удаляет все скетчи перед перестроением.
+     */
+    public synchronized void clear() {
+        sketches.clear();
+        currentDay = LocalDate.MIN;
+    }
+
+    /**
+     * Приблизительный объём памяти, занимаемой скетчами.
+     *
+     * @return размер в байтах
+     */
+    public long memoryBytes() {
+        long total = 0;
+        for (DailySketch sketch : sketches.values()) {
+            total += sketch.memoryBytes();
+        }
+        return total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("filmorate.analytics.sketches", sketches, ConcurrentHashMap::size)
+                .description("Дневные скетчи уникальных пользователей")
+                .register(registry);
+        Gauge.builder("filmorate.analytics.memory", this, LikeSketchStore::memoryBytes)
+                .description("Память, занимаемая скетчами уникальных пользователей")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private record SketchKey(Dimension dimension, long id, LocalDate day) {
+    }
+
+    /**
+     * Скетч одного дня: изменяемый, пока день не завершился, затем сериализованный.
+     * Лайк за завершившийся день (например, при перестроении) возвращает скетч в изменяемый вид
+     * до следующего перехода на новый день.
+     */
+    private final class DailySketch {
+
+        private HyperLogLog live = new HyperLogLog(precision);
+        private byte[] compacted;
+
+        synchronized void add(long userId) {
+            if (live == null) {
+                live = HyperLogLog.fromBytes(compacted);
+                compacted = null;
+            }
+            live.add(userId);
+        }
+
+        synchronized HyperLogLog sketch() {
+            return live != null ? live : HyperLogLog.fromBytes(compacted);
+        }
+
+        synchronized void compact() {
+            if (live != null) {
+                compacted = live.toBytes();
+                live = null;
+            }
+        }
+
+        synchronized long memoryBytes() {
+            return live != null ? live.memoryBytes() : compacted.length;
+        }
+    }
+}
\ No newline at end of file
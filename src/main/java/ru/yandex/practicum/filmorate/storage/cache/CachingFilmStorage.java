@@ -0,0 +1,162 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.yandex.practicum.filmorate.event.FilmEvent;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.films.FilmStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Хранилище фильмов с ограниченным кэшем фильмов и их жанров перед хранилищем на базе данных.
+ * <p>
+ * Кэш вытесняет записи по размеру (W-TinyLFU) и по времени жизни. Одновременные промахи
+ * по одному идентификатору выполняют одну загрузку: остальные запросы ждут её результата.
+ * Запись фильма сбрасывается при обновлении и ещё раз после фиксации транзакции,
+ * в которой фильм или его жанры были изменены. Наружу отдаются копии записей.
+ */
+public class CachingFilmStorage implements FilmStorage, MeterBinder {
+
+    private final FilmStorage delegate;
+    private final boolean enabled;
+    private final Cache<Long, Film> films;
+    private final Cache<Long, Set<Genre>> genres;
+
+    public CachingFilmStorage(FilmStorage delegate, EntityCacheProperties properties) {
+        this.delegate = delegate;
+        this.enabled = properties.isEnabled();
+        this.films = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.genres = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Film addFilm(Film film) {
+        return delegate.addFilm(film);
+    }
+
+    @Override
+    public List<Film> addFilms(List<Film> films) {
+        return delegate.addFilms(films);
+    }
+
+    @Override
+    public Film updateFilm(Film film) {
+        Film updated = delegate.updateFilm(film);
+        invalidate(updated.getId());
+        return updated;
+    }
+
+    @Override
+    public Collection<Film> getFilms() {
+        return delegate.getFilms();
+    }
+
+    @Override
+    public Film getFilmById(Long id) {
+        if (!enabled) {
+            return delegate.getFilmById(id);
+        }
+        return new Film(films.get(id, delegate::getFilmById));
+    }
+
+    @Override
+    public List<Film> getFilmsByIds(Collection<Long> ids) {
+        if (!enabled) {
+            return delegate.getFilmsByIds(ids);
+        }
+        // Промахи загружаются одним запросом к хранилищу
+        Map<Long, Film> found = films.getAll(ids, missing -> {
+            Map<Long, Film> loaded = new HashMap<>();
+            delegate.getFilmsByIds(List.copyOf(missing)).forEach(film -> loaded.put(film.getId(), film));
+            return loaded;
+        });
+        List<Film> result = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            Film film = found.get(id);
+            if (film != null) {
+                result.add(new Film(film));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public Set<Genre> getGenresByFilm(Long filmId) {
+        if (!enabled) {
+            return delegate.getGenresByFilm(filmId);
+        }
+        TreeSet<Genre> copy = new TreeSet<>(Comparator.comparing(Genre::getId));
+        copy.addAll(genres.get(filmId, delegate::getGenresByFilm));
+        return copy;
+    }
+
+    @Override
+    public Map<Long, Set<Genre>> getGenresByFilms(Collection<Long> filmIds) {
+        if (!enabled) {
+            return delegate.getGenresByFilms(filmIds);
+        }
+        Map<Long, Set<Genre>> found = genres.getAll(filmIds, missing -> {
+            Map<Long, Set<Genre>> loaded = new HashMap<>(delegate.getGenresByFilms(List.copyOf(missing)));
+            // Отсутствие жанров тоже кэшируется, чтобы не запрашивать их повторно
+            missing.forEach(filmId -> loaded.putIfAbsent(filmId, Set.of()));
+            return loaded;
+        });
+        Map<Long, Set<Genre>> result = new HashMap<>();
+        found.forEach((filmId, filmGenres) -> {
+            if (!filmGenres.isEmpty()) {
+                TreeSet<Genre> copy = new TreeSet<>(Comparator.comparing(Genre::getId));
+                copy.addAll(filmGenres);
+                result.put(filmId, copy);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Сбрасывает записи фильма после фиксации транзакции, изменившей фильм или его жанры,
+     * чтобы в кэше не осталось значение, прочитанное до фиксации.
+     *
+     * @param event событие сохранения фильма
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFilm(FilmEvent event) {
+        invalidate(event.film().getId());
+    }
+
+    private void invalidate(Long filmId) {
+        films.invalidate(filmId);
+        genres.invalidate(filmId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, films, "films");
+        CaffeineCacheMetrics.monitor(registry, genres, "film-genres");
+    }
+}
\ No newline at end of file
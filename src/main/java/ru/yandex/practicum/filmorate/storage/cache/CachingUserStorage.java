@@ -0,0 +1,104 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Хранилище пользователей с ограниченным кэшем пользователей перед хранилищем на базе данных.
+ * <p>
+ * Вытеснение, защита от одновременных промахов и копирование записей устроены так же,
+ * как в {@link CachingFilmStorage}. Запись пользователя сбрасывается при обновлении.
+ */
+public class CachingUserStorage implements UserStorage, MeterBinder {
+
+    private final UserStorage delegate;
+    private final boolean enabled;
+    private final Cache<Long, User> users;
+
+    public CachingUserStorage(UserStorage delegate, EntityCacheProperties properties) {
+        this.delegate = delegate;
+        this.enabled = properties.isEnabled();
+        this.users = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public User addUser(User user) {
+        return delegate.addUser(user);
+    }
+
+    @Override
+    public List<User> addUsers(List<User> users) {
+        return delegate.addUsers(users);
+    }
+
+    @Override
+    public User updateUser(User user) {
+        User updated = delegate.updateUser(user);
+        users.invalidate(updated.getId());
+        return updated;
+    }
+
+    @Override
+    public Collection<User> getUsers() {
+        return delegate.getUsers();
+    }
+
+    @Override
+    public Collection<User> getUsers(Set<String> fields) {
+        return delegate.getUsers(fields);
+    }
+
+    @Override
+    public User getUserById(Long id) {
+        if (!enabled) {
+            return delegate.getUserById(id);
+        }
+        return new User(users.get(id, delegate::getUserById));
+    }
+
+    @Override
+    public List<User> getUsersByIds(Collection<Long> ids) {
+        if (!enabled) {
+            return delegate.getUsersByIds(ids);
+        }
+        Map<Long, User> found = users.getAll(ids, missing -> {
+            Map<Long, User> loaded = new HashMap<>();
+            delegate.getUsersByIds(List.copyOf(missing)).forEach(user -> loaded.put(user.getId(), user));
+            return loaded;
+        });
+        List<User> result = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            User user = found.get(id);
+            if (user != null) {
+                result.add(new User(user));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, users, "users");
+    }
+}
\ No newline at end of file
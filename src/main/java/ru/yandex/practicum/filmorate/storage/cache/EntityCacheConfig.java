@@ -0,0 +1,49 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import ru.yandex.practicum.filmorate.storage.films.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+/**
+ * Конфигурация кэша фильмов и пользователей: кэширующие хранилища оборачивают
+ * хранилища на базе данных и внедряются вместо них.
+ */
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class EntityCacheConfig {
+
+    /**
+     * Кэширующее хранилище фильмов; не создаётся, если выбрано колоночное хранилище
+     * ({@code filmorate.films.storage=columnar}).
+     *
+     * @param delegate   хранилище фильмов на базе данных
+     * @param properties настройки кэша
+     * @return хранилище фильмов с кэшем
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "filmorate.films.storage", havingValue = "database", matchIfMissing = true)
+    public CachingFilmStorage cachingFilmStorage(@Qualifier("FilmDbStorage") FilmStorage delegate,
+                                                 EntityCacheProperties properties) {
+        return new CachingFilmStorage(delegate, properties);
+    }
+
+    /**
+     * Кэширующее хранилище пользователей.
+     *
+     * @param delegate   хранилище пользователей на базе данных
+     * @param properties настройки кэша
+     * @return хранилище пользователей с кэшем
+     */
+    @Bean
+    @Primary
+    public CachingUserStorage cachingUserStorage(@Qualifier("UserDbStorage") UserStorage delegate,
+                                                 EntityCacheProperties properties) {
+        return new CachingUserStorage(delegate, properties);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша фильмов и пользователей (префикс {@code filmorate.entity-cache}).
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.entity-cache")
+public class EntityCacheProperties {
+
+    /**
+     * Включён ли кэш; при выключенном кэше запросы идут напрямую в хранилища.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Наибольшее количество записей в каждом кэше.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Время жизни записи после загрузки.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import ru.yandex.practicum.filmorate.model.Genre;
+
+import java.util.Collection;
+
+/**
+ * Битовая маска жанров фильма: жанру с идентификатором {@code id} соответствует бит {@code id - 1}.
+ * <p>
+ * Справочник жанров небольшой и неизменный, поэтому маска из одного {@code long}
+ * вмещает все жанры (справочник с идентификаторами больше {@value #MAX_GENRE_ID}
+ * отвергается при загрузке в {@link ReferenceDataCache}), а проверки «есть ли у фильма жанр» и «есть ли у фильмов общие жанры»
+ * сводятся к побитовым операциям.
+ */
+public final class GenreMask {
+
+    /**
+     * Наибольший идентификатор жанра, представимый в маске.
+     */
+    public static final int MAX_GENRE_ID = Long.SIZE;
+
+    private GenreMask() {
+    }
+
+    /**
+     * Возвращает маску жанров.
+     *
+     * @param genres жанры, может быть {@code null}
+     * @return маска жанров
+     * @throws IllegalArgumentException если у жанра нет идентификатора или он вне диапазона маски
+     */
+    public static long of(Collection<Genre> genres) {
+        long mask = 0;
+        if (genres != null) {
+            for (Genre genre : genres) {
+                long bit = bit(genre.getId());
+                if (bit == 0) {
+                    throw new IllegalArgumentException("Жанр с id " + genre.getId() + " не помещается в маску жанров");
+                }
+                mask |= bit;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Возвращает бит жанра.
+     *
+     * @param genreId идентификатор жанра
+     * @return маска из одного бита или 0, если идентификатор вне диапазона маски
+     */
+    public static long bit(Integer genreId) {
+        if (genreId == null || genreId < 1 || genreId > MAX_GENRE_ID) {
+            return 0;
+        }
+        return 1L << (genreId - 1);
+    }
+
+    /**
+     * Проверяет, что в маске есть все требуемые жанры.
+     *
+     * @param mask     маска жанров фильма
+     * @param required маска требуемых жанров
+     * @return true, если все требуемые жанры есть
+     */
+    public static boolean containsAll(long mask, long required) {
+        return (mask & required) == required;
+    }
+
+    /**
+     * Проверяет, есть ли у двух масок общие жанры.
+     *
+     * @param first  первая маска
+     * @param second вторая маска
+     * @return true, если общий жанр есть
+     */
+    public static boolean intersects(long first, long second) {
+        return (first & second) != 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Компактный фильтр существования идентификаторов — растущий битсет поверх последовательности
+ * идентификаторов, выдаваемых базой данных ({@code GENERATED BY DEFAULT AS IDENTITY}).
+ * <p>
+ * Фильтр даёт только достоверные положительные ответы: установленный бит означает, что
+ * сущность была сохранена или прочитана из базы. Отсутствие бита не означает отсутствия
+ * сущности (например, она создана другим узлом), поэтому в этом случае вызывающая сторона
+ * обязана проверить существование запросом к базе. Удаление сущностей в приложении
+ * не поддерживается, поэтому сбрасывать биты не требуется.
+ * <p>
+ * Если идентификатор добавляется внутри транзакции, он попадает в фильтр только после её
+ * фиксации: при откате строки в базе не будет, и фильтр не должен подтверждать её существование.
+ * <p>
+ * Чтение не блокируется; запись синхронизирована и происходит только при сохранении
+ * и первом чтении сущности.
+ */
+public class IdExistenceFilter {
+
+    /**
+     * Начальный размер битсета в 64-битных словах (4096 идентификаторов).
+     */
+    private static final int INITIAL_WORDS = 64;
+
+    /**
+     * Наибольший отслеживаемый идентификатор. Идентификаторы больше него не попадают
+     * в фильтр и всегда проверяются по базе; это ограничивает память фильтра 32 МБ.
+     */
+    private static final long MAX_ID = (1L << 28) - 1;
+
+    private volatile AtomicLongArray words = new AtomicLongArray(INITIAL_WORDS);
+
+    /**
+     * Проверяет, известно ли фильтру о существовании идентификатора.
+     *
+     * @param id идентификатор сущности
+     * @return true, если сущность точно существует; false — если это неизвестно
+     */
+    public boolean contains(long id) {
+        if (id <= 0 || id > MAX_ID) {
+            return false;
+        }
+        AtomicLongArray current = words;
+        int index = (int) (id >>> 6);
+        return index < current.length() && (current.get(index) & (1L << id)) != 0;
+    }
+
+    /**
+     * Отмечает идентификатор как существующий — сразу или после фиксации текущей транзакции.
+     *
+     * @param id идентификатор сохранённой или прочитанной сущности
+     */
+    public void add(long id) {
+        addAll(List.of(id));
+    }
+
+    /**
+     * Отмечает идентификаторы как существующие — сразу или после фиксации текущей транзакции.
+     *
+     * @param ids идентификаторы сохранённых или прочитанных сущностей
+     */
+    public void addAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> pending = List.copyOf(ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    mark(pending);
+                }
+            });
+            return;
+        }
+        mark(ids);
+    }
+
+    private synchronized void mark(Collection<Long> ids) {
+        for (long id : ids) {
+            mark(id);
+        }
+    }
+
+    private void mark(long id) {
+        if (id <= 0 || id > MAX_ID) {
+            return;
+        }
+        int index = (int) (id >>> 6);
+        AtomicLongArray current = words;
+        if (index >= current.length()) {
+            int length = current.length();
+            while (length <= index) {
+                length <<= 1;
+            }
+            AtomicLongArray grown = new AtomicLongArray(length);
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            words = grown;
+            current = grown;
+        }
+        current.set(index, current.get(index) | (1L << id));
+    }
+
+    /**
+     * Возвращает приблизительный объём памяти, занимаемой битсетом.
+     *
+     * @return размер битсета в байтах
+     */
+    public long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+}
\ No newline at end of file
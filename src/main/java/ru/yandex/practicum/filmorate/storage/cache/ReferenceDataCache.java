@@ -0,0 +1,161 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.storage.dao.genre.GenreDao;
+import ru.yandex.practicum.filmorate.storage.dao.mpa.MpaDao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Кэш справочных данных (рейтинги MPA и жанры).
+ * <p>
+ * Справочники заполняются один раз из {@code data.sql} и во время работы не меняются,
+ * поэтому загружаются целиком при первом обращении и далее читаются без запросов к базе.
+ * Идентификаторы жанров должны помещаться в маску жанров ({@link GenreMask}): справочник
+ * с другими идентификаторами не загружается, чтобы жанры фильмов не терялись молча.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataCache {
+
+    private final MpaDao mpaDao;
+    private final GenreDao genreDao;
+
+    private volatile Map<Integer, Mpa> mpaById;
+    private volatile Map<Integer, Genre> genreById;
+    private final ConcurrentHashMap<Long, Set<Genre>> genreSets = new ConcurrentHashMap<>();
+
+    /**
+     * Возвращает рейтинг MPA по идентификатору.
+     *
+     * @param id идентификатор рейтинга
+     * @return рейтинг MPA или {@code null}, если такого рейтинга нет
+     */
+    public Mpa getMpa(Integer id) {
+        return id == null ? null : mpa().get(id);
+    }
+
+    /**
+     * Возвращает жанр по идентификатору.
+     *
+     * @param id идентификатор жанра
+     * @return жанр или {@code null}, если такого жанра нет
+     */
+    public Genre getGenre(Integer id) {
+        return id == null ? null : genres().get(id);
+    }
+
+    /**
+     * Проверяет существование рейтинга MPA.
+     *
+     * @param id идентификатор рейтинга
+     * @return true, если рейтинг существует
+     */
+    public boolean hasMpa(Integer id) {
+        return getMpa(id) != null;
+    }
+
+    /**
+     * Проверяет существование жанра.
+     *
+     * @param id идентификатор жанра
+     * @return true, если жанр существует
+     */
+    public boolean hasGenre(Integer id) {
+        return getGenre(id) != null;
+    }
+
+    /**
+     * Заменяет переданные жанры (у которых может быть указан только идентификатор)
+     * полными объектами из справочника, упорядоченными по идентификатору.
+     *
+     * @param genres жанры фильма, может быть {@code null}
+     * @return неизменяемый упорядоченный набор жанров из справочника; см. {@link #genresOf(long)}
+     * @throws IllegalArgumentException если идентификатор жанра не помещается в маску
+     */
+    public Set<Genre> resolveGenres(Collection<Genre> genres) {
+        return genresOf(GenreMask.of(genres));
+    }
+
+    /**
+     * Разворачивает маску жанров в набор жанров из справочника, упорядоченный по идентификатору.
+     * <p>
+     * Наборы создаются один раз для каждой маски и разделяются всеми фильмами с одинаковыми
+     * жанрами, поэтому возвращаются неизменяемыми.
+     *
+     * @param mask маска жанров
+     * @return неизменяемый набор жанров; биты без жанра в справочнике пропускаются
+     */
+    public Set<Genre> genresOf(long mask) {
+        Set<Genre> genres = genreSets.get(mask);
+        if (genres != null) {
+            return genres;
+        }
+        return genreSets.computeIfAbsent(mask, bits -> {
+            LinkedHashSet<Genre> expanded = new LinkedHashSet<>();
+            for (long rest = bits; rest != 0; rest &= rest - 1) {
+                Genre genre = getGenre(Long.numberOfTrailingZeros(rest) + 1);
+                if (genre != null) {
+                    expanded.add(genre);
+                }
+            }
+            return Collections.unmodifiableSet(expanded);
+        });
+    }
+
+    /**
+     * Вычисляет отпечаток справочников: совпадающие отпечатки означают одинаковые
+     * идентификаторы и названия рейтингов и жанров, а значит, одинаковый смысл битов маски жанров.
+     *
+     * @return отпечаток справочников
+     */
+    public long fingerprint() {
+        CRC32C checksum = new CRC32C();
+        new TreeMap<>(mpa()).forEach((id, mpa) -> checksum.update((id + ":" + mpa.getName() + ";")
+                .getBytes(StandardCharsets.UTF_8)));
+        checksum.update('|');
+        new TreeMap<>(genres()).forEach((id, genre) -> checksum.update((id + ":" + genre.getName() + ";")
+                .getBytes(StandardCharsets.UTF_8)));
+        return checksum.getValue();
+    }
+
+    private Map<Integer, Mpa> mpa() {
+        Map<Integer, Mpa> result = mpaById;
+        if (result == null) {
+            result = new HashMap<>();
+            for (Mpa mpa : mpaDao.getListMpa()) {
+                result.put(mpa.getId(), mpa);
+            }
+            mpaById = result;
+        }
+        return result;
+    }
+
+    private Map<Integer, Genre> genres() {
+        Map<Integer, Genre> result = genreById;
+        if (result == null) {
+            result = new HashMap<>();
+            for (Genre genre : genreDao.getGenres()) {
+                if (GenreMask.bit(genre.getId()) == 0) {
+                    throw new IllegalStateException("Идентификатор жанра " + genre.getId()
+                            + " вне диапазона маски жанров 1.." + GenreMask.MAX_GENRE_ID);
+                }
+                result.put(genre.getId(), genre);
+            }
+            genreById = result;
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -1,6 +1,11 @@
 package ru.yandex.practicum.filmorate.storage.dao.friends;
 
+import ru.yandex.practicum.filmorate.model.Friend;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Интерфейс для работы с логикой дружбы между пользователями.
@@ -40,4 +45,33 @@ public interface FriendDao {
      * @return список идентификаторов друзей
      */
     List<Long> getFriends(Long userId);
+
+    /**
+     * Подсчитывает количество друзей пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return количество друзей
+     */
+    int countFriends(Long userId);
+
+    /**
+     * Передаёт обработчику все дружеские связи, установленные не раньше указанного момента,
+     * не накапливая их в памяти.
+     *
+     * @param since    нижняя граница времени добавления в друзья (включительно)
+     * @param consumer обработчик связей
+     */
+    void forEachFriendshipSince(Instant since, Consumer<Friend> consumer);
+
+    /**
+     * Возвращает последние дружеские связи, установленные указанными пользователями в промежутке
+     * времени, от новых к старым. Запрос читает индекс {@code (user_id, created_at)}.
+     *
+     * @param userIds идентификаторы пользователей, добавлявших в друзья
+     * @param since   нижняя граница времени добавления в друзья (включительно)
+     * @param before  верхняя граница времени добавления в друзья (не включительно)
+     * @param limit   наибольшее количество связей
+     * @return связи по убыванию времени
+     */
+    List<Friend> getFriendshipsBetween(Collection<Long> userIds, Instant since, Instant before, int limit);
 }
\ No newline at end of file
@@ -1,24 +1,34 @@
 package ru.yandex.practicum.filmorate.storage.dao.friends;
 
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.event.FriendEvent;
 import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
+import ru.yandex.practicum.filmorate.model.Friend;
+import ru.yandex.practicum.filmorate.storage.mapper.FriendMapper;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 @Component
 public class FriendDaoImpl implements FriendDao {
 
     private final JdbcTemplate jdbcTemplate;
+    private final UserStorage userStorage;
+    private final ApplicationEventPublisher eventPublisher;
 
     private boolean existsUser(Long userId) {
-        return jdbcTemplate.queryForObject(
-                "SELECT EXISTS(SELECT 1 FROM users WHERE user_id = ?)", Boolean.class,
-                userId
-        );
+        return userStorage.existsById(userId);
     }
 
     @Override
@@ -26,10 +36,12 @@ public class FriendDaoImpl implements FriendDao {
         if (!existsUser(userId) || !existsUser(idFriend)) {
             throw new EntityNotFoundException("Пользователь не найден");
         }
+        Instant createdAt = Instant.now();
         jdbcTemplate.update(
-                "INSERT INTO friends (user_id, friend_id, status) VALUES (?, ?, ?)",
-                userId, idFriend, status
+                "INSERT INTO friends (user_id, friend_id, status, created_at) VALUES (?, ?, ?, ?)",
+                userId, idFriend, status, Timestamp.from(createdAt)
         );
+        eventPublisher.publishEvent(new FriendEvent(userId, idFriend, createdAt, FriendEvent.Operation.ADDED));
     }
 
     @Override
@@ -45,6 +57,8 @@ public class FriendDaoImpl implements FriendDao {
                 "UPDATE friends SET status = FALSE WHERE user_id = ? AND friend_id = ?",
                 idFriend, userId
         );
+        eventPublisher.publishEvent(
+                new FriendEvent(userId, idFriend, Instant.now(), FriendEvent.Operation.REMOVED));
     }
 
     @Override
@@ -68,4 +82,38 @@ public class FriendDaoImpl implements FriendDao {
                 userId
         );
     }
+
+    @Override
+    public int countFriends(Long userId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM friends WHERE user_id = ?", Integer.class, userId);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public void forEachFriendshipSince(Instant since, Consumer<Friend> consumer) {
+        FriendMapper mapper = new FriendMapper();
+        jdbcTemplate.query(
+                "SELECT user_id, friend_id, status, created_at FROM friends WHERE created_at >= ?",
+                rs -> consumer.accept(mapper.mapRow(rs, rs.getRow())),
+                Timestamp.from(since)
+        );
+    }
+
+    @Override
+    public List<Friend> getFriendshipsBetween(Collection<Long> userIds, Instant since, Instant before, int limit) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(userIds.size(), "?"));
+        List<Object> args = new ArrayList<>(userIds);
+        args.add(Timestamp.from(since));
+        args.add(Timestamp.from(before));
+        args.add(limit);
+        return jdbcTemplate.query(
+                "SELECT user_id, friend_id, status, created_at FROM friends WHERE user_id IN (" + placeholders
+                        + ") AND created_at >= ? AND created_at < ? ORDER BY created_at DESC LIMIT ?",
+                new FriendMapper(), args.toArray()
+        );
+    }
 }
\ No newline at end of file
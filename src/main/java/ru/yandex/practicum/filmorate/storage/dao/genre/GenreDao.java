@@ -1,8 +1,9 @@
 package ru.yandex.practicum.filmorate.storage.dao.genre;
 
+import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Genre;
 
-import java.util.HashSet;
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -31,7 +32,14 @@ public interface GenreDao {
      * @param filmId идентификатор фильма
      * @param genres набор новых жанров
      */
-    void addGenres(Long filmId, HashSet<Genre> genres);
+    void addGenres(Long filmId, Set<Genre> genres);
+
+    /**
+     * Присваивает жанры сразу нескольким фильмам одним пакетным запросом.
+     *
+     * @param films фильмы с уже присвоенными идентификаторами
+     */
+    void addGenres(Collection<Film> films);
 
     /**
      * Обновляет существующие жанры фильма новой коллекцией.
@@ -39,7 +47,7 @@ public interface GenreDao {
      * @param filmId идентификатор фильма
      * @param genres новая коллекция жанров
      */
-    void updateGenres(Long filmId, HashSet<Genre> genres);
+    void updateGenres(Long filmId, Set<Genre> genres);
 
     /**
      * Возвращает жанры, присвоенные определенному фильму.
@@ -5,6 +5,7 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.storage.mapper.GenreMapper;
 
@@ -33,11 +34,28 @@ public class GenreDaoImpl implements GenreDao {
     }
 
     @Override
-    public void addGenres(Long filmId, HashSet<Genre> genres) {
-        if (genres != null) {
+    public void addGenres(Long filmId, Set<Genre> genres) {
+        if (genres != null && !genres.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(genres.size());
             for (Genre genre : genres) {
-                jdbcTemplate.update("INSERT INTO film_genre (film_id, genre_id) VALUES (?, ?)", filmId, genre.getId());
+                rows.add(new Object[]{filmId, genre.getId()});
             }
+            jdbcTemplate.batchUpdate("INSERT INTO film_genre (film_id, genre_id) VALUES (?, ?)", rows);
+        }
+    }
+
+    @Override
+    public void addGenres(Collection<Film> films) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Film film : films) {
+            if (film.getGenres() != null) {
+                for (Genre genre : film.getGenres()) {
+                    rows.add(new Object[]{film.getId(), genre.getId()});
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO film_genre (film_id, genre_id) VALUES (?, ?)", rows);
         }
     }
 
@@ -46,7 +64,7 @@ public class GenreDaoImpl implements GenreDao {
     }
 
     @Override
-    public void updateGenres(Long filmId, HashSet<Genre> genres) {
+    public void updateGenres(Long filmId, Set<Genre> genres) {
         deleteGenres(filmId);
         if (genres != null) {
             addGenres(filmId, genres);
@@ -1,5 +1,14 @@
 package ru.yandex.practicum.filmorate.storage.dao.like;
 
+import ru.yandex.practicum.filmorate.model.Like;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
 /**
  * Интерфейс для работы с лайками фильмов.
  */
@@ -28,4 +37,67 @@ public interface LikeDao {
      * @return количество лайков у фильма
      */
     int checkLikes(Long filmId);
+
+    /**
+     * Подсчитывает количество лайков, поставленных пользователем.
+     *
+     * @param userId идентификатор пользователя
+     * @return количество лайков пользователя
+     */
+    int countLikesByUser(Long userId);
+
+    /**
+     * Возвращает идентификаторы фильмов, которым пользователь поставил лайк, по возрастанию,
+     * начиная после указанного идентификатора. Запрос читает только индекс {@code (user_id, film_id)}.
+     *
+     * @param userId  идентификатор пользователя
+     * @param afterId идентификатор, после которого начинается страница (не включительно)
+     * @param limit   наибольшее количество идентификаторов
+     * @return идентификаторы фильмов
+     */
+    List<Long> getLikedFilmIds(Long userId, long afterId, int limit);
+
+    /**
+     * Возвращает количество лайков всех фильмов, у которых есть хотя бы один лайк.
+     *
+     * @return карта «идентификатор фильма — количество лайков»
+     */
+    Map<Long, Integer> getLikeCounts();
+
+    /**
+     * Возвращает количество лайков указанных фильмов одним запросом.
+     *
+     * @param filmIds идентификаторы фильмов
+     * @return карта «идентификатор фильма — количество лайков»; фильмы без лайков в карту не попадают
+     */
+    Map<Long, Integer> getLikeCounts(Collection<Long> filmIds);
+
+    /**
+     * Передаёт обработчику все лайки, поставленные не раньше указанного момента,
+     * не накапливая их в памяти.
+     *
+     * @param since    нижняя граница времени лайка (включительно)
+     * @param consumer обработчик лайков
+     */
+    void forEachLikeSince(Instant since, Consumer<Like> consumer);
+
+    /**
+     * Возвращает последние лайки указанных пользователей в промежутке времени, от новых к старым.
+     * Запрос читает индекс {@code (user_id, created_at)}.
+     *
+     * @param userIds идентификаторы пользователей
+     * @param since   нижняя граница времени лайка (включительно)
+     * @param before  верхняя граница времени лайка (не включительно)
+     * @param limit   наибольшее количество лайков
+     * @return лайки по убыванию времени
+     */
+    List<Like> getLikesBetween(Collection<Long> userIds, Instant since, Instant before, int limit);
+
+    /**
+     * Передаёт обработчику все пары «пользователь — фильм» одним запросом,
+     * не накапливая их в памяти.
+     *
+     * @param consumer обработчик, принимающий идентификаторы пользователя и фильма
+     */
+    void forEachLike(BiConsumer<Long, Long> consumer);
 }
\ No newline at end of file
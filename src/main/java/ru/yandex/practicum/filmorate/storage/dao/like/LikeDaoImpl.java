@@ -3,9 +3,24 @@ package ru.yandex.practicum.filmorate.storage.dao.like;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
 import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.storage.mapper.LikeMapper;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 @Component
@@ -13,12 +28,16 @@ public class LikeDaoImpl implements LikeDao {
 
     private final Logger log = LoggerFactory.getLogger(LikeDaoImpl.class);
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public void addLike(Long userId, Long filmId) {
         try {
-            jdbcTemplate.update("INSERT INTO likes (user_id, film_id) VALUES (?,?)", userId, filmId);
+            Instant likedAt = Instant.now();
+            jdbcTemplate.update("INSERT INTO likes (user_id, film_id, created_at) VALUES (?,?,?)",
+                    userId, filmId, Timestamp.from(likedAt));
             log.info("Добавлен лайк пользователя {} для фильма {}", userId, filmId);
+            eventPublisher.publishEvent(new LikeEvent(userId, filmId, likedAt, LikeEvent.Operation.ADDED));
         } catch (EntityNotFoundException e) {
             log.error("Ошибка при добавлении лайка пользователю {}: {}", userId, e.getMessage());
         }
@@ -27,8 +46,17 @@ public class LikeDaoImpl implements LikeDao {
     @Override
     public void deleteLike(Long userId, Long filmId) {
         try {
-            jdbcTemplate.update("DELETE FROM likes WHERE user_id = ? AND film_id = ?", userId, filmId);
+            // Время удаляемых лайков нужно подписчикам, чтобы списать лайк из правильного интервала.
+            // Удаление и чтение удалённых строк — один оператор, поэтому лайк, добавленный одновременно
+            // с удалением, либо удаляется и попадает в события, либо остаётся в таблице
+            List<Timestamp> likedAt = jdbcTemplate.queryForList(
+                    "SELECT created_at FROM OLD TABLE (DELETE FROM likes WHERE user_id = ? AND film_id = ?)",
+                    Timestamp.class, userId, filmId);
             log.info("Удален лайк пользователя {} для фильма {}", userId, filmId);
+            for (Timestamp timestamp : likedAt) {
+                eventPublisher.publishEvent(
+                        new LikeEvent(userId, filmId, timestamp.toInstant(), LikeEvent.Operation.REMOVED));
+            }
         } catch (EntityNotFoundException e) {
             log.error("Ошибка при удалении лайка пользователя {}: {}", userId, e.getMessage());
         }
@@ -39,4 +67,71 @@ public class LikeDaoImpl implements LikeDao {
         Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM likes WHERE film_id=?", Integer.class, filmId);
         return count != null ? count : 0;
     }
+
+    @Override
+    public int countLikesByUser(Long userId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM likes WHERE user_id=?", Integer.class, userId);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public List<Long> getLikedFilmIds(Long userId, long afterId, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT film_id FROM likes WHERE user_id=? AND film_id>? ORDER BY film_id LIMIT ?",
+                Long.class, userId, afterId, limit);
+    }
+
+    @Override
+    public Map<Long, Integer> getLikeCounts() {
+        Map<Long, Integer> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT film_id, COUNT(*) AS likes FROM likes GROUP BY film_id",
+                rs -> {
+                    counts.put(rs.getLong("film_id"), rs.getInt("likes"));
+                });
+        return counts;
+    }
+
+    @Override
+    public Map<Long, Integer> getLikeCounts(Collection<Long> filmIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        if (filmIds.isEmpty()) {
+            return counts;
+        }
+        String placeholders = String.join(",", Collections.nCopies(filmIds.size(), "?"));
+        jdbcTemplate.query("SELECT film_id, COUNT(*) AS likes FROM likes WHERE film_id IN (" + placeholders
+                        + ") GROUP BY film_id",
+                rs -> {
+                    counts.put(rs.getLong("film_id"), rs.getInt("likes"));
+                }, filmIds.toArray());
+        return counts;
+    }
+
+    @Override
+    public void forEachLikeSince(Instant since, Consumer<Like> consumer) {
+        LikeMapper mapper = new LikeMapper();
+        jdbcTemplate.query("SELECT film_id, user_id, created_at FROM likes WHERE created_at >= ?",
+                rs -> consumer.accept(mapper.mapRow(rs, rs.getRow())),
+                Timestamp.from(since));
+    }
+
+    @Override
+    public List<Like> getLikesBetween(Collection<Long> userIds, Instant since, Instant before, int limit) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(userIds.size(), "?"));
+        List<Object> args = new ArrayList<>(userIds);
+        args.add(Timestamp.from(since));
+        args.add(Timestamp.from(before));
+        args.add(limit);
+        return jdbcTemplate.query("SELECT film_id, user_id, created_at FROM likes WHERE user_id IN (" + placeholders
+                        + ") AND created_at >= ? AND created_at < ? ORDER BY created_at DESC LIMIT ?",
+                new LikeMapper(), args.toArray());
+    }
+
+    @Override
+    public void forEachLike(BiConsumer<Long, Long> consumer) {
+        jdbcTemplate.query("SELECT user_id, film_id FROM likes",
+                rs -> consumer.accept(rs.getLong("user_id"), rs.getLong("film_id")));
+    }
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
 import ru.yandex.practicum.filmorate.model.User;
@@ -12,7 +14,14 @@ import ru.yandex.practicum.filmorate.storage.mapper.UserMapper;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 
 import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @AllArgsConstructor
 @Component
@@ -23,16 +32,21 @@ public class UserDaoImpl implements UserStorage {
 
     @Override
     public User addUser(User user) {
-        jdbcTemplate.update(
-                "INSERT INTO users (email, login, name, birthday) VALUES (?, ?, ?, ?)",
-                user.getEmail(), user.getLogin(), user.getName(), Date.valueOf(user.getBirthday())
-        );
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO users (email, login, name, birthday) VALUES (?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, user.getEmail());
+            ps.setString(2, user.getLogin());
+            ps.setString(3, user.getName());
+            ps.setDate(4, Date.valueOf(user.getBirthday()));
+            return ps;
+        }, keyHolder);
 
+        user.setId(keyHolder.getKey().longValue());
         log.info("Создан новый пользователь с email {}", user.getEmail());
-        return jdbcTemplate.queryForObject(
-                "SELECT user_id, email, login, name, birthday FROM users WHERE email=?",
-                new UserMapper(), user.getEmail()
-        );
+        return user;
     }
 
     @Override
@@ -59,4 +73,30 @@ public class UserDaoImpl implements UserStorage {
             throw new EntityNotFoundException("Пользователь с id " + id + " не найден");
         }
     }
+
+    @Override
+    public List<User> getUsersByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Map<Long, User> found = new HashMap<>();
+        jdbcTemplate.query("SELECT * FROM users WHERE user_id IN (" + placeholders + ")", new UserMapper(),
+                ids.toArray()).forEach(user -> found.put(user.getId(), user));
+
+        List<User> users = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            User user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS(SELECT 1 FROM users WHERE user_id = ?)", Boolean.class, id));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,486 @@
+package ru.yandex.practicum.filmorate.storage.films;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.cache.GenreMask;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Колоночное хранилище фильмов в памяти для каталогов из миллионов фильмов.
+ * <p>
+ * Вместо объектов {@link Film} хранятся массивы примитивов, по одному на поле: дата выхода
+ * (номер дня от эпохи), длительность, идентификатор рейтинга MPA, маска жанров ({@link GenreMask})
+ * и количество лайков. Названия и описания лежат в {@link StringArena}, а в колонках хранятся
+ * только ссылки на них. Фильм с идентификатором {@code id} занимает позицию {@code id - 1}.
+ * На фильм приходится 37 байт колонок, бит признака наличия и байты его строк в UTF-8;
+ * объекты {@link Film} создаются только при чтении, рейтинг и жанры берутся из кэша справочников.
+ * <p>
+ * Хранилище работает в одном из двух режимов:
+ * <ul>
+ *     <li>самостоятельно — идентификаторы выдаются по порядку добавления;</li>
+ *     <li>поверх хранилища на базе данных ({@code filmorate.films.storage=columnar}) — запись
+ *     идёт в базу, а затем в колонки по выданному базой идентификатору; чтения обслуживаются
+ *     колонками, а фильм, которого в колонках нет (например, созданный другим узлом),
+ *     читается из базы и добавляется в колонки. Колонки заполняются из базы при первом
+ *     обращении, колонка лайков затем поддерживается событиями лайков.</li>
+ * </ul>
+ * Чтения выполняются параллельно, запись блокирует хранилище целиком.
+ */
+@Slf4j
+public class ColumnarFilmStorage implements FilmStorage, MeterBinder {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Значение колонки даты выхода для фильма без даты.
+     */
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final ReferenceDataCache referenceData;
+    private final FilmStorage database;
+    private final LikeDao likeDao;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringArena strings = new StringArena();
+
+    private boolean loaded;
+    private int size;
+    private final BitSet present = new BitSet(INITIAL_CAPACITY);
+    private int[] releaseDays = new int[INITIAL_CAPACITY];
+    private int[] durations = new int[INITIAL_CAPACITY];
+    private byte[] mpaIds = new byte[INITIAL_CAPACITY];
+    private long[] genreMasks = new long[INITIAL_CAPACITY];
+    private int[] likes = new int[INITIAL_CAPACITY];
+    private long[] names = new long[INITIAL_CAPACITY];
+    private long[] descriptions = new long[INITIAL_CAPACITY];
+
+    /**
+     * Создаёт самостоятельное хранилище.
+     *
+     * @param referenceData кэш справочников
+     */
+    public ColumnarFilmStorage(ReferenceDataCache referenceData) {
+        this(referenceData, null, null);
+    }
+
+    /**
+     * Создаёт хранилище поверх хранилища на базе данных.
+     *
+     * @param referenceData кэш справочников
+     * @param database      хранилище фильмов на базе данных или {@code null} для самостоятельного режима
+     * @param likeDao       репозиторий лайков для начального заполнения колонки лайков
+     */
+    public ColumnarFilmStorage(ReferenceDataCache referenceData, FilmStorage database, LikeDao likeDao) {
+        this.referenceData = referenceData;
+        this.database = database;
+        this.likeDao = likeDao;
+        this.loaded = database == null;
+    }
+
+    @Override
+    public Film addFilm(Film film) {
+        if (film == null) {
+            throw new IllegalArgumentException("Фильм не может быть null");
+        }
+        if (database == null) {
+            change(() -> {
+                ensureCapacity(size + 1);
+                append(film);
+            });
+            return film;
+        }
+        Film stored = database.addFilm(film);
+        Film copy = new Film(stored);
+        change(() -> put(copy, 0));
+        return stored;
+    }
+
+    @Override
+    public List<Film> addFilms(List<Film> films) {
+        if (database == null) {
+            change(() -> {
+                ensureCapacity(size + films.size());
+                films.forEach(this::append);
+            });
+            log.debug("Пакетно добавлено фильмов: {}", films.size());
+            return films;
+        }
+        List<Film> stored = database.addFilms(films);
+        List<Film> copies = stored.stream().map(Film::new).toList();
+        change(() -> copies.forEach(film -> put(film, 0)));
+        return stored;
+    }
+
+    @Override
+    public Film updateFilm(Film film) {
+        Long filmId = film.getId();
+        if (filmId == null) {
+            throw new IllegalArgumentException("ID фильма должен быть указан для обновления");
+        }
+        Film stored = database == null ? film : database.updateFilm(film);
+        Film copy = database == null ? film : new Film(film);
+        change(() -> {
+            if (!contains(filmId)) {
+                if (database == null) {
+                    throw new EntityNotFoundException("Фильм с id " + filmId + " не найден");
+                }
+                // Фильма нет в колонках — он будет прочитан из базы при первом обращении
+                return;
+            }
+            int index = (int) (filmId - 1);
+            names[index] = strings.replace(names[index], copy.getName());
+            descriptions[index] = strings.replace(descriptions[index], copy.getDescription());
+            writeColumns(index, copy);
+        });
+        return stored;
+    }
+
+    @Override
+    public Collection<Film> getFilms() {
+        loadIfNeeded();
+        lock.readLock().lock();
+        try {
+            List<Film> films = new ArrayList<>(present.cardinality());
+            for (int index = present.nextSetBit(0); index >= 0; index = present.nextSetBit(index + 1)) {
+                films.add(read(index));
+            }
+            return films;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Film getFilmById(Long id) {
+        loadIfNeeded();
+        lock.readLock().lock();
+        try {
+            if (contains(id)) {
+                return read((int) (id - 1));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (database == null) {
+            throw new EntityNotFoundException(String.format("Фильм с id %s не существует", id));
+        }
+        Film film = database.getFilmById(id);
+        int likes = likeDao.checkLikes(id);
+        lock.writeLock().lock();
+        try {
+            if (!contains(id)) {
+                put(film, likes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return film;
+    }
+
+    @Override
+    public List<Film> getFilmsByIds(Collection<Long> ids) {
+        loadIfNeeded();
+        List<Film> films = new ArrayList<>(ids.size());
+        List<Long> missing = null;
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                if (contains(id)) {
+                    films.add(read((int) (id - 1)));
+                } else if (database != null) {
+                    missing = missing == null ? new ArrayList<>() : missing;
+                    missing.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (missing == null) {
+            return films;
+        }
+        // Недостающие фильмы догружаются из базы одним запросом, затем список собирается заново в порядке ids
+        List<Film> loadedFilms = database.getFilmsByIds(missing);
+        Map<Long, Integer> likeCounts = likeDao.getLikeCounts(missing);
+        lock.writeLock().lock();
+        try {
+            for (Film film : loadedFilms) {
+                if (!contains(film.getId())) {
+                    put(film, likeCounts.getOrDefault(film.getId(), 0));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        lock.readLock().lock();
+        try {
+            films.clear();
+            for (Long id : ids) {
+                if (contains(id)) {
+                    films.add(read((int) (id - 1)));
+                }
+            }
+            return films;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        loadIfNeeded();
+        lock.readLock().lock();
+        try {
+            if (contains(id)) {
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return database != null && database.existsById(id);
+    }
+
+    @Override
+    public Set<Genre> getGenresByFilm(Long filmId) {
+        loadIfNeeded();
+        lock.readLock().lock();
+        try {
+            return contains(filmId) ? referenceData.genresOf(genreMasks[(int) (filmId - 1)]) : Set.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Обновляет колонку лайков по событию лайка.
+     *
+     * @param event событие изменения лайка
+     */
+    @EventListener
+    public void onLike(LikeEvent event) {
+        addLikes(event.filmId(), event.delta());
+    }
+
+    /**
+     * Изменяет количество лайков фильма.
+     *
+     * @param filmId идентификатор фильма
+     * @param delta  изменение: +1 при добавлении, -1 при удалении
+     */
+    public void addLikes(long filmId, int delta) {
+        lock.writeLock().lock();
+        try {
+            if (contains(filmId)) {
+                int index = (int) (filmId - 1);
+                likes[index] = Math.max(0, likes[index] + delta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество лайков фильма.
+     *
+     * @param filmId идентификатор фильма
+     * @return количество лайков или 0, если фильма нет
+     */
+    public int getLikes(long filmId) {
+        lock.readLock().lock();
+        try {
+            return contains(filmId) ? likes[(int) (filmId - 1)] : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Память, занятая колонками и ареной строк.
+     *
+     * @return размер в байтах
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            // 4 + 4 + 1 + 8 + 4 + 8 + 8 байт на позицию и бит признака наличия
+            return (long) releaseDays.length * 37 + present.size() / Byte.SIZE + strings.allocatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("filmorate.films.columnar.memory", this, ColumnarFilmStorage::memoryBytes)
+                .baseUnit("bytes")
+                .description("Память колоночного хранилища фильмов")
+                .register(registry);
+        Gauge.builder("filmorate.films.columnar.strings.wasted", strings, StringArena::wastedBytes)
+                .baseUnit("bytes")
+                .description("Байты арены строк, освободившиеся при обновлении фильмов")
+                .register(registry);
+    }
+
+    private boolean contains(Long id) {
+        return id != null && id > 0 && id <= size && present.get((int) (id - 1));
+    }
+
+    private void append(Film film) {
+        int index = size++;
+        names[index] = strings.put(film.getName());
+        descriptions[index] = strings.put(film.getDescription());
+        genreMasks[index] = 0;
+        likes[index] = 0;
+        writeColumns(index, film);
+        present.set(index);
+        film.setId((long) index + 1);
+    }
+
+    /**
+     * Изменяет колонки под блокировкой записи. Поверх базы данных изменение применяется после
+     * фиксации текущей транзакции, чтобы откаченная запись не попала в колонки.
+     */
+    private void change(Runnable change) {
+        if (database != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    locked(change);
+                }
+            });
+            return;
+        }
+        locked(change);
+    }
+
+    private void locked(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            ensureLoaded();
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Записывает фильм с уже выданным идентификатором; идентификаторы могут идти с пропусками.
+     * Вызывается под блокировкой записи.
+     */
+    private void put(Film film, int likeCount) {
+        long id = film.getId();
+        if (id <= 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Идентификатор фильма вне диапазона колонок: " + id);
+        }
+        int index = (int) (id - 1);
+        ensureCapacity(index + 1);
+        if (present.get(index)) {
+            names[index] = strings.replace(names[index], film.getName());
+            descriptions[index] = strings.replace(descriptions[index], film.getDescription());
+        } else {
+            names[index] = strings.put(film.getName());
+            descriptions[index] = strings.put(film.getDescription());
+            genreMasks[index] = 0;
+            present.set(index);
+        }
+        likes[index] = likeCount;
+        writeColumns(index, film);
+        size = Math.max(size, index + 1);
+    }
+
+    private void loadIfNeeded() {
+        if (database == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            ensureLoaded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Заполняет колонки из базы при первом обращении. Вызывается под блокировкой записи.
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        Collection<Film> films = database.getFilms();
+        Map<Long, Integer> likeCounts = likeDao.getLikeCounts();
+        for (Film film : films) {
+            put(film, likeCounts.getOrDefault(film.getId(), 0));
+        }
+        loaded = true;
+        log.info("Колоночное хранилище заполнено из базы, фильмов: {}", films.size());
+    }
+
+    private void writeColumns(int index, Film film) {
+        releaseDays[index] = film.getReleaseDate() == null ? NO_DATE : (int) film.getReleaseDate().toEpochDay();
+        durations[index] = film.getDuration() == null ? 0 : film.getDuration();
+        Integer mpaId = film.getMpa() == null ? null : film.getMpa().getId();
+        if (mpaId != null && (mpaId < 1 || mpaId > Byte.MAX_VALUE)) {
+            throw new IllegalArgumentException("Идентификатор рейтинга MPA вне диапазона колонки: " + mpaId);
+        }
+        mpaIds[index] = mpaId == null ? 0 : mpaId.byteValue();
+        // Если жанры не переданы, прежние жанры сохраняются
+        if (film.getGenres() != null) {
+            genreMasks[index] = GenreMask.of(film.getGenres());
+        }
+    }
+
+    private Film read(int index) {
+        Film film = new Film();
+        film.setId((long) index + 1);
+        film.setName(strings.get(names[index]));
+        film.setDescription(strings.get(descriptions[index]));
+        film.setReleaseDate(releaseDays[index] == NO_DATE ? null : LocalDate.ofEpochDay(releaseDays[index]));
+        film.setDuration(durations[index] == 0 ? null : durations[index]);
+        film.setMpa(referenceData.getMpa((int) mpaIds[index]));
+        film.setGenres(referenceData.genresOf(genreMasks[index]));
+        return film;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= releaseDays.length) {
+            return;
+        }
+        int capacity = Math.max(required, releaseDays.length + (releaseDays.length >> 1));
+        releaseDays = Arrays.copyOf(releaseDays, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+        mpaIds = Arrays.copyOf(mpaIds, capacity);
+        genreMasks = Arrays.copyOf(genreMasks, capacity);
+        likes = Arrays.copyOf(likes, capacity);
+        names = Arrays.copyOf(names, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+}
\ No newline at end of file
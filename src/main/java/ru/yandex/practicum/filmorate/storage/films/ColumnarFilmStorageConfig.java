@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.storage.films;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
+
+/**
+ * Конфигурация колоночного хранилища фильмов: при {@code filmorate.films.storage=columnar}
+ * оно оборачивает хранилище на базе данных и внедряется вместо кэширующего хранилища.
+ */
+@Configuration
+@ConditionalOnProperty(name = "filmorate.films.storage", havingValue = "columnar")
+public class ColumnarFilmStorageConfig {
+
+    /**
+     * Колоночное хранилище фильмов поверх базы данных.
+     *
+     * @param database      хранилище фильмов на базе данных
+     * @param referenceData кэш справочников
+     * @param likeDao       репозиторий лайков
+     * @return колоночное хранилище фильмов
+     */
+    @Bean
+    @Primary
+    public ColumnarFilmStorage columnarFilmStorage(@Qualifier("FilmDbStorage") FilmStorage database,
+                                                   ReferenceDataCache referenceData, LikeDao likeDao) {
+        return new ColumnarFilmStorage(referenceData, database, likeDao);
+    }
+}
\ No newline at end of file
@@ -1,9 +1,13 @@
 package ru.yandex.practicum.filmorate.storage.films;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.annotation.Primary;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -11,26 +15,40 @@ import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.cache.GenreMask;
+import ru.yandex.practicum.filmorate.storage.cache.IdExistenceFilter;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
 import ru.yandex.practicum.filmorate.storage.mapper.FilmMapper;
-import ru.yandex.practicum.filmorate.storage.mapper.GenreMapper;
 
 import java.sql.Date;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Component("FilmDbStorage")
 @RequiredArgsConstructor
-@Primary
-public class FilmDbStorage implements FilmStorage {
+public class FilmDbStorage implements FilmStorage, MeterBinder {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ReferenceDataCache referenceData;
+
+    /**
+     * Идентификаторы фильмов, существование которых уже подтверждено.
+     */
+    private final IdExistenceFilter filmIds = new IdExistenceFilter();
+
+    /**
+     * Количество проверок существования, потребовавших запроса к базе.
+     */
+    private final LongAdder existenceQueries = new LongAdder();
 
     @Override
     public Film addFilm(Film film) {
-        String sqlInsert =
-                "INSERT INTO film (name, description, release_date, duration, mpa_id) VALUES (?,?,?,?,?)";
+        String sqlInsert = "INSERT INTO film (name, description, release_date, duration, mpa_id, genre_mask) " +
+                "VALUES (?,?,?,?,?,?)";
 
         KeyHolder keyHolder = new GeneratedKeyHolder();
 
@@ -41,16 +59,56 @@ public class FilmDbStorage implements FilmStorage {
             ps.setDate(3, Date.valueOf(film.getReleaseDate()));
             ps.setLong(4, film.getDuration());
             ps.setLong(5, film.getMpa().getId());
+            ps.setLong(6, GenreMask.of(film.getGenres()));
             return ps;
         }, keyHolder);
 
 
         long generatedId = keyHolder.getKey().longValue();
         film.setId(generatedId);
+        filmIds.add(generatedId);
 
         return film;
     }
 
+    @Override
+    public List<Film> addFilms(List<Film> films) {
+        if (films.isEmpty()) {
+            return films;
+        }
+        String sqlInsert = "INSERT INTO film (name, description, release_date, duration, mpa_id, genre_mask) " +
+                "VALUES (?,?,?,?,?,?)";
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sqlInsert, Statement.RETURN_GENERATED_KEYS)) {
+                for (Film film : films) {
+                    ps.setString(1, film.getName());
+                    ps.setString(2, film.getDescription());
+                    ps.setDate(3, Date.valueOf(film.getReleaseDate()));
+                    ps.setLong(4, film.getDuration());
+                    ps.setLong(5, film.getMpa().getId());
+                    ps.setLong(6, GenreMask.of(film.getGenres()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<Long> generatedIds = new ArrayList<>(films.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int index = 0;
+                    while (keys.next()) {
+                        long generatedId = keys.getLong(1);
+                        films.get(index++).setId(generatedId);
+                        generatedIds.add(generatedId);
+                    }
+                }
+                filmIds.addAll(generatedIds);
+            }
+            return null;
+        });
+
+        log.debug("Пакетно добавлено фильмов: {}", films.size());
+        return films;
+    }
+
     @Override
     public Film updateFilm(Film film) {
         Long filmId = film.getId();
@@ -58,44 +116,127 @@ public class FilmDbStorage implements FilmStorage {
             throw new IllegalArgumentException("ID фильма должен быть указан для обновления");
         }
 
-        jdbcTemplate.update(
-                "UPDATE film SET name=?, description=?, release_date=?, duration=?, mpa_id=? WHERE film_id=?",
+        // Если жанры не переданы, маска жанров остаётся прежней
+        Long genreMask = film.getGenres() == null ? null : GenreMask.of(film.getGenres());
+        int rowsAffected = jdbcTemplate.update(
+                "UPDATE film SET name=?, description=?, release_date=?, duration=?, mpa_id=?, " +
+                        "genre_mask=COALESCE(?, genre_mask) WHERE film_id=?",
                 film.getName(), film.getDescription(), Date.valueOf(film.getReleaseDate()),
-                film.getDuration(), film.getMpa().getId(), filmId
+                film.getDuration(), film.getMpa().getId(), genreMask, filmId
         );
 
-        // Если UPDATE прошел успешно, вернём фильм
+        // Количество обновлённых строк заменяет отдельную проверку существования фильма
+        if (rowsAffected == 0) {
+            throw new EntityNotFoundException("Фильм с id " + filmId + " не найден");
+        }
         return film;
     }
 
     @Override
     public Collection<Film> getFilms() {
-        return jdbcTemplate.query("SELECT * FROM film", new FilmMapper());
+        Collection<Film> films = jdbcTemplate.query("SELECT * FROM film", filmMapper());
+        filmIds.addAll(films.stream().map(Film::getId).toList());
+        return films;
     }
 
     @Override
     public Film getFilmById(Long id) {
         try {
-            return jdbcTemplate.queryForObject("SELECT * FROM film WHERE film_id=?", new FilmMapper(), id);
+            Film film = jdbcTemplate.queryForObject("SELECT * FROM film WHERE film_id=?", filmMapper(), id);
+            filmIds.add(id);
+            return film;
         } catch (
                 EmptyResultDataAccessException e) {
             throw new EntityNotFoundException("Фильм с id " + id + " не найден");
         }
     }
 
+    @Override
+    public List<Film> getFilmsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Film> found = new HashMap<>();
+        jdbcTemplate.query("SELECT * FROM film WHERE film_id IN (" + placeholders(ids.size()) + ")", filmMapper(),
+                ids.toArray()).forEach(film -> found.put(film.getId(), film));
+
+        List<Film> films = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            Film film = found.get(id);
+            if (film != null) {
+                filmIds.add(id);
+                films.add(film);
+            }
+        }
+        return films;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        if (id == null) {
+            return false;
+        }
+        if (filmIds.contains(id)) {
+            return true;
+        }
+        // Фильтр не знает о фильме — он мог быть создан в обход этого узла, поэтому проверяем базу
+        existenceQueries.increment();
+        boolean exists = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS(SELECT 1 FROM film WHERE film_id = ?)", Boolean.class, id));
+        if (exists) {
+            filmIds.add(id);
+        }
+        return exists;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("filmorate.ids.filter.memory", filmIds, IdExistenceFilter::memoryBytes)
+                .tag("entity", "film")
+                .baseUnit("bytes")
+                .description("Память фильтра существования идентификаторов")
+                .register(registry);
+        FunctionCounter.builder("filmorate.ids.filter.db.checks", existenceQueries, LongAdder::sum)
+                .tag("entity", "film")
+                .description("Проверки существования, выполненные запросом к базе")
+                .register(registry);
+    }
+
+    /**
+     * Возвращает жанры фильма, развернув его битовую маску жанров; соединение с {@code film_genre} не требуется.
+     */
     @Override
     public Set<Genre> getGenresByFilm(Long filmId) {
-        List<Genre> genresList = jdbcTemplate.query(
-                "SELECT f.genre_id, g.genre_name FROM film_genre AS f " +
-                        "LEFT OUTER JOIN genre AS g ON f.genre_id = g.genre_id " +
-                        "WHERE f.film_id=? ORDER BY g.genre_id",
-                new GenreMapper(),
-                filmId
-        );
+        List<Long> masks = jdbcTemplate.queryForList("SELECT genre_mask FROM film WHERE film_id=?", Long.class, filmId);
+        return masks.isEmpty() ? Set.of() : referenceData.genresOf(masks.get(0));
+    }
 
-        TreeSet<Genre> genresByFilm = new TreeSet<>(Comparator.comparing(Genre::getId));
-        genresByFilm.addAll(genresList);
+    @Override
+    public Map<Long, Set<Genre>> getGenresByFilms(Collection<Long> ids) {
+        Map<Long, Set<Genre>> genres = new HashMap<>();
+        if (ids.isEmpty()) {
+            return genres;
+        }
+        jdbcTemplate.query(
+                "SELECT film_id, genre_mask FROM film WHERE film_id IN (" + placeholders(ids.size()) + ")",
+                rs -> {
+                    long mask = rs.getLong("genre_mask");
+                    if (mask != 0) {
+                        genres.put(rs.getLong("film_id"), referenceData.genresOf(mask));
+                    }
+                },
+                ids.toArray());
+        return genres;
+    }
+
+    /**
+     * Маппер фильмов, заполняющий жанры общими наборами из кэша справочников.
+     */
+    private FilmMapper filmMapper() {
+        return new FilmMapper(referenceData::genresOf);
+    }
 
-        return genresByFilm;
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
     }
 }
\ No newline at end of file
@@ -3,7 +3,11 @@ package ru.yandex.practicum.filmorate.storage.films;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Genre;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -18,6 +22,18 @@ public interface FilmStorage {
      */
     Film addFilm(Film film);
 
+    /**
+     * Сохраняет пакет новых фильмов в хранилище.
+     * Реализация по умолчанию сохраняет фильмы по одному.
+     *
+     * @param films список фильмов для сохранения
+     * @return сохранённые фильмы с присвоенными идентификаторами в исходном порядке
+     */
+    default List<Film> addFilms(List<Film> films) {
+        films.forEach(this::addFilm);
+        return films;
+    }
+
     /**
      * Обновляет информацию о фильме в хранилище.
      *
@@ -41,6 +57,31 @@ public interface FilmStorage {
      */
     Film getFilmById(Long id);
 
+    /**
+     * Возвращает фильмы по списку идентификаторов.
+     * Реализация по умолчанию загружает фильмы по одному.
+     *
+     * @param ids идентификаторы фильмов без повторов
+     * @return найденные фильмы в порядке идентификаторов; отсутствующие фильмы пропускаются
+     */
+    default List<Film> getFilmsByIds(Collection<Long> ids) {
+        List<Film> films = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (existsById(id)) {
+                films.add(getFilmById(id));
+            }
+        }
+        return films;
+    }
+
+    /**
+     * Проверяет существование фильма без загрузки его данных.
+     *
+     * @param id идентификатор фильма
+     * @return true, если фильм существует
+     */
+    boolean existsById(Long id);
+
     /**
      * Возвращает набор жанров, относящихся к данному фильму.
      *
@@ -48,4 +89,22 @@ public interface FilmStorage {
      * @return набор жанров фильма
      */
     Set<Genre> getGenresByFilm(Long filmId);
+
+    /**
+     * Возвращает жанры нескольких фильмов.
+     * Реализация по умолчанию загружает жанры каждого фильма отдельно.
+     *
+     * @param filmIds идентификаторы фильмов
+     * @return карта «идентификатор фильма — набор жанров»; фильмы без жанров в ней отсутствуют
+     */
+    default Map<Long, Set<Genre>> getGenresByFilms(Collection<Long> filmIds) {
+        Map<Long, Set<Genre>> genres = new HashMap<>();
+        for (Long filmId : filmIds) {
+            Set<Genre> filmGenres = getGenresByFilm(filmId);
+            if (!filmGenres.isEmpty()) {
+                genres.put(filmId, filmGenres);
+            }
+        }
+        return genres;
+    }
 }
\ No newline at end of file
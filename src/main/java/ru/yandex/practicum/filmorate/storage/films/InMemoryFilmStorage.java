@@ -88,6 +88,17 @@ public class InMemoryFilmStorage implements FilmStorage {
         }
     }
 
+    /**
+     * Проверяет существование фильма в хранилище.
+     *
+     * @param id идентификатор фильма
+     * @return true, если фильм существует
+     */
+    @Override
+    public boolean existsById(Long id) {
+        return films.containsKey(id);
+    }
+
     /**
      * Возврат набора жанров для фильма (метод заглушка).
      *
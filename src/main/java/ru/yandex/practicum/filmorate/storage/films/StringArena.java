@@ -0,0 +1,130 @@
+package ru.yandex.practicum.filmorate.storage.films;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Компактное хранилище строк: строки хранятся в UTF-8 подряд в страницах по {@value #PAGE_SIZE} байт,
+ * а вызывающая сторона держит вместо объекта {@link String} одну ссылку типа {@code long}.
+ * <p>
+ * Ссылка содержит смещение строки в арене (старшие 48 бит) и её длину в байтах (младшие 16 бит),
+ * поэтому строка не может быть длиннее {@value #MAX_LENGTH} байт и никогда не пересекает границу
+ * страницы. Значение {@link #NULL} обозначает {@code null}.
+ * <p>
+ * Класс не потокобезопасен: синхронизацию обеспечивает владелец арены.
+ */
+final class StringArena {
+
+    /**
+     * Ссылка на {@code null}.
+     */
+    static final long NULL = -1;
+
+    /**
+     * Размер страницы арены — 1 МБ.
+     */
+    static final int PAGE_SIZE = 1 << 20;
+
+    /**
+     * Наибольшая длина строки в байтах UTF-8.
+     */
+    static final int MAX_LENGTH = 0xFFFF;
+
+    private final List<byte[]> pages = new ArrayList<>();
+    private int pageOffset = PAGE_SIZE;
+    private long wastedBytes;
+
+    /**
+     * Сохраняет строку в арене.
+     *
+     * @param value строка, может быть {@code null}
+     * @return ссылка на строку
+     */
+    long put(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] bytes = encode(value);
+        if (pageOffset + bytes.length > PAGE_SIZE) {
+            pages.add(new byte[PAGE_SIZE]);
+            pageOffset = 0;
+        }
+        long offset = (long) (pages.size() - 1) * PAGE_SIZE + pageOffset;
+        System.arraycopy(bytes, 0, pages.get(pages.size() - 1), pageOffset, bytes.length);
+        pageOffset += bytes.length;
+        return offset << 16 | bytes.length;
+    }
+
+    /**
+     * Заменяет строку. Новое значение, не длиннее прежнего, записывается на его место,
+     * более длинное — добавляется в конец арены, а место прежнего значения теряется.
+     *
+     * @param ref   ссылка на прежнюю строку
+     * @param value новая строка, может быть {@code null}
+     * @return ссылка на новую строку
+     */
+    long replace(long ref, String value) {
+        if (ref == NULL || value == null) {
+            if (ref != NULL) {
+                wastedBytes += length(ref);
+            }
+            return put(value);
+        }
+        byte[] bytes = encode(value);
+        int oldLength = length(ref);
+        if (bytes.length > oldLength) {
+            wastedBytes += oldLength;
+            return put(value);
+        }
+        long offset = ref >>> 16;
+        System.arraycopy(bytes, 0, pages.get((int) (offset / PAGE_SIZE)), (int) (offset % PAGE_SIZE), bytes.length);
+        wastedBytes += oldLength - bytes.length;
+        return offset << 16 | bytes.length;
+    }
+
+    /**
+     * Возвращает строку по ссылке.
+     *
+     * @param ref ссылка на строку
+     * @return строка или {@code null}
+     */
+    String get(long ref) {
+        if (ref == NULL) {
+            return null;
+        }
+        long offset = ref >>> 16;
+        return new String(pages.get((int) (offset / PAGE_SIZE)), (int) (offset % PAGE_SIZE), length(ref),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Память, занятая страницами арены.
+     *
+     * @return размер в байтах
+     */
+    long allocatedBytes() {
+        return (long) pages.size() * PAGE_SIZE;
+    }
+
+    /**
+     * Байты, потерянные при замене строк более длинными или более короткими значениями.
+     *
+     * @return размер в байтах
+     */
+    long wastedBytes() {
+        return wastedBytes;
+    }
+
+    private static int length(long ref) {
+        return (int) (ref & MAX_LENGTH);
+    }
+
+    private static byte[] encode(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Строка длиннее " + MAX_LENGTH + " байт не помещается в арену");
+        }
+        return bytes;
+    }
+}
\ No newline at end of file
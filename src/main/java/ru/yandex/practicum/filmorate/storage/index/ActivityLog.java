@@ -0,0 +1,204 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.FeedEvent;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Журнал действий пользователей, из которого собираются ленты активности.
+ * <p>
+ * Номер события выводится из его времени — количество микросекунд от начала эпохи, с точностью
+ * которого время хранится в базе, — и при совпадении увеличивается до ближайшего свободного.
+ * Поэтому после перезапуска журнал, восстановленный из базы, выдаёт событиям те же номера,
+ * и курсоры, полученные клиентами до перезапуска, остаются действительными.
+ * <p>
+ * Для каждого пользователя хранятся его последние {@value #EVENTS_PER_USER} событий в порядке
+ * номеров, поэтому выборка событий одного пользователя не зависит ни от их общего числа, ни от
+ * числа пользователей. Если старые события пользователя вытеснены, журнал сообщает границу,
+ * ниже которой его история неполна и дочитывается из базы данных.
+ */
+@Component
+public class ActivityLog {
+
+    /**
+     * Сколько последних событий хранится для каждого пользователя.
+     */
+    public static final int EVENTS_PER_USER = 256;
+
+    private final AtomicLong lastEventId = new AtomicLong();
+    private final ConcurrentHashMap<Long, UserEvents> byUser = new ConcurrentHashMap<>();
+
+    /**
+     * Добавляет событие в журнал.
+     *
+     * @param userId    идентификатор пользователя, совершившего действие
+     * @param eventType тип события
+     * @param entityId  идентификатор объекта события
+     * @param timestamp время события
+     * @return добавленное событие
+     */
+    public FeedEvent append(long userId, FeedEvent.EventType eventType, long entityId, Instant timestamp) {
+        UserEvents events = byUser.computeIfAbsent(userId, id -> new UserEvents());
+        synchronized (events) {
+            // Номер выдаётся под блокировкой пользователя, чтобы его события шли строго по возрастанию
+            FeedEvent event = new FeedEvent(nextEventId(timestamp), timestamp, userId, eventType, entityId);
+            events.add(event);
+            return event;
+        }
+    }
+
+    /**
+     * Возвращает номер последнего события пользователя с номером меньше заданного.
+     *
+     * @param userId        идентификатор пользователя
+     * @param beforeEventId верхняя граница номера события (не включительно)
+     * @return номер события или 0, если таких событий нет
+     */
+    public long lastEventIdBefore(long userId, long beforeEventId) {
+        UserEvents events = byUser.get(userId);
+        return events == null ? 0 : events.lastBefore(beforeEventId);
+    }
+
+    /**
+     * Возвращает границу полноты истории пользователя: события с номером не меньше границы
+     * хранятся все, более ранние могли быть вытеснены.
+     *
+     * @param userId идентификатор пользователя
+     * @return номер самого старого хранимого события или 0, если ни одно событие не вытеснено
+     */
+    public long horizon(long userId) {
+        UserEvents events = byUser.get(userId);
+        return events == null ? 0 : events.horizon();
+    }
+
+    /**
+     * Возвращает события пользователя с номером меньше заданного, от новых к старым.
+     *
+     * @param userId        идентификатор пользователя
+     * @param beforeEventId верхняя граница номера события (не включительно)
+     * @param limit         наибольшее количество событий
+     * @return события пользователя
+     */
+    public List<FeedEvent> eventsBefore(long userId, long beforeEventId, int limit) {
+        UserEvents events = byUser.get(userId);
+        return events == null ? List.of() : events.before(beforeEventId, limit);
+    }
+
+    /**
+     * Очищает журнал перед перестроением.
+     */
+    public void clear() {
+        byUser.clear();
+        lastEventId.set(0);
+    }
+
+    /**
+     * Возвращает номер, который получает событие с заданным временем, если номер не занят.
+     * События, дочитанные из базы данных, получают такой номер.
+     *
+     * @param timestamp время события
+     * @return время в микросекундах от начала эпохи
+     */
+    public static long eventIdOf(Instant timestamp) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, timestamp);
+    }
+
+    /**
+     * Возвращает время, соответствующее номеру события.
+     *
+     * @param eventId номер события
+     * @return время с точностью до микросекунды
+     */
+    public static Instant timestampOf(long eventId) {
+        return Instant.EPOCH.plus(eventId, ChronoUnit.MICROS);
+    }
+
+    /**
+     * Номер события — время в микросекундах, но не меньше следующего за последним выданным номером.
+     */
+    private long nextEventId(Instant timestamp) {
+        long micros = eventIdOf(timestamp);
+        return lastEventId.updateAndGet(last -> Math.max(last + 1, micros));
+    }
+
+    /**
+     * Кольцевой буфер последних событий одного пользователя. Буфер растёт по мере
+     * необходимости до {@value #EVENTS_PER_USER} элементов, после чего вытесняет старые события.
+     */
+    private static final class UserEvents {
+
+        private FeedEvent[] buffer = new FeedEvent[8];
+        private int start;
+        private int size;
+        private boolean evicted;
+
+        synchronized void add(FeedEvent event) {
+            if (size == buffer.length) {
+                if (buffer.length < EVENTS_PER_USER) {
+                    grow();
+                } else {
+                    buffer[start] = event;
+                    start = (start + 1) % buffer.length;
+                    evicted = true;
+                    return;
+                }
+            }
+            buffer[(start + size) % buffer.length] = event;
+            size++;
+        }
+
+        synchronized long lastBefore(long beforeEventId) {
+            int index = lastIndexBefore(beforeEventId);
+            return index < 0 ? 0 : at(index).getEventId();
+        }
+
+        synchronized long horizon() {
+            return evicted ? at(0).getEventId() : 0;
+        }
+
+        synchronized List<FeedEvent> before(long beforeEventId, int limit) {
+            int last = lastIndexBefore(beforeEventId);
+            List<FeedEvent> result = new ArrayList<>(Math.min(limit, last + 1));
+            for (int i = last; i >= 0 && result.size() < limit; i--) {
+                result.add(at(i));
+            }
+            return result;
+        }
+
+        /**
+         * Двоичный поиск последнего события с номером меньше заданного; события в буфере упорядочены по номерам.
+         */
+        private int lastIndexBefore(long beforeEventId) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (at(middle).getEventId() < beforeEventId) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return high;
+        }
+
+        private FeedEvent at(int index) {
+            return buffer[(start + index) % buffer.length];
+        }
+
+        private void grow() {
+            FeedEvent[] grown = new FeedEvent[Math.min(buffer.length * 2, EVENTS_PER_USER)];
+            for (int i = 0; i < size; i++) {
+                grown[i] = buffer[(start + i) % buffer.length];
+            }
+            buffer = grown;
+            start = 0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,225 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.cache.GenreMask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Денормализованное представление фильмов для чтения: собранный фильм с рейтингом MPA,
+ * жанрами и количеством лайков.
+ * <p>
+ * Представление хранится в памяти и обновляется событиями записи. Записи неизменяемы:
+ * любое изменение заменяет запись целиком, поэтому читатели никогда не видят
+ * частично обновлённый фильм. Фильм копируется при сохранении и при выдаче, поэтому
+ * изменения объектов вызывающим кодом не попадают в представление. Вместе с фильмом хранится битовая маска его жанров
+ * ({@link GenreMask}), так что отбор по жанрам не перебирает наборы жанров.
+ */
+@Component
+public class FilmViewIndex {
+
+    /**
+     * Порядок по популярности: больше лайков, при равенстве — меньший идентификатор.
+     */
+    private static final Comparator<View> BY_POPULARITY = Comparator.comparingInt(View::likes)
+            .thenComparing(view -> view.film().getId(), Comparator.reverseOrder());
+
+    private volatile ConcurrentHashMap<Long, View> views = new ConcurrentHashMap<>();
+
+    /**
+     * Сохраняет собранный фильм, сохраняя накопленное количество лайков.
+     *
+     * @param film фильм с рейтингом и жанрами
+     */
+    public void put(Film film) {
+        Film copy = new Film(film);
+        views.compute(copy.getId(), (id, current) -> new View(copy, current == null ? 0 : current.likes()));
+    }
+
+    /**
+     * Сохраняет собранный фильм вместе с количеством лайков.
+     *
+     * @param film  фильм с рейтингом и жанрами
+     * @param likes количество лайков фильма
+     */
+    public void put(Film film, int likes) {
+        views.put(film.getId(), new View(new Film(film), likes));
+    }
+
+    /**
+     * Изменяет количество лайков фильма, если фильм есть в представлении.
+     *
+     * @param filmId идентификатор фильма
+     * @param delta  изменение количества лайков
+     */
+    public void addLikes(long filmId, int delta) {
+        views.computeIfPresent(filmId, (id, current) ->
+                new View(current.film(), Math.max(0, current.likes() + delta), current.genreMask()));
+    }
+
+    /**
+     * Возвращает фильм по идентификатору.
+     *
+     * @param filmId идентификатор фильма
+     * @return копия фильма или {@code null}, если его нет в представлении
+     */
+    public Film get(long filmId) {
+        View view = views.get(filmId);
+        return view == null ? null : new Film(view.film());
+    }
+
+    /**
+     * Возвращает запись представления по идентификатору фильма. Фильм записи общий для всех
+     * читателей: его нельзя изменять, а наружу следует отдавать копию.
+     *
+     * @param filmId идентификатор фильма
+     * @return запись или {@code null}, если фильма нет в представлении
+     */
+    public View view(long filmId) {
+        return views.get(filmId);
+    }
+
+    /**
+     * Возвращает все фильмы в порядке возрастания идентификатора.
+     *
+     * @return список фильмов
+     */
+    public List<Film> all() {
+        List<View> snapshot = new ArrayList<>(views.values());
+        snapshot.sort(Comparator.comparing(view -> view.film().getId()));
+        List<Film> films = new ArrayList<>(snapshot.size());
+        snapshot.forEach(view -> films.add(new Film(view.film())));
+        return films;
+    }
+
+    /**
+     * Возвращает фильмы с наибольшим количеством лайков; при равенстве выше фильм с меньшим идентификатором.
+     *
+     * @param count количество фильмов
+     * @return список фильмов по убыванию количества лайков
+     */
+    public List<Film> top(int count) {
+        return top(count, 0);
+    }
+
+    /**
+     * Возвращает фильмы с наибольшим количеством лайков среди фильмов, у которых есть все требуемые жанры;
+     * при равенстве выше фильм с меньшим идентификатором.
+     *
+     * @param count        количество фильмов
+     * @param requiredMask маска требуемых жанров; 0 — без отбора по жанрам
+     * @return список фильмов по убыванию количества лайков
+     */
+    public List<Film> top(int count, long requiredMask) {
+        return select(count, view -> GenreMask.containsAll(view.genreMask(), requiredMask), BY_POPULARITY);
+    }
+
+    /**
+     * Возвращает фильмы, у которых есть хотя бы один общий жанр с заданной маской: выше фильмы
+     * с большим числом общих жанров, при равенстве — с большим количеством лайков, затем с меньшим идентификатором.
+     *
+     * @param genreMask      маска жанров, с которой сравниваются фильмы
+     * @param excludedFilmId идентификатор фильма, который не попадает в результат
+     * @param count          количество фильмов
+     * @return список фильмов по убыванию числа общих жанров
+     */
+    public List<Film> sharingGenres(long genreMask, long excludedFilmId, int count) {
+        Comparator<View> bySharedGenres = Comparator.<View>comparingInt(
+                view -> Long.bitCount(view.genreMask() & genreMask)).thenComparing(BY_POPULARITY);
+        return select(count, view -> view.film().getId() != excludedFilmId
+                && GenreMask.intersects(view.genreMask(), genreMask), bySharedGenres);
+    }
+
+    /**
+     * Выбирает до {@code count} подходящих записей, старших по порядку, за один проход с кучей размера {@code count}.
+     */
+    private List<Film> select(int count, Predicate<View> filter, Comparator<View> order) {
+        if (count <= 0) {
+            return List.of();
+        }
+        PriorityQueue<View> heap = new PriorityQueue<>(Math.min(count, views.size()) + 1, order);
+        for (View view : views.values()) {
+            if (!filter.test(view)) {
+                continue;
+            }
+            heap.offer(view);
+            if (heap.size() > count) {
+                heap.poll();
+            }
+        }
+        List<Film> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(new Film(heap.poll().film()));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Возвращает копию содержимого представления для сверки с базой данных.
+     *
+     * @return карта «идентификатор фильма — запись представления»
+     */
+    public Map<Long, View> snapshot() {
+        return Map.copyOf(views);
+    }
+
+    /**
+     * Заменяет содержимое представления целиком.
+     *
+     * @param films фильмы с рейтингом и жанрами
+     * @param likes количество лайков фильмов
+     */
+    public void replaceAll(Collection<Film> films, Map<Long, Integer> likes) {
+        ConcurrentHashMap<Long, View> rebuilt = new ConcurrentHashMap<>(Math.max(16, films.size() * 4 / 3 + 1));
+        for (Film film : films) {
+            rebuilt.put(film.getId(), new View(film, likes.getOrDefault(film.getId(), 0)));
+        }
+        views = rebuilt;
+    }
+
+    /**
+     * Заменяет содержимое представления готовыми записями, например из снимка каталога.
+     *
+     * @param entries записи представления
+     */
+    public void replaceAllViews(Collection<View> entries) {
+        ConcurrentHashMap<Long, View> rebuilt = new ConcurrentHashMap<>(Math.max(16, entries.size() * 4 / 3 + 1));
+        for (View view : entries) {
+            rebuilt.put(view.film().getId(), view);
+        }
+        views = rebuilt;
+    }
+
+    /**
+     * Количество фильмов в представлении.
+     *
+     * @return количество фильмов
+     */
+    public int size() {
+        return views.size();
+    }
+
+    /**
+     * Запись представления: собранный фильм, количество его лайков и маска жанров.
+     *
+     * @param film      фильм с рейтингом и жанрами
+     * @param likes     количество лайков
+     * @param genreMask битовая маска жанров фильма
+     */
+    public record View(Film film, int likes, long genreMask) {
+
+        public View(Film film, int likes) {
+            this(film, likes, GenreMask.of(film.getGenres()));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс друзей с самыми свежими событиями: для каждого пользователя хранится не больше
+ * {@code maxFriends} друзей, упорядоченных по номеру последнего события в {@link ActivityLog}.
+ * <p>
+ * Событие пользователя обновляет позицию этого пользователя у всех, кто добавил его в друзья,
+ * поэтому первая страница ленты выбирает участников слияния без обхода полного списка друзей.
+ * Вытесненный друг поднимает нижнюю границу: все события друзей, не попавших в индекс,
+ * не новее её, и лента ниже этой границы выбирает друзей полным обходом.
+ */
+@Component
+public class FriendActivityIndex {
+
+    /**
+     * Сколько друзей с самыми свежими событиями хранится для каждого пользователя.
+     */
+    public static final int MAX_FRIENDS = 500;
+
+    private final int maxFriends;
+
+    /**
+     * Пользователи, добавившие ключевого пользователя в друзья.
+     */
+    private final ConcurrentHashMap<Long, Set<Long>> followers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, RecentFriends> recent = new ConcurrentHashMap<>();
+
+    public FriendActivityIndex() {
+        this(MAX_FRIENDS);
+    }
+
+    public FriendActivityIndex(int maxFriends) {
+        if (maxFriends <= 0) {
+            throw new IllegalArgumentException("Количество друзей в индексе должно быть положительным");
+        }
+        this.maxFriends = maxFriends;
+    }
+
+    /**
+     * Учитывает добавление в друзья.
+     *
+     * @param userId      идентификатор пользователя, добавившего друга
+     * @param friendId    идентификатор друга
+     * @param lastEventId номер последнего события друга или 0, если событий нет
+     */
+    public void follow(long userId, long friendId, long lastEventId) {
+        followers.compute(friendId, (id, users) -> {
+            Set<Long> target = users == null ? ConcurrentHashMap.newKeySet() : users;
+            target.add(userId);
+            return target;
+        });
+        if (lastEventId > 0) {
+            recent.computeIfAbsent(userId, id -> new RecentFriends()).touch(friendId, lastEventId);
+        }
+    }
+
+    /**
+     * Учитывает удаление из друзей.
+     *
+     * @param userId   идентификатор пользователя, удалившего друга
+     * @param friendId идентификатор друга
+     */
+    public void unfollow(long userId, long friendId) {
+        followers.computeIfPresent(friendId, (id, users) -> {
+            users.remove(userId);
+            return users.isEmpty() ? null : users;
+        });
+        RecentFriends friends = recent.get(userId);
+        if (friends != null) {
+            friends.remove(friendId);
+        }
+    }
+
+    /**
+     * Учитывает новое событие пользователя у всех, кто добавил его в друзья.
+     *
+     * @param userId  идентификатор пользователя, совершившего действие
+     * @param eventId номер события
+     */
+    public void touch(long userId, long eventId) {
+        Set<Long> users = followers.get(userId);
+        if (users == null) {
+            return;
+        }
+        for (Long follower : users) {
+            recent.computeIfAbsent(follower, id -> new RecentFriends()).touch(userId, eventId);
+        }
+    }
+
+    /**
+     * Возвращает друзей пользователя с самыми свежими событиями.
+     *
+     * @param userId идентификатор пользователя
+     * @return друзья и граница, не новее которой события остальных друзей
+     */
+    public ActiveFriends activeFriends(long userId) {
+        RecentFriends friends = recent.get(userId);
+        return friends == null ? new ActiveFriends(List.of(), 0) : friends.snapshot();
+    }
+
+    /**
+     * Очищает индекс перед перестроением.
+     */
+    public void clear() {
+        followers.clear();
+        recent.clear();
+    }
+
+    /**
+     * Друзья с самыми свежими событиями.
+     *
+     * @param friendIds друзья, не больше {@code maxFriends}
+     * @param floor     номер, не новее которого события друзей, не попавших в список, или 0,
+     *                  если в список попали все друзья с событиями
+     */
+    public record ActiveFriends(List<Long> friendIds, long floor) {
+    }
+
+    /**
+     * Ограниченный набор друзей одного пользователя, упорядоченный по номеру последнего события.
+     */
+    private final class RecentFriends {
+
+        private final TreeMap<Long, Long> friendByEvent = new TreeMap<>();
+        private final Map<Long, Long> eventByFriend = new HashMap<>();
+        private long floor;
+
+        synchronized void touch(long friendId, long eventId) {
+            Long previous = eventByFriend.get(friendId);
+            if (previous != null) {
+                if (previous >= eventId) {
+                    return;
+                }
+                friendByEvent.remove(previous);
+            }
+            eventByFriend.put(friendId, eventId);
+            friendByEvent.put(eventId, friendId);
+            if (eventByFriend.size() > maxFriends) {
+                Map.Entry<Long, Long> oldest = friendByEvent.pollFirstEntry();
+                eventByFriend.remove(oldest.getValue());
+                floor = Math.max(floor, oldest.getKey());
+            }
+        }
+
+        synchronized void remove(long friendId) {
+            Long eventId = eventByFriend.remove(friendId);
+            if (eventId != null) {
+                friendByEvent.remove(eventId);
+            }
+        }
+
+        synchronized ActiveFriends snapshot() {
+            return new ActiveFriends(new ArrayList<>(eventByFriend.keySet()), floor);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,265 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Индекс фильмов, которым пользователи поставили лайк: для каждого пользователя хранится
+ * отсортированный массив идентификаторов фильмов без повторов.
+ * <p>
+ * Отсортированные массивы пересекаются слиянием за линейное время, а если один массив много
+ * меньше другого — двоичным поиском его элементов в большем, поэтому пересечение лайков
+ * пользователя с десятками тысяч лайков не требует ни запросов к базе, ни хэш-таблиц.
+ * <p>
+ * Массивы неизменяемы: лайк публикует новый массив (копирование при записи), поэтому чтения
+ * и пересечения работают с опубликованными массивами без блокировок и без копирования.
+ * Лайки редки по сравнению с чтениями, а вставка в отсортированный массив и так копирует
+ * его хвост.
+ */
+@Component
+public class LikedFilmsIndex {
+
+    /**
+     * Во сколько раз один массив должен быть больше другого, чтобы пересечение искалось
+     * двоичным поиском, а не слиянием.
+     */
+    private static final int GALLOP_RATIO = 16;
+
+    private static final long[] EMPTY = new long[0];
+
+    private volatile ConcurrentHashMap<Long, LikedFilms> byUser = new ConcurrentHashMap<>();
+
+    /**
+     * Учитывает лайк пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @param filmId идентификатор фильма
+     */
+    public void add(long userId, long filmId) {
+        byUser.computeIfAbsent(userId, id -> new LikedFilms()).add(filmId);
+    }
+
+    /**
+     * Учитывает удаление лайка пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @param filmId идентификатор фильма
+     */
+    public void remove(long userId, long filmId) {
+        LikedFilms films = byUser.get(userId);
+        if (films != null) {
+            films.remove(filmId);
+        }
+    }
+
+    /**
+     * Возвращает фильмы, которым пользователь поставил лайк.
+     *
+     * @param userId идентификатор пользователя
+     * @return копия отсортированного массива идентификаторов фильмов
+     */
+    public long[] likedFilms(long userId) {
+        return ids(userId).clone();
+    }
+
+    /**
+     * Возвращает количество фильмов, которым пользователь поставил лайк.
+     *
+     * @param userId идентификатор пользователя
+     * @return количество фильмов
+     */
+    public int likedCount(long userId) {
+        return ids(userId).length;
+    }
+
+    /**
+     * Возвращает фильмы, которым поставили лайк оба пользователя.
+     *
+     * @param firstUserId  идентификатор первого пользователя
+     * @param secondUserId идентификатор второго пользователя
+     * @return отсортированный массив идентификаторов общих фильмов
+     */
+    public long[] common(long firstUserId, long secondUserId) {
+        long[] first = ids(firstUserId);
+        long[] second = ids(secondUserId);
+        long[] result = new long[Math.min(first.length, second.length)];
+        return Arrays.copyOf(result, intersect(first, second, result));
+    }
+
+    /**
+     * Подсчитывает фильмы, которым поставили лайк оба пользователя, не выделяя память.
+     *
+     * @param firstUserId  идентификатор первого пользователя
+     * @param secondUserId идентификатор второго пользователя
+     * @return количество общих фильмов
+     */
+    public int commonCount(long firstUserId, long secondUserId) {
+        return intersect(ids(firstUserId), ids(secondUserId), null);
+    }
+
+    /**
+     * Передаёт обработчику фильмы каждого пользователя. Обработчик получает опубликованный
+     * массив индекса и не должен его изменять.
+     *
+     * @param action обработчик пары «идентификатор пользователя — отсортированный массив фильмов»
+     */
+    public void forEachUser(BiConsumer<Long, long[]> action) {
+        byUser.forEach((userId, films) -> action.accept(userId, films.ids));
+    }
+
+    /**
+     * Заменяет содержимое индекса. Источник передаёт пары «пользователь — фильм» в любом порядке,
+     * в том числе с повторами; массивы сортируются один раз после загрузки.
+     *
+     * @param source источник пар «идентификатор пользователя — идентификатор фильма»
+     */
+    public void rebuild(Consumer<BiConsumer<Long, Long>> source) {
+        HashMap<Long, Builder> builders = new HashMap<>();
+        source.accept((userId, filmId) -> builders.computeIfAbsent(userId, id -> new Builder()).append(filmId));
+        ConcurrentHashMap<Long, LikedFilms> rebuilt = new ConcurrentHashMap<>(Math.max(16, builders.size() * 4 / 3));
+        builders.forEach((userId, builder) -> rebuilt.put(userId, new LikedFilms(builder.build())));
+        byUser = rebuilt;
+    }
+
+    private long[] ids(long userId) {
+        LikedFilms films = byUser.get(userId);
+        return films == null ? EMPTY : films.ids;
+    }
+
+    /**
+     * Пересекает отсортированные массивы. Если {@code result} не {@code null}, общие элементы
+     * записываются в него по возрастанию.
+     *
+     * @return количество общих элементов
+     */
+    private static int intersect(long[] first, long[] second, long[] result) {
+        if (first.length > second.length) {
+            long[] swap = first;
+            first = second;
+            second = swap;
+        }
+        if (first.length == 0) {
+            return 0;
+        }
+        return (long) first.length * GALLOP_RATIO < second.length
+                ? search(first, second, result)
+                : merge(first, second, result);
+    }
+
+    private static int merge(long[] first, long[] second, long[] result) {
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                if (result != null) {
+                    result[size] = first[i];
+                }
+                size++;
+                i++;
+                j++;
+            }
+        }
+        return size;
+    }
+
+    private static int search(long[] small, long[] large, long[] result) {
+        int size = 0;
+        int from = 0;
+        for (long filmId : small) {
+            int index = Arrays.binarySearch(large, from, large.length, filmId);
+            if (index >= 0) {
+                if (result != null) {
+                    result[size] = filmId;
+                }
+                size++;
+                from = index + 1;
+            } else {
+                from = -index - 1;
+            }
+            if (from == large.length) {
+                break;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Отсортированный массив фильмов одного пользователя. Опубликованный массив не изменяется,
+     * изменения публикуют новый массив.
+     */
+    private static final class LikedFilms {
+
+        private volatile long[] ids;
+
+        LikedFilms() {
+            this(EMPTY);
+        }
+
+        LikedFilms(long[] ids) {
+            this.ids = ids;
+        }
+
+        synchronized void add(long filmId) {
+            long[] current = ids;
+            int index = Arrays.binarySearch(current, filmId);
+            if (index >= 0) {
+                return;
+            }
+            int position = -index - 1;
+            long[] updated = new long[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, position);
+            updated[position] = filmId;
+            System.arraycopy(current, position, updated, position + 1, current.length - position);
+            ids = updated;
+        }
+
+        synchronized void remove(long filmId) {
+            long[] current = ids;
+            int index = Arrays.binarySearch(current, filmId);
+            if (index >= 0) {
+                long[] updated = new long[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, index);
+                System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+                ids = updated;
+            }
+        }
+    }
+
+    /**
+     * Накопитель фильмов пользователя при перестроении: пары добавляются в конец без сортировки,
+     * а массив сортируется и очищается от повторов один раз.
+     */
+    private static final class Builder {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void append(long filmId) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[size++] = filmId;
+        }
+
+        long[] build() {
+            Arrays.sort(ids, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || ids[unique - 1] != ids[i]) {
+                    ids[unique++] = ids[i];
+                }
+            }
+            return Arrays.copyOf(ids, unique);
+        }
+    }
+}
\ No newline at end of file
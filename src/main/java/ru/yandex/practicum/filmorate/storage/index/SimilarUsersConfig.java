@@ -0,0 +1,24 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация индекса похожих пользователей.
+ */
+@Configuration
+@EnableConfigurationProperties(SimilarUsersProperties.class)
+public class SimilarUsersConfig {
+
+    /**
+     * Индекс сигнатур MinHash с разбиением на полосы.
+     *
+     * @param properties настройки поиска похожих пользователей
+     * @return индекс похожих пользователей
+     */
+    @Bean
+    public SimilarUsersIndex similarUsersIndex(SimilarUsersProperties properties) {
+        return new SimilarUsersIndex(properties.getBands(), properties.getRows(), properties.getMaxBucketScan());
+    }
+}
\ No newline at end of file
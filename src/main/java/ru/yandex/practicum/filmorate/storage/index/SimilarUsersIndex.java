@@ -0,0 +1,236 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс похожих пользователей на основе MinHash и LSH.
+ * <p>
+ * Для каждого пользователя хранится сигнатура MinHash его лайков: {@code bands * rows} минимумов
+ * независимых хэш-функций по идентификаторам фильмов. Доля совпадающих позиций двух сигнатур
+ * оценивает сходство Жаккара их наборов лайков. Сигнатура разбита на полосы по {@code rows} значений,
+ * и пользователь лежит в корзине каждой своей полосы; кандидаты в похожие — пользователи,
+ * с которыми совпала хотя бы одна корзина. Новый лайк обновляет сигнатуру за {@code O(bands * rows)};
+ * удаление лайка требует пересчёта сигнатуры по оставшимся лайкам.
+ * <p>
+ * Пользователь добавляется в корзину и удаляется из неё внутри {@code compute} по ключу корзины,
+ * поэтому удаление опустевшей корзины не может потерять одновременное добавление. Из каждой корзины
+ * при отборе кандидатов просматривается не больше {@code maxBucketScan} пользователей.
+ */
+public class SimilarUsersIndex {
+
+    /**
+     * Начальное значение генератора хэш-функций; постоянное, чтобы сигнатуры не зависели от запуска.
+     */
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final int bands;
+    private final int rows;
+    private final int maxBucketScan;
+    private final long[] multipliers;
+    private final long[] increments;
+
+    private final ConcurrentHashMap<Long, Signature> signatures = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+    public SimilarUsersIndex(int bands, int rows, int maxBucketScan) {
+        if (bands <= 0 || rows <= 0 || maxBucketScan <= 0) {
+            throw new IllegalArgumentException(
+                    "Количество полос, строк в полосе и просматриваемых в корзине пользователей должно быть положительным");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.maxBucketScan = maxBucketScan;
+        SplittableRandom random = new SplittableRandom(SEED);
+        this.multipliers = new long[bands * rows];
+        this.increments = new long[bands * rows];
+        for (int i = 0; i < multipliers.length; i++) {
+            multipliers[i] = random.nextLong() | 1;
+            increments[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Учитывает новый лайк пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @param filmId идентификатор фильма
+     */
+    public void add(long userId, long filmId) {
+        Signature signature = signatures.computeIfAbsent(userId, id -> new Signature());
+        synchronized (signature) {
+            long[] previous = signature.bandKeys.clone();
+            boolean changed = false;
+            for (int i = 0; i < multipliers.length; i++) {
+                int hash = hash(i, filmId);
+                if (hash < signature.values[i]) {
+                    signature.values[i] = hash;
+                    changed = true;
+                }
+            }
+            if (changed || !signature.indexed) {
+                reindex(userId, signature, previous);
+            }
+        }
+    }
+
+    /**
+     * Пересчитывает сигнатуру пользователя по всем его лайкам, например после удаления лайка.
+     *
+     * @param userId  идентификатор пользователя
+     * @param filmIds фильмы, которым пользователь поставил лайк
+     */
+    public void replace(long userId, long[] filmIds) {
+        if (filmIds.length == 0) {
+            Signature removed = signatures.remove(userId);
+            if (removed != null) {
+                synchronized (removed) {
+                    unindex(userId, removed.bandKeys);
+                    removed.indexed = false;
+                }
+            }
+            return;
+        }
+        Signature signature = signatures.computeIfAbsent(userId, id -> new Signature());
+        synchronized (signature) {
+            long[] previous = signature.bandKeys.clone();
+            Arrays.fill(signature.values, Integer.MAX_VALUE);
+            for (long filmId : filmIds) {
+                for (int i = 0; i < multipliers.length; i++) {
+                    signature.values[i] = Math.min(signature.values[i], hash(i, filmId));
+                }
+            }
+            reindex(userId, signature, previous);
+        }
+    }
+
+    /**
+     * Возвращает кандидатов в похожие пользователи — пользователей, совпавших хотя бы в одной полосе.
+     * Кандидаты, совпавшие в большем числе полос, идут первыми.
+     *
+     * @param userId идентификатор пользователя
+     * @param limit  наибольшее количество кандидатов
+     * @return идентификаторы кандидатов без самого пользователя
+     */
+    public Set<Long> candidates(long userId, int limit) {
+        Signature signature = signatures.get(userId);
+        if (signature == null) {
+            return Set.of();
+        }
+        long[] bandKeys;
+        synchronized (signature) {
+            bandKeys = signature.bandKeys.clone();
+        }
+        Map<Long, Integer> matches = new HashMap<>();
+        for (long bandKey : bandKeys) {
+            Set<Long> bucket = buckets.get(bandKey);
+            if (bucket == null) {
+                continue;
+            }
+            int scanned = 0;
+            for (Long candidate : bucket) {
+                if (scanned++ == maxBucketScan) {
+                    break;
+                }
+                if (candidate != userId) {
+                    matches.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+        Set<Long> result = new LinkedHashSet<>();
+        matches.entrySet().stream()
+                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
+                .limit(limit)
+                .forEach(entry -> result.add(entry.getKey()));
+        return result;
+    }
+
+    /**
+     * Удаляет все сигнатуры перед перестроением индекса.
+     */
+    public void clear() {
+        signatures.clear();
+        buckets.clear();
+    }
+
+    private void reindex(long userId, Signature signature, long[] previous) {
+        for (int band = 0; band < bands; band++) {
+            long key = bandKey(band, signature.values);
+            if (signature.indexed && previous[band] == key) {
+                continue;
+            }
+            if (signature.indexed) {
+                removeFromBucket(previous[band], userId);
+            }
+            signature.bandKeys[band] = key;
+            addToBucket(key, userId);
+        }
+        signature.indexed = true;
+    }
+
+    private void unindex(long userId, long[] bandKeys) {
+        for (long key : bandKeys) {
+            removeFromBucket(key, userId);
+        }
+    }
+
+    private void addToBucket(long key, long userId) {
+        buckets.compute(key, (k, bucket) -> {
+            Set<Long> target = bucket == null ? ConcurrentHashMap.newKeySet() : bucket;
+            target.add(userId);
+            return target;
+        });
+    }
+
+    private void removeFromBucket(long key, long userId) {
+        buckets.computeIfPresent(key, (k, bucket) -> {
+            bucket.remove(userId);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    /**
+     * Ключ корзины полосы: хэш значений полосы вместе с её номером,
+     * чтобы одинаковые значения в разных полосах попадали в разные корзины.
+     */
+    private long bandKey(int band, int[] values) {
+        long key = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            key = mix(key * 31 + values[i]);
+        }
+        return key;
+    }
+
+    private int hash(int function, long filmId) {
+        return (int) (mix(filmId * multipliers[function] + increments[function]) >>> 33);
+    }
+
+    /**
+     * Перемешивание битов из SplitMix64.
+     */
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Сигнатура MinHash пользователя и ключи корзин, в которых он лежит.
+     */
+    private final class Signature {
+
+        private final int[] values = new int[bands * rows];
+        private final long[] bandKeys = new long[bands];
+        private boolean indexed;
+
+        Signature() {
+            Arrays.fill(values, Integer.MAX_VALUE);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки поиска похожих пользователей (префикс {@code filmorate.similar-users}).
+ * <p>
+ * Пользователи попадают в кандидаты, если у них совпала хотя бы одна полоса сигнатуры MinHash.
+ * Вероятность этого для пользователей со сходством Жаккара {@code s} равна
+ * {@code 1 - (1 - s^rows)^bands}: больше полос — выше полнота и больше кандидатов,
+ * больше строк в полосе — меньше случайных кандидатов и ниже полнота.
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.similar-users")
+public class SimilarUsersProperties {
+
+    /**
+     * Количество полос сигнатуры.
+     */
+    private int bands = 16;
+
+    /**
+     * Количество хэшей в полосе; длина сигнатуры равна {@code bands * rows}.
+     */
+    private int rows = 4;
+
+    /**
+     * Наибольшее количество кандидатов, для которых считается точное сходство.
+     */
+    private int maxCandidates = 1000;
+
+    /**
+     * Наибольшее количество пользователей, просматриваемых в одной корзине. Пользователи с одним
+     * или несколькими лайками популярных фильмов имеют одинаковые полосы и собираются в огромные
+     * корзины; без предела отбор кандидатов для них стал бы перебором всех таких пользователей.
+     */
+    private int maxBucketScan = 500;
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс «трендовых» фильмов: количество лайков каждого фильма за последние часы.
+ * <p>
+ * Для каждого фильма хранится кольцевой буфер почасовых счётчиков на {@value #MAX_WINDOW_HOURS} часов.
+ * Ячейка буфера помнит, к какому часу относится её значение, поэтому устаревшие ячейки
+ * не требуют отдельной очистки и просто перестают учитываться. Фильмы без лайков за всё окно
+ * удаляются из индекса при построении рейтинга.
+ */
+@Component
+public class TrendingIndex {
+
+    /**
+     * Наибольшее поддерживаемое окно — 7 суток.
+     */
+    public static final int MAX_WINDOW_HOURS = 7 * 24;
+
+    private final ConcurrentHashMap<Long, HourlyCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Учитывает изменение количества лайков фильма.
+     *
+     * @param filmId  идентификатор фильма
+     * @param likedAt время лайка
+     * @param delta   изменение: +1 при добавлении, -1 при удалении
+     */
+    public void record(long filmId, Instant likedAt, int delta) {
+        long hour = epochHour(likedAt);
+        long currentHour = epochHour(Instant.now());
+        if (hour <= currentHour - MAX_WINDOW_HOURS || hour > currentHour) {
+            return;
+        }
+        counters.compute(filmId, (id, counter) -> {
+            HourlyCounter result = counter == null ? new HourlyCounter() : counter;
+            result.add(hour, delta);
+            return result;
+        });
+    }
+
+    /**
+     * Возвращает фильмы с наибольшим количеством лайков за окно.
+     *
+     * @param windowHours длина окна в часах, не больше {@value #MAX_WINDOW_HOURS}
+     * @param count       количество фильмов
+     * @return пары «идентификатор фильма, количество лайков», по убыванию количества лайков
+     */
+    public List<long[]> top(int windowHours, int count) {
+        long currentHour = epochHour(Instant.now());
+        PriorityQueue<long[]> heap = new PriorityQueue<>(Math.min(count, counters.size()) + 1,
+                (a, b) -> a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(b[0], a[0]));
+
+        for (Long filmId : counters.keySet()) {
+            // Удаление выполняется атомарно относительно record, поэтому свежий лайк не потеряется
+            HourlyCounter counter = counters.computeIfPresent(filmId,
+                    (id, current) -> current.sum(currentHour, MAX_WINDOW_HOURS) == 0 ? null : current);
+            if (counter == null) {
+                continue;
+            }
+            int likes = counter.sum(currentHour, windowHours);
+            if (likes <= 0) {
+                continue;
+            }
+            heap.offer(new long[]{filmId, likes});
+            if (heap.size() > count) {
+                heap.poll();
+            }
+        }
+
+        List<long[]> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Удаляет все счётчики перед перестроением индекса.
+     */
+    public void clear() {
+        counters.clear();
+    }
+
+    private static long epochHour(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), 3600);
+    }
+
+    /**
+     * Кольцевой буфер почасовых счётчиков лайков одного фильма.
+     */
+    private static final class HourlyCounter {
+
+        private final int[] counts = new int[MAX_WINDOW_HOURS];
+        private final long[] hours = new long[MAX_WINDOW_HOURS];
+
+        synchronized void add(long hour, int delta) {
+            int slot = (int) Math.floorMod(hour, (long) MAX_WINDOW_HOURS);
+            if (hours[slot] != hour) {
+                if (hours[slot] > hour) {
+                    // Ячейка уже занята более поздним часом — изменение вне окна
+                    return;
+                }
+                hours[slot] = hour;
+                counts[slot] = 0;
+            }
+            counts[slot] = Math.max(0, counts[slot] + delta);
+        }
+
+        synchronized int sum(long currentHour, int windowHours) {
+            int total = 0;
+            for (int i = 0; i < windowHours; i++) {
+                long hour = currentHour - i;
+                int slot = (int) Math.floorMod(hour, (long) MAX_WINDOW_HOURS);
+                if (hours[slot] == hour) {
+                    total += counts[slot];
+                }
+            }
+            return total;
+        }
+    }
+}
\ No newline at end of file
@@ -2,16 +2,37 @@ package ru.yandex.practicum.filmorate.storage.mapper;
 
 import org.springframework.jdbc.core.RowMapper;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.model.Mpa;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Set;
+import java.util.function.LongFunction;
 
 /**
  * Класс маппера для преобразования строк базы данных в объекты типа {@link Film}.
  */
 public class FilmMapper implements RowMapper<Film> {
 
+    private final LongFunction<Set<Genre>> genres;
+
+    /**
+     * Создаёт маппер, который не заполняет жанры фильма.
+     */
+    public FilmMapper() {
+        this(null);
+    }
+
+    /**
+     * Создаёт маппер, который разворачивает битовую маску жанров в набор жанров.
+     *
+     * @param genres функция, возвращающая набор жанров по маске
+     */
+    public FilmMapper(LongFunction<Set<Genre>> genres) {
+        this.genres = genres;
+    }
+
     /**
      * Преобразует строку результата SQL-запроса в объект типа {@link Film}.
      *
@@ -33,6 +54,10 @@ public class FilmMapper implements RowMapper<Film> {
         mpa.setId(rs.getInt("mpa_id"));
         film.setMpa(mpa);
 
+        if (genres != null) {
+            film.setGenres(genres.apply(rs.getLong("genre_mask")));
+        }
+
         return film;
     }
 }
\ No newline at end of file
@@ -25,6 +25,7 @@ public class FriendMapper implements RowMapper<Friend> {
         friend.setUserId(rs.getLong("user_id"));
         friend.setFriendId(rs.getLong("friend_id"));
         friend.setStatus(rs.getBoolean("status"));
+        friend.setCreatedAt(rs.getTimestamp("created_at").toInstant());
         return friend;
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package ru.yandex.practicum.filmorate.storage.mapper;
+
+import org.springframework.jdbc.core.RowMapper;
+import ru.yandex.practicum.filmorate.model.Like;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Класс маппера для преобразования строк базы данных в объекты типа {@link Like}.
+ */
+public class LikeMapper implements RowMapper<Like> {
+
+    /**
+     * Преобразует строку результата SQL-запроса в объект типа {@link Like}.
+     *
+     * @param rs     результирующее множество записей
+     * @param rowNum номер строки
+     * @return объект типа {@link Like}, соответствующий строке результата
+     * @throws SQLException если возникает ошибка при извлечении данных из ResultSet
+     */
+    @Override
+    public Like mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Like like = new Like();
+        like.setFilmId(rs.getLong("film_id"));
+        like.setUserId(rs.getLong("user_id"));
+        like.setCreatedAt(rs.getTimestamp("created_at").toInstant());
+        return like;
+    }
+}
\ No newline at end of file
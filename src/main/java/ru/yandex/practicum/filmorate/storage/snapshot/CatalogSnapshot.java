@@ -0,0 +1,270 @@
+package ru.yandex.practicum.filmorate.storage.snapshot;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.storage.index.FilmViewIndex;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Двоичный формат снимка каталога фильмов.
+ * <p>
+ * Файл состоит из заголовка, записей фильмов и контрольной суммы. Заголовок: сигнатура {@code FLMS},
+ * версия формата, отпечаток справочников ({@link ReferenceDataCache#fingerprint()}), время создания,
+ * количество фильмов и наибольший идентификатор фильма. Запись фильма: идентификатор, день выхода
+ * от эпохи, длительность, идентификатор рейтинга MPA, маска жанров, количество лайков, название
+ * и описание (длина в байтах и UTF-8, длина -1 означает {@code null}). Последние 8 байт — CRC32C
+ * всего предшествующего содержимого. Все числа записываются в порядке big-endian.
+ * <p>
+ * Снимок читается через {@link MappedByteBuffer} окнами заданного размера (по умолчанию
+ * {@value #DEFAULT_REGION_SIZE} байт), поэтому размер файла не ограничен 2 ГБ. Снимок другой версии,
+ * с другими справочниками или с неверной контрольной суммой отклоняется целиком.
+ */
+public final class CatalogSnapshot {
+
+    /**
+     * Сигнатура файла — «FLMS» в ASCII.
+     */
+    static final int MAGIC = 0x464C4D53;
+
+    /**
+     * Версия формата; увеличивается при любом несовместимом изменении.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Размер окна отображения файла по умолчанию — 1 ГБ.
+     */
+    public static final int DEFAULT_REGION_SIZE = 1 << 30;
+
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 8;
+    private static final int CHECKSUM_SIZE = 8;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private CatalogSnapshot() {
+    }
+
+    /**
+     * Записывает снимок во временный файл и атомарно заменяет им прежний снимок.
+     *
+     * @param path                 путь к файлу снимка
+     * @param referenceFingerprint отпечаток справочников
+     * @param views                записи представления фильмов
+     * @throws IOException при ошибке записи
+     */
+    public static void write(Path path, long referenceFingerprint, Collection<FilmViewIndex.View> views)
+            throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            long maxFilmId = 0;
+            for (FilmViewIndex.View view : views) {
+                maxFilmId = Math.max(maxFilmId, view.film().getId());
+            }
+            CRC32C checksum = new CRC32C();
+            try (OutputStream file = Files.newOutputStream(temp);
+                 CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), checksum);
+                 DataOutputStream out = new DataOutputStream(checked)) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(referenceFingerprint);
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(views.size());
+                out.writeLong(maxFilmId);
+                for (FilmViewIndex.View view : views) {
+                    writeFilm(out, view);
+                }
+                out.flush();
+                // Контрольная сумма пишется в обход CheckedOutputStream и сама в неё не входит
+                new DataOutputStream(file).writeLong(checksum.getValue());
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Читает снимок.
+     *
+     * @param path          путь к файлу снимка
+     * @param referenceData кэш справочников, из которого берутся рейтинги и жанры фильмов
+     * @param regionSize    размер окна отображения файла в байтах; строка длиннее окна не читается
+     * @return содержимое снимка
+     * @throws IOException если файл не читается или снимок несовместим либо повреждён
+     */
+    public static Contents read(Path path, ReferenceDataCache referenceData, int regionSize) throws IOException {
+        if (regionSize < Long.BYTES) {
+            throw new IllegalArgumentException("Окно чтения снимка должно быть не меньше " + Long.BYTES + " байт");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + CHECKSUM_SIZE) {
+                throw new IOException("Снимок короче заголовка");
+            }
+            verifyChecksum(channel, size, regionSize);
+
+            Reader reader = new Reader(channel, size - CHECKSUM_SIZE, regionSize);
+            if (reader.readInt() != MAGIC) {
+                throw new IOException("Файл не является снимком каталога");
+            }
+            int version = reader.readInt();
+            if (version != VERSION) {
+                throw new IOException("Неподдерживаемая версия снимка: " + version);
+            }
+            if (reader.readLong() != referenceData.fingerprint()) {
+                throw new IOException("Снимок создан для других справочников жанров и рейтингов");
+            }
+            Instant createdAt = Instant.ofEpochMilli(reader.readLong());
+            int count = reader.readInt();
+            long maxFilmId = reader.readLong();
+
+            List<FilmViewIndex.View> views = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                views.add(readFilm(reader, referenceData));
+            }
+            if (reader.remaining() != 0) {
+                throw new IOException("После записей снимка остались лишние данные");
+            }
+            return new Contents(createdAt, maxFilmId, views);
+        }
+    }
+
+    private static void writeFilm(DataOutputStream out, FilmViewIndex.View view) throws IOException {
+        Film film = view.film();
+        out.writeLong(film.getId());
+        out.writeInt(film.getReleaseDate() == null ? NO_DATE : (int) film.getReleaseDate().toEpochDay());
+        out.writeInt(film.getDuration() == null ? 0 : film.getDuration());
+        out.writeInt(film.getMpa() == null || film.getMpa().getId() == null ? 0 : film.getMpa().getId());
+        out.writeLong(view.genreMask());
+        out.writeInt(view.likes());
+        writeString(out, film.getName());
+        writeString(out, film.getDescription());
+    }
+
+    private static FilmViewIndex.View readFilm(Reader reader, ReferenceDataCache referenceData) throws IOException {
+        Film film = new Film();
+        film.setId(reader.readLong());
+        int releaseDay = reader.readInt();
+        film.setReleaseDate(releaseDay == NO_DATE ? null : LocalDate.ofEpochDay(releaseDay));
+        int duration = reader.readInt();
+        film.setDuration(duration == 0 ? null : duration);
+        film.setMpa(referenceData.getMpa(reader.readInt()));
+        long genreMask = reader.readLong();
+        film.setGenres(referenceData.genresOf(genreMask));
+        int likes = reader.readInt();
+        film.setName(reader.readString());
+        film.setDescription(reader.readString());
+        return new FilmViewIndex.View(film, likes, genreMask);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void verifyChecksum(FileChannel channel, long size, int regionSize) throws IOException {
+        CRC32C checksum = new CRC32C();
+        long dataSize = size - CHECKSUM_SIZE;
+        for (long position = 0; position < dataSize; position += regionSize) {
+            checksum.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(regionSize, dataSize - position)));
+        }
+        long expected = channel.map(FileChannel.MapMode.READ_ONLY, dataSize, CHECKSUM_SIZE).getLong();
+        if (checksum.getValue() != expected) {
+            throw new IOException("Контрольная сумма снимка не совпадает");
+        }
+    }
+
+    /**
+     * Последовательное чтение файла через окна {@link MappedByteBuffer}: когда в текущем окне
+     * не хватает данных для очередного значения, окно переотображается с текущей позиции.
+     */
+    private static final class Reader {
+
+        private final FileChannel channel;
+        private final long limit;
+        private final int regionSize;
+        private long windowStart;
+        private MappedByteBuffer window;
+
+        Reader(FileChannel channel, long limit, int regionSize) throws IOException {
+            this.channel = channel;
+            this.limit = limit;
+            this.regionSize = regionSize;
+            this.window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(regionSize, limit));
+        }
+
+        int readInt() throws IOException {
+            ensure(Integer.BYTES);
+            return window.getInt();
+        }
+
+        long readLong() throws IOException {
+            ensure(Long.BYTES);
+            return window.getLong();
+        }
+
+        String readString() throws IOException {
+            int length = readInt();
+            if (length < 0) {
+                return null;
+            }
+            ensure(length);
+            byte[] bytes = new byte[length];
+            window.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        long remaining() {
+            return limit - windowStart - window.position();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (window.remaining() >= bytes) {
+                return;
+            }
+            if (bytes > remaining()) {
+                throw new IOException("Снимок обрывается посреди записи");
+            }
+            if (bytes > regionSize) {
+                throw new IOException("Значение длиной " + bytes + " байт не помещается в окно чтения снимка");
+            }
+            windowStart += window.position();
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(regionSize, limit - windowStart));
+        }
+    }
+
+    /**
+     * Содержимое снимка.
+     *
+     * @param createdAt время создания снимка
+     * @param maxFilmId наибольший идентификатор фильма в снимке
+     * @param views     записи представления фильмов
+     */
+    public record Contents(Instant createdAt, long maxFilmId, List<FilmViewIndex.View> views) {
+    }
+}
\ No newline at end of file
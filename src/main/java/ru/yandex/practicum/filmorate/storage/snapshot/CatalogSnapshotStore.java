@@ -0,0 +1,112 @@
+package ru.yandex.practicum.filmorate.storage.snapshot;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.storage.films.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.index.FilmViewIndex;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Хранилище снимков каталога фильмов ({@link CatalogSnapshot}).
+ * <p>
+ * Снимок представления фильмов вместе с количествами лайков периодически записывается на диск
+ * и при остановке приложения. При запуске снимок позволяет заполнить представление без чтения
+ * всех фильмов из базы; отставание снимка от базы догоняется перестроением в фоне.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSnapshotStore {
+
+    private final SnapshotProperties properties;
+    private final FilmViewIndex filmViewIndex;
+    private final ReferenceDataCache referenceData;
+    private final FilmStorage filmStorage;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Запускает периодическую запись снимка.
+     */
+    @PostConstruct
+    public void start() {
+        if (properties.isEnabled()) {
+            long interval = properties.getInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::saveQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Записывает последний снимок перед остановкой приложения.
+     */
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        if (properties.isEnabled() && filmViewIndex.size() > 0) {
+            saveQuietly();
+        }
+    }
+
+    /**
+     * Читает снимок, если снимки включены и файл снимка есть.
+     *
+     * @return содержимое снимка или {@code null}, если снимка нет или он отклонён
+     */
+    public CatalogSnapshot.Contents load() {
+        if (!properties.isEnabled() || !Files.exists(properties.getPath())) {
+            return null;
+        }
+        long started = System.nanoTime();
+        try {
+            CatalogSnapshot.Contents contents = CatalogSnapshot.read(properties.getPath(), referenceData,
+                    properties.getRegionSize());
+            // Последнего фильма снимка нет в базе — база пересоздана или снимок от другой базы
+            if (contents.maxFilmId() > 0 && !filmStorage.existsById(contents.maxFilmId())) {
+                log.warn("Снимок каталога отклонён: фильма с id {} нет в базе", contents.maxFilmId());
+                return null;
+            }
+            log.info("Снимок каталога загружен за {} мс: фильмов {}, возраст {}",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), contents.views().size(),
+                    Duration.between(contents.createdAt(), Instant.now()));
+            return contents;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Снимок каталога отклонён: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Записывает снимок текущего представления фильмов.
+     *
+     * @throws IOException при ошибке записи
+     */
+    public synchronized void save() throws IOException {
+        long started = System.nanoTime();
+        Collection<FilmViewIndex.View> views = filmViewIndex.snapshot().values();
+        CatalogSnapshot.write(properties.getPath(), referenceData.fingerprint(), views);
+        log.info("Снимок каталога записан за {} мс, фильмов: {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), views.size());
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException | RuntimeException e) {
+            log.error("Не удалось записать снимок каталога: {}", e.getMessage());
+        }
+    }
+}
\ No newline at end of file
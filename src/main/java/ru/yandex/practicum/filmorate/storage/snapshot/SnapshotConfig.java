@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.storage.snapshot;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.storage.films.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.index.FilmViewIndex;
+
+/**
+ * Конфигурация снимков каталога фильмов.
+ */
+@Configuration
+@EnableConfigurationProperties(SnapshotProperties.class)
+public class SnapshotConfig {
+
+    /**
+     * Хранилище снимков каталога.
+     *
+     * @param properties    настройки снимков
+     * @param filmViewIndex представление фильмов, из которого пишется снимок
+     * @param referenceData кэш справочников
+     * @param filmStorage   хранилище фильмов для проверки соответствия снимка базе
+     * @return хранилище снимков
+     */
+    @Bean
+    public CatalogSnapshotStore catalogSnapshotStore(SnapshotProperties properties, FilmViewIndex filmViewIndex,
+                                                     ReferenceDataCache referenceData, FilmStorage filmStorage) {
+        return new CatalogSnapshotStore(properties, filmViewIndex, referenceData, filmStorage);
+    }
+}
\ No newline at end of file
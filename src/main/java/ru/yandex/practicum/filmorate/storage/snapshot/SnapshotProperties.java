@@ -0,0 +1,36 @@
+package ru.yandex.practicum.filmorate.storage.snapshot;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки снимков каталога фильмов (префикс {@code filmorate.snapshot}).
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.snapshot")
+public class SnapshotProperties {
+
+    /**
+     * Включены ли снимки. По умолчанию выключены: {@code schema.sql} пересоздаёт базу при каждом
+     * запуске, и снимок прошлого запуска ей не соответствует.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Путь к файлу снимка.
+     */
+    private Path path = Path.of("./db/catalog.snapshot");
+
+    /**
+     * Интервал между записями снимка; снимок также записывается при остановке приложения.
+     */
+    private Duration interval = Duration.ofMinutes(10);
+
+    /**
+     * Размер окна, которым файл снимка отображается в память при чтении, в байтах.
+     */
+    private int regionSize = CatalogSnapshot.DEFAULT_REGION_SIZE;
+}
\ No newline at end of file
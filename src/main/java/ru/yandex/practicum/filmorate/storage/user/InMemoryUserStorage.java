@@ -91,4 +91,15 @@ public class InMemoryUserStorage implements UserStorage {
             throw new EntityNotFoundException(String.format("Пользователя с id %s не существует", id));
         }
     }
+
+    /**
+     * Проверяет существование пользователя в хранилище.
+     *
+     * @param id идентификатор пользователя
+     * @return true, если пользователь существует
+     */
+    @Override
+    public boolean existsById(Long id) {
+        return users.containsKey(id);
+    }
 }
\ No newline at end of file
@@ -1,45 +1,121 @@
 package ru.yandex.practicum.filmorate.storage.user;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.annotation.Primary;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
-import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.cache.IdExistenceFilter;
 import ru.yandex.practicum.filmorate.storage.mapper.UserMapper;
 
 import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Component("UserDbStorage")
 @RequiredArgsConstructor
-@Primary
-public class UserDbStorage implements UserStorage {
+public class UserDbStorage implements UserStorage, MeterBinder {
+
+    /**
+     * Соответствие полей пользователя столбцам таблицы users.
+     */
+    private static final Map<String, String> COLUMNS = Map.of(
+            "id", "user_id",
+            "email", "email",
+            "login", "login",
+            "name", "name",
+            "birthday", "birthday");
 
     private final JdbcTemplate jdbcTemplate;
 
+    /**
+     * Идентификаторы пользователей, существование которых уже подтверждено.
+     */
+    private final IdExistenceFilter userIds = new IdExistenceFilter();
+
+    /**
+     * Количество проверок существования, потребовавших запроса к базе.
+     */
+    private final LongAdder existenceQueries = new LongAdder();
+
     @Override
     public User addUser(User user) {
         log.debug("Добавление нового пользователя.");
-        try {
-            if (user.getName() == null || user.getName().trim().isEmpty()) {
-                user.setName(user.getLogin());
-            }
-            jdbcTemplate.update(
+        if (user.getName() == null || user.getName().trim().isEmpty()) {
+            user.setName(user.getLogin());
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
                     "INSERT INTO users (email, login, name, birthday) VALUES (?, ?, ?, ?)",
-                    user.getEmail(), user.getLogin(), user.getName(), Date.valueOf(user.getBirthday())
-            );
-            return jdbcTemplate.queryForObject(
-                    "SELECT user_id, email, login, name, birthday FROM users WHERE email = ?",
-                    new UserMapper(), user.getEmail()
-            );
-        } catch (ValidationException e) {
-            throw new ValidationException(e.getMessage());
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, user.getEmail());
+            ps.setString(2, user.getLogin());
+            ps.setString(3, user.getName());
+            ps.setDate(4, Date.valueOf(user.getBirthday()));
+            return ps;
+        }, keyHolder);
+
+        user.setId(keyHolder.getKey().longValue());
+        userIds.add(user.getId());
+        return user;
+    }
+
+    @Override
+    public List<User> addUsers(List<User> users) {
+        if (users.isEmpty()) {
+            return users;
         }
+        log.debug("Пакетное добавление пользователей: {}", users.size());
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO users (email, login, name, birthday) VALUES (?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (User user : users) {
+                    if (user.getName() == null || user.getName().trim().isEmpty()) {
+                        user.setName(user.getLogin());
+                    }
+                    ps.setString(1, user.getEmail());
+                    ps.setString(2, user.getLogin());
+                    ps.setString(3, user.getName());
+                    ps.setDate(4, Date.valueOf(user.getBirthday()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<Long> generatedIds = new ArrayList<>(users.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int index = 0;
+                    while (keys.next()) {
+                        long generatedId = keys.getLong(1);
+                        users.get(index++).setId(generatedId);
+                        generatedIds.add(generatedId);
+                    }
+                }
+                userIds.addAll(generatedIds);
+            }
+            return null;
+        });
+        return users;
     }
 
     @Override
@@ -63,15 +139,102 @@ public class UserDbStorage implements UserStorage {
 
     @Override
     public Collection<User> getUsers() {
-        return jdbcTemplate.query("SELECT * FROM users", new UserMapper());
+        Collection<User> users = jdbcTemplate.query("SELECT * FROM users", new UserMapper());
+        userIds.addAll(users.stream().map(User::getId).toList());
+        return users;
+    }
+
+    @Override
+    public Collection<User> getUsers(Set<String> fields) {
+        List<String> columns = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            String column = COLUMNS.get(field);
+            if (column == null) {
+                throw new IllegalArgumentException("Неизвестное поле пользователя: " + field);
+            }
+            columns.add(column);
+        }
+        return jdbcTemplate.query("SELECT " + String.join(", ", columns) + " FROM users", (rs, rowNum) -> {
+            User user = new User();
+            if (fields.contains("id")) {
+                user.setId(rs.getLong("user_id"));
+            }
+            if (fields.contains("email")) {
+                user.setEmail(rs.getString("email"));
+            }
+            if (fields.contains("login")) {
+                user.setLogin(rs.getString("login"));
+            }
+            if (fields.contains("name")) {
+                user.setName(rs.getString("name"));
+            }
+            if (fields.contains("birthday")) {
+                user.setBirthday(rs.getDate("birthday").toLocalDate());
+            }
+            return user;
+        });
     }
 
     @Override
     public User getUserById(Long id) {
         try {
-            return jdbcTemplate.queryForObject("SELECT * FROM users WHERE user_id = ?", new UserMapper(), id);
+            User user = jdbcTemplate.queryForObject("SELECT * FROM users WHERE user_id = ?", new UserMapper(), id);
+            userIds.add(id);
+            return user;
         } catch (EmptyResultDataAccessException exception) {
             throw new EntityNotFoundException(String.format("Пользователя с id %s не существует", id));
         }
     }
+
+    @Override
+    public List<User> getUsersByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Map<Long, User> found = new HashMap<>();
+        jdbcTemplate.query("SELECT * FROM users WHERE user_id IN (" + placeholders + ")", new UserMapper(),
+                ids.toArray()).forEach(user -> found.put(user.getId(), user));
+
+        List<User> users = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            User user = found.get(id);
+            if (user != null) {
+                userIds.add(id);
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        if (id == null) {
+            return false;
+        }
+        if (userIds.contains(id)) {
+            return true;
+        }
+        // Фильтр не знает о пользователе — он мог быть создан в обход этого узла, поэтому проверяем базу
+        existenceQueries.increment();
+        boolean exists = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS(SELECT 1 FROM users WHERE user_id = ?)", Boolean.class, id));
+        if (exists) {
+            userIds.add(id);
+        }
+        return exists;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("filmorate.ids.filter.memory", userIds, IdExistenceFilter::memoryBytes)
+                .tag("entity", "user")
+                .baseUnit("bytes")
+                .description("Память фильтра существования идентификаторов")
+                .register(registry);
+        FunctionCounter.builder("filmorate.ids.filter.db.checks", existenceQueries, LongAdder::sum)
+                .tag("entity", "user")
+                .description("Проверки существования, выполненные запросом к базе")
+                .register(registry);
+    }
 }
\ No newline at end of file
@@ -2,7 +2,10 @@ package ru.yandex.practicum.filmorate.storage.user;
 
 import ru.yandex.practicum.filmorate.model.User;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Интерфейс для работы с хранилищем пользователей.
@@ -17,6 +20,18 @@ public interface UserStorage {
      */
     User addUser(User user);
 
+    /**
+     * Регистрирует пакет новых пользователей в хранилище.
+     * Реализация по умолчанию регистрирует пользователей по одному.
+     *
+     * @param users список пользователей для регистрации
+     * @return зарегистрированные пользователи с присвоенными идентификаторами в исходном порядке
+     */
+    default List<User> addUsers(List<User> users) {
+        users.forEach(this::addUser);
+        return users;
+    }
+
     /**
      * Обновляет информацию о пользователе в хранилище.
      *
@@ -32,6 +47,17 @@ public interface UserStorage {
      */
     Collection<User> getUsers();
 
+    /**
+     * Возвращает коллекцию всех пользователей, в которых заполнены только указанные поля.
+     * Реализация по умолчанию загружает пользователей целиком.
+     *
+     * @param fields имена полей пользователя
+     * @return коллекция пользователей
+     */
+    default Collection<User> getUsers(Set<String> fields) {
+        return getUsers();
+    }
+
     /**
      * Возвращает пользователя по его идентификатору.
      *
@@ -39,4 +65,29 @@ public interface UserStorage {
      * @return объект пользователя
      */
     User getUserById(Long id);
+
+    /**
+     * Возвращает пользователей по списку идентификаторов.
+     * Реализация по умолчанию загружает пользователей по одному.
+     *
+     * @param ids идентификаторы пользователей без повторов
+     * @return найденные пользователи в порядке идентификаторов; отсутствующие пользователи пропускаются
+     */
+    default List<User> getUsersByIds(Collection<Long> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (existsById(id)) {
+                users.add(getUserById(id));
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Проверяет существование пользователя без загрузки его данных.
+     *
+     * @param id идентификатор пользователя
+     * @return true, если пользователь существует
+     */
+    boolean existsById(Long id);
 }
\ No newline at end of file
@@ -0,0 +1,194 @@
+package ru.yandex.practicum.filmorate.utils;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.filmorate.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Параллельное выполнение независимых запросов одного чтения: каждый запрос выполняется
+ * на своём виртуальном потоке, а результаты объединяются, когда готовы все. Время ответа
+ * определяется самым медленным запросом, а не их суммой.
+ * <p>
+ * Ожидание ограничено сроком: если запросы не успели, выбрасывается {@link DeadlineExceededException}.
+ * Если один из запросов завершился ошибкой, она сразу пробрасывается вызывающему без обёртки.
+ * В обоих случаях оставшиеся запросы не ожидаются, а их результаты отбрасываются.
+ * <p>
+ * Каждый запрос выполняется в транзакции только для чтения с тайм-аутом, равным сроку
+ * (с округлением вверх до секунд), поэтому JDBC-запросы получают {@code Statement.setQueryTimeout}
+ * и опоздавший запрос останавливает база, а соединение возвращается в пул. Количество
+ * одновременных запросов на отдельных потоках ограничено общим для всех исполнителей разрешением
+ * ({@link FanOutConfig}); запрос, которому разрешения не хватило, выполняется в потоке
+ * вызывающего, и чтение становится последовательным вместо того, чтобы занимать пул соединений.
+ */
+public class FanOut implements MeterBinder {
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final String name;
+    private final Duration deadline;
+    private final Semaphore permits;
+    private final TransactionTemplate reads;
+    private final LongAdder joins = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder inline = new LongAdder();
+
+    /**
+     * Создаёт исполнитель параллельных чтений.
+     *
+     * @param name               имя, под которым публикуются метрики
+     * @param deadline           срок ожидания всех запросов одного чтения
+     * @param permits            общий предел запросов, одновременно выполняемых на отдельных потоках
+     * @param transactionManager менеджер транзакций, через который запросам задаётся тайм-аут
+     */
+    public FanOut(String name, Duration deadline, Semaphore permits, PlatformTransactionManager transactionManager) {
+        this.name = name;
+        this.deadline = deadline;
+        this.permits = permits;
+        this.reads = new TransactionTemplate(transactionManager);
+        this.reads.setReadOnly(true);
+        this.reads.setTimeout((int) Math.max(1, (deadline.toMillis() + 999) / 1000));
+    }
+
+    /**
+     * Выполняет два запроса параллельно и объединяет их результаты.
+     *
+     * @param first   первый запрос
+     * @param second  второй запрос
+     * @param combine объединение результатов
+     * @return объединённый результат
+     */
+    public <A, B, R> R join(Supplier<A> first, Supplier<B> second, BiFunction<? super A, ? super B, R> combine) {
+        CompletableFuture<A> a = start(first);
+        CompletableFuture<B> b = start(second);
+        await(a, b);
+        return combine.apply(a.join(), b.join());
+    }
+
+    /**
+     * Выполняет три запроса параллельно и объединяет их результаты.
+     *
+     * @param first   первый запрос
+     * @param second  второй запрос
+     * @param third   третий запрос
+     * @param combine объединение результатов
+     * @return объединённый результат
+     */
+    public <A, B, C, R> R join(Supplier<A> first, Supplier<B> second, Supplier<C> third,
+                               Combiner<? super A, ? super B, ? super C, R> combine) {
+        CompletableFuture<A> a = start(first);
+        CompletableFuture<B> b = start(second);
+        CompletableFuture<C> c = start(third);
+        await(a, b, c);
+        return combine.apply(a.join(), b.join(), c.join());
+    }
+
+    /**
+     * Запускает запрос на отдельном потоке, если есть свободное разрешение, иначе выполняет его сразу.
+     */
+    private <T> CompletableFuture<T> start(Supplier<T> query) {
+        if (!permits.tryAcquire()) {
+            inline.increment();
+            try {
+                return CompletableFuture.completedFuture(execute(query));
+            } catch (RuntimeException | Error e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                // Разрешение возвращается, когда запрос действительно закончился, а не когда его перестали ждать
+                try {
+                    return execute(query);
+                } finally {
+                    permits.release();
+                }
+            }, EXECUTOR);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private <T> T execute(Supplier<T> query) {
+        return reads.execute(status -> query.get());
+    }
+
+    private void await(CompletableFuture<?>... futures) {
+        joins.increment();
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures);
+        // Первая ошибка завершает ожидание, не дожидаясь остальных запросов
+        for (CompletableFuture<?> future : futures) {
+            future.whenComplete((value, error) -> {
+                if (error != null) {
+                    all.completeExceptionally(error);
+                }
+            });
+        }
+        try {
+            all.get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            cancel(futures);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            cancel(futures);
+            expired.increment();
+            throw new DeadlineExceededException("Чтение не уложилось в " + deadline.toMillis() + " мс");
+        } catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException("Чтение прервано");
+        }
+    }
+
+    private static void cancel(CompletableFuture<?>... futures) {
+        for (CompletableFuture<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("filmorate.fanout.reads", joins, LongAdder::sum)
+                .tag("name", name)
+                .description("Чтения, выполненные параллельными запросами")
+                .register(registry);
+        FunctionCounter.builder("filmorate.fanout.expired", expired, LongAdder::sum)
+                .tag("name", name)
+                .description("Чтения, не уложившиеся в срок")
+                .register(registry);
+        FunctionCounter.builder("filmorate.fanout.inline", inline, LongAdder::sum)
+                .tag("name", name)
+                .description("Запросы, выполненные в потоке вызывающего из-за предела параллельных запросов")
+                .register(registry);
+    }
+
+    /**
+     * Объединение результатов трёх запросов.
+     */
+    @FunctionalInterface
+    public interface Combiner<A, B, C, R> {
+        R apply(A first, B second, C third);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package ru.yandex.practicum.filmorate.utils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Конфигурация параллельных чтений: все исполнители {@link FanOut} делят один предел
+ * одновременных запросов, рассчитанный по размеру пула соединений.
+ */
+@Configuration
+@EnableConfigurationProperties(FanOutProperties.class)
+public class FanOutConfig {
+
+    /**
+     * Размер пула по умолчанию, если пул соединений не HikariCP.
+     */
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final FanOutProperties properties;
+    private final PlatformTransactionManager transactionManager;
+    private final Semaphore permits;
+
+    public FanOutConfig(FanOutProperties properties, PlatformTransactionManager transactionManager,
+                        DataSource dataSource) {
+        this.properties = properties;
+        this.transactionManager = transactionManager;
+        int limit = properties.getMaxParallelQueries() > 0
+                ? properties.getMaxParallelQueries()
+                : Math.max(1, poolSize(dataSource) / 2);
+        this.permits = new Semaphore(limit);
+    }
+
+    /**
+     * Параллельные запросы загрузки фильма.
+     *
+     * @return исполнитель параллельных чтений
+     */
+    @Bean
+    public FanOut filmReads() {
+        return new FanOut("film", properties.getDeadline(), permits, transactionManager);
+    }
+
+    /**
+     * Параллельные запросы профиля пользователя.
+     *
+     * @return исполнитель параллельных чтений
+     */
+    @Bean
+    public FanOut profileReads() {
+        return new FanOut("user-profile", properties.getDeadline(), permits, transactionManager);
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            // Пул не удалось определить — используется размер по умолчанию
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
\ No newline at end of file
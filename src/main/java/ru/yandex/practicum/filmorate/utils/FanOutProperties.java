@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки параллельных чтений {@link FanOut} (префикс {@code filmorate.fan-out}).
+ */
+@Data
+@ConfigurationProperties(prefix = "filmorate.fan-out")
+public class FanOutProperties {
+
+    /**
+     * Срок, за который должны выполниться все запросы одного составного чтения. Он же, округлённый
+     * вверх до секунд, задаёт тайм-аут каждого SQL-запроса, поэтому опоздавший запрос
+     * останавливается базой, а не только перестаёт ожидаться.
+     */
+    private Duration deadline = Duration.ofSeconds(2);
+
+    /**
+     * Наибольшее количество запросов, одновременно выполняемых на отдельных потоках во всех
+     * составных чтениях; 0 — половина пула соединений. Запрос сверх предела выполняется
+     * в потоке вызывающего, поэтому чтения не занимают весь пул.
+     */
+    private int maxParallelQueries;
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package ru.yandex.practicum.filmorate.utils;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Объединение одновременных одинаковых загрузок: пока загрузка по ключу выполняется,
+ * остальные запросы с тем же ключом не запускают свою, а ждут её и получают копию её
+ * результата или то же исключение. Завершённые загрузки не запоминаются — это не кэш.
+ * <p>
+ * Загрузки, которые целиком сводятся к чтению из кэша Caffeine, объединять не нужно:
+ * {@code Cache.get(key, loader)} уже выполняет одну загрузку на ключ.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип загружаемого значения
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    private final String name;
+    private final UnaryOperator<V> copier;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * Создаёт объединитель загрузок.
+     *
+     * @param name   имя, под которым публикуются метрики
+     * @param copier копирование результата для ожидающих запросов, чтобы они не делили
+     *               один изменяемый объект с выполнившим загрузку
+     */
+    public SingleFlight(String name, UnaryOperator<V> copier) {
+        this.name = name;
+        this.copier = copier;
+    }
+
+    /**
+     * Возвращает значение по ключу, выполняя загрузку, только если для этого ключа
+     * она ещё не выполняется.
+     *
+     * @param key    ключ загрузки
+     * @param loader загрузка значения
+     * @return загруженное значение
+     */
+    public V load(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            shared.increment();
+            return copier.apply(await(running));
+        }
+        loads.increment();
+        try {
+            V value = loader.apply(key);
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("filmorate.singleflight.loads", loads, LongAdder::sum)
+                .tag("name", name)
+                .description("Выполненные загрузки")
+                .register(registry);
+        FunctionCounter.builder("filmorate.singleflight.shared", shared, LongAdder::sum)
+                .tag("name", name)
+                .description("Запросы, получившие результат уже выполнявшейся загрузки")
+                .register(registry);
+    }
+}
\ No newline at end of file
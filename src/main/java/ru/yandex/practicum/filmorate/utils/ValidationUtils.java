@@ -1,28 +1,30 @@
 package ru.yandex.practicum.filmorate.utils;
 
-import jakarta.validation.Validation;
-import jakarta.validation.Validator;
-import jakarta.validation.ValidatorFactory;
+import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Genre;
 import ru.yandex.practicum.filmorate.model.User;
-import ru.yandex.practicum.filmorate.storage.dao.genre.GenreDao;
-import ru.yandex.practicum.filmorate.storage.dao.mpa.MpaDao;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
 
 /**
  * Утилита для общих проверок валидации.
+ * <p>
+ * Это единственное место проверки входящих фильмов и пользователей: сервисы вызывают её
+ * один раз на запрос. Все нарушения собираются за один проход и возвращаются одним
+ * исключением; для корректного объекта список нарушений не создаётся.
  */
 public class ValidationUtils {
 
-    private static final Validator validator;
-
-    static {
-        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-        validator = factory.getValidator();
-    }
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}");
+    private static final LocalDate EARLIEST_RELEASE_DATE = LocalDate.of(1895, 12, 28);
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 200;
 
     /**
      * Полностью проверяет объект {@link User} на валидность.
@@ -31,61 +33,101 @@ public class ValidationUtils {
      * @throws ValidationException если выявлены ошибки валидации
      */
     public static void validateUser(User user) throws ValidationException {
+        List<String> violations = null;
 
         // Проверка Email
-        if (user.getEmail() == null || user.getEmail().trim().isEmpty() ||
-                !user.getEmail().matches("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}")) {
-            throw new ValidationException("Некорректный формат Email.");
+        if (user.getEmail() == null || user.getEmail().isBlank() || !EMAIL_PATTERN.matcher(user.getEmail()).matches()) {
+            violations = add(violations, "Некорректный формат Email.");
         }
 
         // Проверка даты рождения
         if (user.getBirthday() == null || user.getBirthday().isAfter(LocalDate.now())) {
-            throw new ValidationException("Неправильная дата рождения.");
+            violations = add(violations, "Неправильная дата рождения.");
         }
 
         // Проверка логина
-        if (user.getLogin() == null || user.getLogin().trim().isEmpty()) {
-            throw new ValidationException("Логин не может быть пустым.");
+        if (user.getLogin() == null || user.getLogin().isBlank()) {
+            violations = add(violations, "Логин не может быть пустым.");
+        }
+
+        if (violations != null) {
+            throw new ValidationException(String.join(" ", violations));
         }
     }
 
     /**
      * Полностью проверяет объект {@link Film} на валидность.
+     * Существование рейтинга и жанров проверяется по кэшу справочников без обращения к базе.
      *
-     * @param film     объект фильма
-     * @param mpaDao   DAO для работы с рейтингами MPA
-     * @param genreDao DAO для работы с жанрами
-     * @throws ValidationException если выявлены ошибки валидации
+     * @param film          объект фильма
+     * @param referenceData кэш справочников MPA и жанров
+     * @throws ValidationException     если выявлены ошибки валидации
+     * @throws EntityNotFoundException если данные корректны, но рейтинг или жанр не существует
      */
-    public static void validateFilm(Film film, MpaDao mpaDao, GenreDao genreDao) throws ValidationException {
+    public static void validateFilm(Film film, ReferenceDataCache referenceData) throws ValidationException {
+        List<String> violations = null;
+        List<String> missing = null;
+
         // Проверка названия фильма
-        if (film.getName() == null || film.getName().trim().isEmpty()) {
-            throw new ValidationException("Название фильма обязательно");
+        if (film.getName() == null || film.getName().isBlank()) {
+            violations = add(violations, "Название фильма обязательно.");
+        } else if (film.getName().length() > MAX_NAME_LENGTH) {
+            violations = add(violations, "Название фильма должно быть длиной от 1 до 255 символов.");
+        }
+
+        // Проверка описания фильма
+        if (film.getDescription() == null || film.getDescription().isBlank()) {
+            violations = add(violations, "Описание фильма обязательно.");
+        } else if (film.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            violations = add(violations, "Описание фильма не должно превышать 200 символов.");
         }
 
         // Проверка даты релиза
         LocalDate releaseDate = film.getReleaseDate();
-        if (releaseDate == null || releaseDate.isBefore(LocalDate.of(1895, 12, 28))) {
-            throw new ValidationException("Дата выпуска фильма не должна быть раньше 28 декабря 1895 года");
+        if (releaseDate == null || releaseDate.isBefore(EARLIEST_RELEASE_DATE)) {
+            violations = add(violations, "Дата выпуска фильма не должна быть раньше 28 декабря 1895 года.");
+        } else if (releaseDate.isAfter(LocalDate.now())) {
+            violations = add(violations, "Дата выпуска фильма не может быть в будущем.");
         }
 
         // Проверка продолжительности фильма
-        if (film.getDuration() <= 0) {
-            throw new ValidationException("Продолжительность фильма должна быть положительной");
+        if (film.getDuration() == null || film.getDuration() <= 0) {
+            violations = add(violations, "Продолжительность фильма должна быть положительной.");
         }
 
         // Проверка существования рейтинга
-        if (mpaDao.getMpaById(film.getMpa().getId()) == null) {
-            throw new ValidationException("Рейтинг с ID " + film.getMpa().getId() + " не существует");
+        if (film.getMpa() == null) {
+            violations = add(violations, "Рейтинг MPA обязателен.");
+        } else if (!referenceData.hasMpa(film.getMpa().getId())) {
+            missing = add(missing, "MPA с id " + film.getMpa().getId() + " не найден.");
         }
 
         // Проверка жанров фильма
-        if (film.getGenres() != null && !film.getGenres().isEmpty()) {
+        if (film.getGenres() != null) {
             for (Genre genre : film.getGenres()) {
-                if (genreDao.getGenreById(genre.getId()) == null) {
-                    throw new ValidationException("Жанр с ID " + genre.getId() + " не существует");
+                if (!referenceData.hasGenre(genre.getId())) {
+                    missing = add(missing, String.format("Жанра с id %s не существует.", genre.getId()));
                 }
             }
         }
+
+        if (violations != null) {
+            if (missing != null) {
+                violations.addAll(missing);
+            }
+            throw new ValidationException(String.join(" ", violations));
+        }
+        if (missing != null) {
+            throw new EntityNotFoundException(String.join(" ", missing));
+        }
+    }
+
+    /**
+     * Добавляет нарушение в список, создавая список только при первом нарушении.
+     */
+    private static List<String> add(List<String> violations, String message) {
+        List<String> result = violations == null ? new ArrayList<>(4) : violations;
+        result.add(message);
+        return result;
     }
 }
\ No newline at end of file
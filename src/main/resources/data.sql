@@ -1,17 +1,17 @@
-INSERT INTO mpa (mpa_id, mpa_name)
+MERGE INTO mpa (mpa_id, mpa_name) KEY (mpa_id)
             VALUES (1, 'G');
-INSERT INTO mpa (mpa_id, mpa_name)
+MERGE INTO mpa (mpa_id, mpa_name) KEY (mpa_id)
             VALUES (2, 'PG');
-INSERT INTO mpa (mpa_id, mpa_name)
+MERGE INTO mpa (mpa_id, mpa_name) KEY (mpa_id)
             VALUES (3, 'PG-13');
-INSERT INTO mpa (mpa_id, mpa_name)
+MERGE INTO mpa (mpa_id, mpa_name) KEY (mpa_id)
             VALUES (4, 'R');
-INSERT INTO mpa (mpa_id, mpa_name)
+MERGE INTO mpa (mpa_id, mpa_name) KEY (mpa_id)
             VALUES (5, 'NC-17');
 
-INSERT INTO genre (genre_name) VALUES ('Комедия');
-INSERT INTO genre (genre_name) VALUES ('Драма');
-INSERT INTO genre (genre_name) VALUES ('Мультфильм');
-INSERT INTO genre (genre_name) VALUES ('Триллер');
-INSERT INTO genre (genre_name) VALUES ('Документальный');
-INSERT INTO genre (genre_name) VALUES ('Боевик');
\ No newline at end of file
+MERGE INTO genre (genre_id, genre_name) KEY (genre_id) VALUES (1, 'Комедия');
+MERGE INTO genre (genre_id, genre_name) KEY (genre_id) VALUES (2, 'Драма');
+MERGE INTO genre (genre_id, genre_name) KEY (genre_id) VALUES (3, 'Мультфильм');
+MERGE INTO genre (genre_id, genre_name) KEY (genre_id) VALUES (4, 'Триллер');
+MERGE INTO genre (genre_id, genre_name) KEY (genre_id) VALUES (5, 'Документальный');
+MERGE INTO genre (genre_id, genre_name) KEY (genre_id) VALUES (6, 'Боевик');
\ No newline at end of file
@@ -1,11 +1,3 @@
-DROP TABLE IF EXISTS mpa CASCADE;
-DROP TABLE IF EXISTS film CASCADE;
-DROP TABLE IF EXISTS genre CASCADE;
-DROP TABLE IF EXISTS film_genre CASCADE;
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS friends CASCADE;
-DROP TABLE IF EXISTS likes CASCADE;
-
 CREATE TABLE IF NOT EXISTS mpa (
     mpa_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     mpa_name VARCHAR NOT NULL UNIQUE
@@ -17,7 +9,8 @@ CREATE TABLE IF NOT EXISTS film (
     description VARCHAR(200),
     release_date DATE,
     duration INTEGER CHECK (duration > 0),
-    mpa_id INTEGER REFERENCES mpa (mpa_id) ON DELETE RESTRICT
+    mpa_id INTEGER REFERENCES mpa (mpa_id) ON DELETE RESTRICT,
+    genre_mask BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS genre (
@@ -42,10 +35,32 @@ CREATE TABLE IF NOT EXISTS friends (
     user_id BIGINT  NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
     friend_id BIGINT  NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
     status BOOLEAN NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     PRIMARY KEY (user_id, friend_id)
 );
 
 CREATE TABLE IF NOT EXISTS likes (
     film_id BIGINT NOT NULL REFERENCES film (film_id) ON DELETE CASCADE,
-    user_id BIGINT NOT NULL REFERENCES users (user_id) ON DELETE CASCADE
-);
\ No newline at end of file
+    user_id BIGINT NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS likes_user_film_idx ON likes (user_id, film_id);
+
+-- Столбцы, добавленные после первого выпуска: базы, созданные раньше, дополняются при запуске
+ALTER TABLE film ADD COLUMN IF NOT EXISTS genre_mask BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE friends ADD COLUMN IF NOT EXISTS created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE likes ADD COLUMN IF NOT EXISTS created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Индексы по времени создаются после добавления столбцов created_at
+CREATE INDEX IF NOT EXISTS likes_created_at_idx ON likes (created_at);
+CREATE INDEX IF NOT EXISTS likes_user_created_idx ON likes (user_id, created_at);
+CREATE INDEX IF NOT EXISTS friends_user_created_idx ON friends (user_id, created_at);
+
+-- Маска жанров заполняется по film_genre для фильмов, сохранённых до появления маски;
+-- побитовое ИЛИ не учитывает повторяющиеся строки film_genre дважды
+UPDATE film SET genre_mask = (SELECT COALESCE(BIT_OR_AGG(LSHIFT(CAST(1 AS BIGINT), fg.genre_id - 1)), 0)
+                              FROM film_genre fg
+                              WHERE fg.film_id = film.film_id)
+WHERE genre_mask = 0
+  AND EXISTS (SELECT 1 FROM film_genre fg WHERE fg.film_id = film.film_id);
\ No newline at end of file
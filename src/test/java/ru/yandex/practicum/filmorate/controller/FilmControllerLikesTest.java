@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FilmDbService;
+import ru.yandex.practicum.filmorate.service.UserDbService;
+import ru.yandex.practicum.filmorate.storage.index.FilmViewIndex;
+import ru.yandex.practicum.filmorate.storage.index.LikedFilmsIndex;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:film-likes;DB_CLOSE_DELAY=-1",
+        "filmorate.http-log.enabled=false"
+})
+@AutoConfigureMockMvc
+class FilmControllerLikesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FilmDbService filmService;
+    @Autowired
+    private UserDbService userService;
+    @Autowired
+    private FilmViewIndex filmViewIndex;
+    @Autowired
+    private LikedFilmsIndex likedFilmsIndex;
+
+    @Test
+    void deleteLikeRemovesLikeOfThatUser() throws Exception {
+        Film film = new Film("Фильм", "Описание", LocalDate.of(2000, 1, 1), 120);
+        film.setMpa(new Mpa(1, null));
+        long filmId = filmService.addFilm(film).getId();
+        long userId = userService.createUser(
+                new User("likes@mail.ru", "likes", "Пользователь", LocalDate.of(1990, 1, 1))).getId();
+
+        mockMvc.perform(put("/films/{filmId}/like/{userId}", filmId, userId)).andExpect(status().is2xxSuccessful());
+        assertEquals(1, filmViewIndex.view(filmId).likes());
+        assertEquals(1, likedFilmsIndex.likedFilms(userId).length);
+
+        mockMvc.perform(delete("/films/{filmId}/like/{userId}", filmId, userId)).andExpect(status().is2xxSuccessful());
+        assertEquals(0, filmViewIndex.view(filmId).likes());
+        assertEquals(0, likedFilmsIndex.likedFilms(userId).length);
+    }
+}
\ No newline at end of file
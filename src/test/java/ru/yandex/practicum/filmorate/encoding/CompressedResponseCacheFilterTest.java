@@ -0,0 +1,111 @@
+package ru.yandex.practicum.filmorate.encoding;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedResponseCacheFilterTest {
+
+    private static final String SMALL_BODY = "[{\"id\":1,\"name\":\"Комедия\"},{\"id\":2,\"name\":\"Драма\"}]";
+
+    private final AtomicInteger serializations = new AtomicInteger();
+
+    @Test
+    void largeResponseIsSerializedOnceAndServedCompressed() throws Exception {
+        String body = largeBody();
+        CompressedResponseCacheFilter filter = filter();
+
+        MockHttpServletResponse first = get(filter, "/genres", true, body);
+        MockHttpServletResponse second = get(filter, "/genres", true, body);
+
+        assertEquals(1, serializations.get());
+        byte[] raw = body.getBytes(StandardCharsets.UTF_8);
+        for (MockHttpServletResponse response : List.of(first, second)) {
+            assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+            assertTrue(response.getHeader(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+            assertTrue(response.getContentAsByteArray().length < raw.length / 2,
+                    "сжатый ответ " + response.getContentAsByteArray().length + " из " + raw.length + " байт");
+            assertArrayEquals(raw, gunzip(response.getContentAsByteArray()));
+        }
+    }
+
+    @Test
+    void smallResponseIsCachedWithoutCompression() throws Exception {
+        CompressedResponseCacheFilter filter = filter();
+
+        get(filter, "/genres", true, SMALL_BODY);
+        MockHttpServletResponse cached = get(filter, "/genres", true, SMALL_BODY);
+
+        assertEquals(1, serializations.get());
+        assertNull(cached.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(SMALL_BODY, cached.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void clientWithoutGzipGetsOriginalBodyFromCache() throws Exception {
+        String body = largeBody();
+        CompressedResponseCacheFilter filter = filter();
+
+        get(filter, "/mpa", true, body);
+        MockHttpServletResponse plain = get(filter, "/mpa", false, body);
+
+        assertEquals(1, serializations.get());
+        assertNull(plain.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(body, plain.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private CompressedResponseCacheFilter filter() {
+        EncodingProperties properties = new EncodingProperties();
+        properties.setCachedPaths(List.of("/genres", "/mpa"));
+        return new CompressedResponseCacheFilter(properties);
+    }
+
+    private MockHttpServletResponse get(CompressedResponseCacheFilter filter, String path, boolean gzip, String body)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            serializations.incrementAndGet();
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static String largeBody() {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 1; i <= 200; i++) {
+            if (i > 1) {
+                body.append(',');
+            }
+            body.append("{\"id\":").append(i).append(",\"name\":\"Жанр номер ").append(i).append("\"}");
+        }
+        return body.append(']').toString();
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package ru.yandex.practicum.filmorate.encoding;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.yandex.practicum.filmorate.fields.SparseFields;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнение JSON, Smile и CBOR на списках фильмов, похожих на ответ {@code GET /films}: размер ответа
+ * без сжатия и после gzip и время сериализации. ObjectMapper строятся так же, как в {@link EncodingConfig}.
+ */
+@Slf4j
+@Tag("benchmark")
+class EncodingComparisonTest {
+
+    private static final int WARMUP_RUNS = 30;
+    private static final int MEASURED_RUNS = 50;
+    private static final String[] MPA = {"G", "PG", "PG-13", "R", "NC-17"};
+    private static final String[] GENRES = {"Комедия", "Драма", "Мультфильм", "Триллер", "Документальный", "Боевик"};
+    private static final String[] WORDS = {"история", "семья", "город", "война", "любовь", "тайна", "путешествие",
+            "друзья", "прошлое", "решение", "герой", "опасность", "мечта", "побег", "наследство", "остров"};
+
+    private final Map<String, ObjectMapper> mappers = Map.of(
+            "JSON", mapper(new JsonFactory()),
+            "Smile", mapper(new SmileFactory()),
+            "CBOR", mapper(new CBORFactory()));
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 1_000, 10_000})
+    void payloadSizeAndSerializationTime(int count) throws IOException {
+        List<Film> films = films(count);
+
+        for (String format : List.of("JSON", "Smile", "CBOR")) {
+            ObjectMapper mapper = mappers.get(format);
+            byte[] payload = mapper.writeValueAsBytes(films);
+            assertEquals(count, mapper.readTree(payload).size());
+
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                mapper.writeValueAsBytes(films);
+            }
+            long[] micros = new long[MEASURED_RUNS];
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                long start = System.nanoTime();
+                mapper.writeValueAsBytes(films);
+                micros[i] = (System.nanoTime() - start) / 1_000;
+            }
+            Arrays.sort(micros);
+
+            log.info("{} фильмов, {}: {} байт, gzip {} байт, сериализация медиана {} мкс, p90 {} мкс",
+                    count, format, payload.length, gzip(payload).length,
+                    micros[MEASURED_RUNS / 2], micros[MEASURED_RUNS * 9 / 10]);
+        }
+    }
+
+    /**
+     * ObjectMapper с настройками приложения, прямыми сериализаторами моделей и заданным форматом.
+     */
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .filters(new SimpleFilterProvider()
+                        .addFilter(SparseFields.FILTER, SimpleBeanPropertyFilter.serializeAll()))
+                .modulesToInstall(new EncodingConfig().modelSerializers())
+                .build();
+    }
+
+    /**
+     * Фильмы с названиями и описаниями обычной длины, одним–тремя жанрами и рейтингом из справочника.
+     */
+    private static List<Film> films(int count) {
+        Random random = new Random(count);
+        List<Film> films = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Film film = new Film(capitalize(words(random, 1 + random.nextInt(4))),
+                    capitalize(words(random, 10 + random.nextInt(15))) + ".",
+                    LocalDate.of(1950, 1, 1).plusDays(random.nextInt(27_000)), 70 + random.nextInt(120));
+            film.setId((long) i + 1);
+            int mpa = random.nextInt(MPA.length);
+            film.setMpa(new Mpa(mpa + 1, MPA[mpa]));
+            Set<Genre> genres = new LinkedHashSet<>();
+            int first = random.nextInt(GENRES.length - 2);
+            int last = first + random.nextInt(3);
+            for (int id = first; id <= last; id++) {
+                Genre genre = new Genre();
+                genre.setId(id + 1);
+                genre.setName(GENRES[id]);
+                genres.add(genre);
+            }
+            film.setGenres(genres);
+            films.add(film);
+        }
+        return films;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.length() > 199 ? text.substring(0, 199) : text.toString();
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(payload);
+        }
+        return compressed.toByteArray();
+    }
+}
\ No newline at end of file
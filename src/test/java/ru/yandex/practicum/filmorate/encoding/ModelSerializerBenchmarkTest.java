@@ -0,0 +1,96 @@
+package ru.yandex.practicum.filmorate.encoding;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Mpa;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-замер сериализации списка фильмов в JSON: стандартная сериализация через отражение
+ * против {@link FilmSerializer}. Выводит фильмы в секунду и байты, выделенные на один фильм.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ModelSerializerBenchmarkTest {
+
+    private static final int FILMS = 1_000;
+
+    private List<Film> films;
+    private ObjectWriter reflectiveWriter;
+    private ObjectWriter streamingWriter;
+
+    @Tag("benchmark")
+    @Test
+    void reflectiveAndStreamingSerialization() throws RunnerException {
+        // Без отдельной JVM: дочерний процесс не получает путь классов surefire
+        for (RunResult result : new Runner(new OptionsBuilder()
+                .include(ModelSerializerBenchmarkTest.class.getName() + "\\.")
+                .forks(0)
+                .addProfiler(GCProfiler.class)
+                .build()).run()) {
+            log.info("{}: {} фильмов/с, выделено {} байт на фильм",
+                    result.getParams().getBenchmark(),
+                    String.format("%.0f", result.getPrimaryResult().getScore() * FILMS),
+                    String.format("%.1f", allocatedPerCall(result) / FILMS));
+        }
+    }
+
+    /**
+     * Байты, выделенные за один вызов, по данным {@link GCProfiler}.
+     */
+    private static double allocatedPerCall(RunResult result) {
+        return result.getSecondaryResults().entrySet().stream()
+                .filter(entry -> entry.getKey().endsWith("gc.alloc.rate.norm"))
+                .mapToDouble(entry -> entry.getValue().getScore())
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        reflectiveWriter = ModelSerializerTest.mapper(false).writer();
+        streamingWriter = ModelSerializerTest.mapper(true).writer();
+        films = new ArrayList<>(FILMS);
+        for (int i = 0; i < FILMS; i++) {
+            films.add(ModelSerializerTest.film((long) i, "Фильм " + i,
+                    ModelSerializerTest.genres(1 + i % 6, 1 + (i + 2) % 6), new Mpa(1 + i % 5, "PG")));
+        }
+    }
+
+    @Benchmark
+    public void reflective() throws IOException {
+        reflectiveWriter.writeValue(OutputStream.nullOutputStream(), films);
+    }
+
+    @Benchmark
+    public void streaming() throws IOException {
+        streamingWriter.writeValue(OutputStream.nullOutputStream(), films);
+    }
+}
\ No newline at end of file
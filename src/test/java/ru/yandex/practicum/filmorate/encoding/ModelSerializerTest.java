@@ -0,0 +1,133 @@
+package ru.yandex.practicum.filmorate.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.yandex.practicum.filmorate.fields.SparseFields;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверяет, что прямые сериализаторы фильмов и пользователей выдают те же байты,
+ * что и стандартная сериализация Jackson через отражение.
+ */
+class ModelSerializerTest {
+
+    private final ObjectMapper reflective = mapper(false);
+    private final ObjectMapper streaming = mapper(true);
+
+    @Test
+    void filmMatchesReflectiveOutput() throws Exception {
+        assertSameBytes(film(1L, "Фильм \"в кавычках\"", genres(1, 2, 6), new Mpa(3, "PG-13")));
+    }
+
+    @Test
+    void filmWithNullFieldsMatchesReflectiveOutput() throws Exception {
+        assertSameBytes(new Film());
+        assertSameBytes(film(2L, null, null, new Mpa(1, null)));
+        assertSameBytes(film(3L, "Без жанров", new LinkedHashSet<>(), null));
+    }
+
+    @Test
+    void unorderedGenresAreWrittenByAscendingId() throws Exception {
+        Set<Genre> unordered = new HashSet<>();
+        for (int id : new int[]{6, 1, 4, 2, 5, 3}) {
+            unordered.add(genre(id));
+        }
+        Film film = film(4L, "Жанры вразнобой", unordered, new Mpa(1, "G"));
+        Film sorted = new Film(film);
+        sorted.setGenres(genres(1, 2, 3, 4, 5, 6));
+
+        assertArrayEquals(reflective.writeValueAsBytes(sorted), streaming.writeValueAsBytes(film));
+    }
+
+    @Test
+    void userMatchesReflectiveOutput() throws Exception {
+        User user = new User("user@mail.ru", "login", "Имя", LocalDate.of(1990, 5, 17));
+        user.setId(7L);
+
+        assertSameBytes(user);
+        assertSameBytes(new User());
+    }
+
+    @Test
+    void filmListMatchesReflectiveOutput() throws Exception {
+        List<Film> films = List.of(
+                film(1L, "Первый", genres(2), new Mpa(1, "G")),
+                film(2L, "Второй", null, new Mpa(2, "PG")),
+                new Film());
+
+        assertArrayEquals(reflective.writeValueAsBytes(films), streaming.writeValueAsBytes(films));
+    }
+
+    @Test
+    void selectedFieldsMatchReflectiveOutput() throws Exception {
+        SimpleFilterProvider selection = new SimpleFilterProvider()
+                .addFilter(SparseFields.FILTER, new SparseFields.Selection(Set.of("id", "name", "genres")));
+        Film film = film(5L, "Выборочно", genres(3, 4), new Mpa(4, "R"));
+        User user = new User("user@mail.ru", "login", "Имя", LocalDate.of(1990, 5, 17));
+        user.setId(8L);
+
+        ObjectWriter reflectiveWriter = reflective.writer(selection);
+        ObjectWriter streamingWriter = streaming.writer(selection);
+        assertArrayEquals(reflectiveWriter.writeValueAsBytes(film), streamingWriter.writeValueAsBytes(film));
+        assertArrayEquals(reflectiveWriter.writeValueAsBytes(user), streamingWriter.writeValueAsBytes(user));
+        assertEquals("{\"id\":5,\"name\":\"Выборочно\",\"genres\":[{\"id\":3,\"name\":\"Жанр 3\"},"
+                + "{\"id\":4,\"name\":\"Жанр 4\"}]}", streamingWriter.writeValueAsString(film));
+    }
+
+    private void assertSameBytes(Object value) throws Exception {
+        assertEquals(reflective.writeValueAsString(value), streaming.writeValueAsString(value));
+        assertArrayEquals(reflective.writeValueAsBytes(value), streaming.writeValueAsBytes(value));
+    }
+
+    /**
+     * ObjectMapper с теми же настройками, что у приложения; прямые сериализаторы подключаются по флагу.
+     */
+    static ObjectMapper mapper(boolean withModelSerializers) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .filters(new SimpleFilterProvider()
+                        .addFilter(SparseFields.FILTER, SimpleBeanPropertyFilter.serializeAll()));
+        if (withModelSerializers) {
+            builder.modulesToInstall(new EncodingConfig().modelSerializers());
+        }
+        return builder.build();
+    }
+
+    static Film film(Long id, String name, Set<Genre> genres, Mpa mpa) {
+        Film film = new Film(name, "Описание", LocalDate.of(1999, 3, 31), 136);
+        film.setId(id);
+        film.setGenres(genres);
+        film.setMpa(mpa);
+        return film;
+    }
+
+    static Set<Genre> genres(int... ids) {
+        Set<Genre> genres = new LinkedHashSet<>();
+        for (int id : ids) {
+            genres.add(genre(id));
+        }
+        return genres;
+    }
+
+    private static Genre genre(int id) {
+        Genre genre = new Genre();
+        genre.setId(id);
+        genre.setName("Жанр " + id);
+        return genre;
+    }
+}
\ No newline at end of file
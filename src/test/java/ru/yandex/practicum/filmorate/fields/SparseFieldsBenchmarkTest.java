@@ -0,0 +1,117 @@
+package ru.yandex.practicum.filmorate.fields;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FilmDbService;
+import ru.yandex.practicum.filmorate.service.UserDbService;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Замер списков {@code GET /films} и {@code GET /users} с полным набором полей и с {@code fields=id,name}.
+ * Наборы чередуются сериями, чтобы прогрев и сборка мусора влияли на оба одинаково.
+ */
+@Slf4j
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sparse-fields-benchmark;DB_CLOSE_DELAY=-1",
+        "filmorate.http-log.enabled=false",
+        "filmorate.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+class SparseFieldsBenchmarkTest {
+
+    private static final int ENTITIES = 5_000;
+    private static final int WARMUP_REQUESTS = 100;
+    private static final int ROUNDS = 10;
+    private static final int REQUESTS_PER_ROUND = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FilmDbService filmService;
+    @Autowired
+    private UserDbService userService;
+
+    @BeforeAll
+    void fill() {
+        for (int i = 0; i < ENTITIES; i++) {
+            filmService.addFilm(film(i));
+            userService.createUser(new User("user" + i + "@mail.ru", "user" + i, "Пользователь " + i,
+                    LocalDate.of(1980, 1, 1).plusDays(i)));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/films", "/users"})
+    void listWithMinimalAndFullFields(String path) throws Exception {
+        String minimal = path + "?fields=id,name";
+        measure(path, WARMUP_REQUESTS);
+        measure(minimal, WARMUP_REQUESTS);
+
+        long[] full = new long[ROUNDS * REQUESTS_PER_ROUND];
+        long[] sparse = new long[ROUNDS * REQUESTS_PER_ROUND];
+        for (int round = 0; round < ROUNDS; round++) {
+            System.arraycopy(measure(path, REQUESTS_PER_ROUND), 0, full, round * REQUESTS_PER_ROUND,
+                    REQUESTS_PER_ROUND);
+            System.arraycopy(measure(minimal, REQUESTS_PER_ROUND), 0, sparse, round * REQUESTS_PER_ROUND,
+                    REQUESTS_PER_ROUND);
+        }
+
+        log.info("GET {}, {} записей: все поля p50 {} мкс, p99 {} мкс, {} байт; "
+                        + "id,name p50 {} мкс, p99 {} мкс, {} байт",
+                path, ENTITIES, percentile(full, 0.5), percentile(full, 0.99), responseSize(path),
+                percentile(sparse, 0.5), percentile(sparse, 0.99), responseSize(minimal));
+    }
+
+    /**
+     * Выполняет запросы подряд и возвращает задержку каждого в микросекундах.
+     */
+    private long[] measure(String uri, int requests) throws Exception {
+        long[] micros = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            long start = System.nanoTime();
+            mockMvc.perform(get(uri)).andExpect(status().isOk());
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        return micros;
+    }
+
+    private int responseSize(String uri) throws Exception {
+        return mockMvc.perform(get(uri)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+
+    private static long percentile(long[] values, double quantile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+
+    private static Film film(int i) {
+        Film film = new Film("Фильм " + i, "Описание фильма номер " + i, LocalDate.of(2000, 1, 1).plusDays(i), 90);
+        film.setMpa(new Mpa(1 + i % 5, null));
+        Genre genre = new Genre();
+        genre.setId(1 + i % 6);
+        film.setGenres(Set.of(genre));
+        return film;
+    }
+}
\ No newline at end of file
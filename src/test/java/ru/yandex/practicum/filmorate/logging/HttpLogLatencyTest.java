@@ -0,0 +1,104 @@
+package ru.yandex.practicum.filmorate.logging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.service.FilmDbService;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Замер задержки большого ответа {@code GET /films} с включённым и выключенным журналированием
+ * HTTP-обменов. Режимы чередуются сериями, чтобы прогрев и сборка мусора влияли на оба одинаково.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:http-log-latency;DB_CLOSE_DELAY=-1",
+        "filmorate.http-log.enabled=true",
+        "filmorate.http-log.sample-rate=1.0",
+        "filmorate.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+class HttpLogLatencyTest {
+
+    private static final int FILMS = 2_000;
+    private static final int WARMUP_REQUESTS = 200;
+    private static final int ROUNDS = 10;
+    private static final int REQUESTS_PER_ROUND = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private FilmDbService filmService;
+    @Autowired
+    private HttpLogProperties properties;
+    @Autowired
+    private AsyncHttpLogSink sink;
+
+    @Test
+    void filmsListLatencyWithLoggingOnAndOff() throws Exception {
+        for (int i = 0; i < FILMS; i++) {
+            filmService.addFilm(film(i));
+        }
+        for (boolean enabled : new boolean[]{true, false}) {
+            properties.setEnabled(enabled);
+            measure(WARMUP_REQUESTS);
+        }
+
+        long[] on = new long[ROUNDS * REQUESTS_PER_ROUND];
+        long[] off = new long[ROUNDS * REQUESTS_PER_ROUND];
+        for (int round = 0; round < ROUNDS; round++) {
+            properties.setEnabled(true);
+            System.arraycopy(measure(REQUESTS_PER_ROUND), 0, on, round * REQUESTS_PER_ROUND, REQUESTS_PER_ROUND);
+            properties.setEnabled(false);
+            System.arraycopy(measure(REQUESTS_PER_ROUND), 0, off, round * REQUESTS_PER_ROUND, REQUESTS_PER_ROUND);
+        }
+        properties.setEnabled(true);
+
+        log.info("GET /films, {} фильмов: журнал включён p50 {} мкс, p99 {} мкс; выключен p50 {} мкс, p99 {} мкс; "
+                        + "отброшено записей {}",
+                FILMS, percentile(on, 0.5), percentile(on, 0.99), percentile(off, 0.5), percentile(off, 0.99),
+                sink.getDroppedCount());
+    }
+
+    /**
+     * Выполняет запросы подряд и возвращает задержку каждого в микросекундах.
+     */
+    private long[] measure(int requests) throws Exception {
+        long[] micros = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            long start = System.nanoTime();
+            mockMvc.perform(get("/films")).andExpect(status().isOk());
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        return micros;
+    }
+
+    private static long percentile(long[] values, double quantile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+
+    private static Film film(int i) {
+        Film film = new Film("Фильм " + i, "Описание фильма номер " + i, LocalDate.of(2000, 1, 1).plusDays(i), 90);
+        film.setMpa(new Mpa(1 + i % 5, null));
+        Genre genre = new Genre();
+        genre.setId(1 + i % 6);
+        film.setGenres(Set.of(genre));
+        return film;
+    }
+}
\ No newline at end of file
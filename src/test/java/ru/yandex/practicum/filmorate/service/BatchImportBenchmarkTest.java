@@ -0,0 +1,103 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Сравнение скорости импорта через {@code POST /films/batch} и {@code POST /users/batch} с созданием
+ * тех же элементов по одному запросу на элемент. Способы чередуются сериями, чтобы прогрев
+ * и сборка мусора влияли на оба одинаково.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch-import-benchmark;DB_CLOSE_DELAY=-1",
+        "filmorate.http-log.enabled=false",
+        "filmorate.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+class BatchImportBenchmarkTest {
+
+    private static final int WARMUP_ITEMS = 1_000;
+    private static final int ROUNDS = 5;
+    private static final int ITEMS_PER_ROUND = 2_000;
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/films", "/users"})
+    void batchAndSingleItemImportRate(String path) throws Exception {
+        single(path, items(path, WARMUP_ITEMS));
+        batch(path, items(path, WARMUP_ITEMS));
+
+        long singleNanos = 0;
+        long batchNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            singleNanos += single(path, items(path, ITEMS_PER_ROUND));
+            batchNanos += batch(path, items(path, ITEMS_PER_ROUND));
+        }
+
+        long total = (long) ROUNDS * ITEMS_PER_ROUND;
+        log.info("POST {}: по одному {} элементов/с, пакетом {} элементов/с ({} элементов)",
+                path, rate(total, singleNanos), rate(total, batchNanos), total);
+    }
+
+    /**
+     * Создаёт элементы отдельными запросами и возвращает затраченное время в наносекундах.
+     */
+    private long single(String path, List<String> items) throws Exception {
+        long start = System.nanoTime();
+        for (String item : items) {
+            mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(item))
+                    .andExpect(status().is2xxSuccessful());
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Импортирует элементы одним NDJSON-запросом и возвращает затраченное время в наносекундах.
+     */
+    private long batch(String path, List<String> items) throws Exception {
+        String body = String.join("\n", items) + "\n";
+        long start = System.nanoTime();
+        mockMvc.perform(post(path + "/batch").contentType(MediaType.APPLICATION_NDJSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.status != 201)]").isEmpty());
+        return System.nanoTime() - start;
+    }
+
+    private static List<String> items(String path, int count) {
+        List<String> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int number = SEQUENCE.incrementAndGet();
+            items.add(path.equals("/films")
+                    ? String.format("{\"name\":\"Фильм %1$d\",\"description\":\"Описание фильма номер %1$d\","
+                            + "\"releaseDate\":\"2000-01-01\",\"duration\":90,\"mpa\":{\"id\":%2$d},"
+                            + "\"genres\":[{\"id\":%3$d}]}", number, 1 + number % 5, 1 + number % 6)
+                    : String.format("{\"email\":\"bench%1$d@mail.ru\",\"login\":\"bench%1$d\","
+                            + "\"name\":\"Пользователь %1$d\",\"birthday\":\"1990-01-01\"}", number));
+        }
+        return items;
+    }
+
+    private static long rate(long items, long nanos) {
+        return items * 1_000_000_000L / Math.max(nanos, 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,201 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.model.BatchItemResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.support.StatementCounter;
+import ru.yandex.practicum.filmorate.support.StatementCounterConfig;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет пакетный импорт: статус каждого элемента, оба входных формата
+ * и повтор по одному элементу после отказа базы данных сохранить порцию.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch-import;DB_CLOSE_DELAY=-1",
+        "filmorate.http-log.enabled=false"
+})
+@AutoConfigureMockMvc
+@Import(StatementCounterConfig.class)
+class BatchImportServiceTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private BatchImportService importService;
+    @Autowired
+    private FilmDbService filmService;
+    @Autowired
+    private UserDbService userService;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void filmsGetStatusOfEachItemInInputOrder() throws Exception {
+        String body = """
+                [{"name":"Сохранится","description":"Описание","releaseDate":"2000-01-01","duration":90,"mpa":{"id":1},"genres":[{"id":2}]},
+                 {"name":" ","description":"Описание","releaseDate":"2000-01-01","duration":90,"mpa":{"id":1}},
+                 {"name":"Нет рейтинга","description":"Описание","releaseDate":"2000-01-01","duration":90,"mpa":{"id":99}},
+                 {"name":"Нет жанра","description":"Описание","releaseDate":"2000-01-01","duration":90,"mpa":{"id":1},"genres":[{"id":99}]},
+                 {"name":"Не число","description":"Описание","releaseDate":"2000-01-01","duration":"долго","mpa":{"id":1}},
+                 {"name":"Тоже сохранится","description":"Описание","releaseDate":"2001-01-01","duration":95,"mpa":{"id":2}}]
+                """;
+
+        List<BatchItemResult> results = post("/films/batch", MediaType.APPLICATION_JSON, body);
+
+        assertEquals(List.of(201, 400, 404, 404, 400, 201), statuses(results));
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        for (BatchItemResult result : results) {
+            if (result.getStatus() == 201) {
+                assertNotNull(result.getId());
+                assertNull(result.getError());
+            } else {
+                assertNull(result.getId());
+                assertNotNull(result.getError());
+            }
+        }
+        Film saved = filmService.getFilmById(results.get(0).getId());
+        assertEquals("Сохранится", saved.getName());
+        assertEquals(1, saved.getGenres().size());
+        assertEquals("Тоже сохранится", filmService.getFilmById(results.get(5).getId()).getName());
+    }
+
+    @Test
+    void arrayAndNdjsonGiveSameResults() throws Exception {
+        String invalid = "{\"email\":\"не почта\",\"login\":\"bad\",\"birthday\":\"1990-01-01\"}";
+        List<String> arrayUsers = List.of(user(next()), invalid, user(next()));
+        List<String> ndjsonUsers = List.of(user(next()), invalid, user(next()));
+
+        List<BatchItemResult> array = post("/users/batch", MediaType.APPLICATION_JSON,
+                "[" + String.join(",\n", arrayUsers) + "]");
+        List<BatchItemResult> ndjson = post("/users/batch", MediaType.APPLICATION_NDJSON,
+                String.join("\n", ndjsonUsers) + "\n");
+
+        assertEquals(List.of(201, 400, 201), statuses(array));
+        assertEquals(statuses(array), statuses(ndjson));
+        assertEquals(array.get(1).getError(), ndjson.get(1).getError());
+    }
+
+    @Test
+    void malformedNdjsonStopsImportAfterSavingPreviousItems() throws Exception {
+        String body = user(next()) + "\n{\"email\": }\n" + user(next()) + "\n";
+
+        List<BatchItemResult> results = post("/users/batch", MediaType.APPLICATION_NDJSON, body);
+
+        assertEquals(List.of(201, 400), statuses(results));
+        assertTrue(results.get(1).getError().startsWith("Некорректный JSON"), results.get(1).getError());
+        assertNotNull(userService.getUserById(results.get(0).getId()));
+    }
+
+    @Test
+    void conflictingItemsAreRejectedAfterRetryOneByOne() throws Exception {
+        int existing = next();
+        userService.createUser(new User(email(existing), "existing" + existing, "Пользователь",
+                LocalDate.of(1990, 1, 1)));
+        int first = next();
+        int second = next();
+        String body = String.join("\n",
+                user(first),
+                "{\"email\":\"" + email(first) + "\",\"login\":\"other" + first + "\",\"birthday\":\"1990-01-01\"}",
+                user(existing),
+                user(second),
+                "{\"email\":\"" + email(second) + "\",\"login\":\"\",\"birthday\":\"1990-01-01\"}");
+
+        List<BatchItemResult> results = importService.importUsers(stream(body));
+
+        assertEquals(List.of(201, 409, 409, 201, 400), statuses(results));
+        assertNotNull(results.get(1).getError());
+        assertNotNull(results.get(2).getError());
+        assertEquals(email(first), userService.getUserById(results.get(0).getId()).getEmail());
+        assertEquals(email(second), userService.getUserById(results.get(3).getId()).getEmail());
+    }
+
+    @Test
+    void onlyChunkWithConflictIsRetried() throws Exception {
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            numbers.add(next());
+        }
+        // Второй элемент с тем же email попадает во вторую порцию из 500 элементов
+        numbers.set(550, numbers.get(520));
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < numbers.size(); i++) {
+            body.append("{\"email\":\"").append(email(numbers.get(i))).append("\",\"login\":\"chunk").append(i)
+                    .append('-').append(numbers.get(0)).append("\",\"birthday\":\"1990-01-01\"}\n");
+        }
+        StatementCounter statements = (StatementCounter) dataSource;
+
+        statements.reset();
+        List<BatchItemResult> results = importService.importUsers(stream(body.toString()));
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i == 550 ? 409 : 201, results.get(i).getStatus(), "Элемент " + i);
+            if (i != 550) {
+                ids.add(results.get(i).getId());
+            }
+        }
+        assertEquals(599, ids.size());
+        // Первая порция одним пакетом; вторая — отклонённый пакет и 100 вставок по одной
+        assertEquals(1 + 1 + 100, statements.executed().size());
+    }
+
+    private List<BatchItemResult> post(String path, MediaType contentType, String body) throws Exception {
+        String response = mockMvc.perform(post(path).contentType(contentType).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readValue(response, new TypeReference<>() {
+        });
+    }
+
+    private static List<Integer> statuses(List<BatchItemResult> results) {
+        return results.stream().map(BatchItemResult::getStatus).toList();
+    }
+
+    private static int next() {
+        return SEQUENCE.incrementAndGet();
+    }
+
+    private static String email(int number) {
+        return "import" + number + "@mail.ru";
+    }
+
+    private static String user(int number) {
+        return "{\"email\":\"" + email(number) + "\",\"login\":\"import" + number + "\",\"birthday\":\"1990-01-01\"}";
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
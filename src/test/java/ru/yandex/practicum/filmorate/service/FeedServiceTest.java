@@ -0,0 +1,136 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.event.FriendEvent;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.model.FeedEvent;
+import ru.yandex.practicum.filmorate.model.FeedPage;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.storage.dao.friends.FriendDao;
+import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
+import ru.yandex.practicum.filmorate.storage.index.ActivityLog;
+import ru.yandex.practicum.filmorate.storage.index.FriendActivityIndex;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FeedServiceTest {
+
+    private static final long USER = 1;
+    private static final Instant START = Instant.now().minus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MICROS);
+
+    private final ActivityLog activityLog = new ActivityLog();
+    private final FriendActivityIndex friendActivity = new FriendActivityIndex(2);
+    private final FriendDao friendDao = mock(FriendDao.class);
+    private final LikeDao likeDao = mock(LikeDao.class);
+    private final UserStorage userStorage = mock(UserStorage.class);
+    private final FeedService feedService = new FeedService(activityLog, friendActivity, friendDao, likeDao, userStorage);
+
+    /**
+     * Все лайки, записанные в «базу данных», в том числе вытесненные из журнала.
+     */
+    private final List<Like> storedLikes = new ArrayList<>();
+    private long seconds;
+
+    @BeforeEach
+    void setUp() {
+        when(userStorage.existsById(anyLong())).thenReturn(true);
+        when(friendDao.getFriendshipsBetween(anyCollection(), any(), any(), anyInt())).thenReturn(List.of());
+        when(likeDao.getLikesBetween(anyCollection(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            Collection<Long> userIds = invocation.getArgument(0);
+            Instant since = invocation.getArgument(1);
+            Instant before = invocation.getArgument(2);
+            int limit = invocation.getArgument(3);
+            return storedLikes.stream()
+                    .filter(like -> userIds.contains(like.getUserId()))
+                    .filter(like -> !like.getCreatedAt().isBefore(since) && like.getCreatedAt().isBefore(before))
+                    .sorted(Comparator.comparing(Like::getCreatedAt).reversed())
+                    .limit(limit)
+                    .toList();
+        });
+    }
+
+    @Test
+    void firstPagesUseActiveFriendsWithoutReadingFriendList() {
+        befriend(2, 3, 4);
+        like(2, 100);
+        like(3, 101);
+        like(4, 102);
+
+        FeedPage first = feedService.getFeed(USER, null, 10);
+
+        assertEquals(List.of(102L, 101L), entityIds(first));
+        verify(friendDao, never()).getFriends(anyLong());
+
+        when(friendDao.getFriends(USER)).thenReturn(List.of(2L, 3L, 4L));
+        FeedPage second = feedService.getFeed(USER, first.getNextCursor(), 10);
+
+        assertEquals(List.of(100L), entityIds(second));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void evictedHistoryIsReadFromDatabaseInsteadOfTruncatingFeed() {
+        befriend(2, 3);
+        like(3, 1);
+        int total = ActivityLog.EVENTS_PER_USER + 50;
+        for (int i = 0; i < total; i++) {
+            like(2, 1_000 + i);
+        }
+        like(3, 2);
+
+        List<Long> feed = new ArrayList<>();
+        Long cursor = null;
+        do {
+            FeedPage page = feedService.getFeed(USER, cursor, 100);
+            feed.addAll(entityIds(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(total + 2, feed.size());
+        assertEquals(2L, feed.get(0));
+        assertEquals(1_000L + total - 1, feed.get(1));
+        assertEquals(1_000L, feed.get(total));
+        assertEquals(1L, feed.get(total + 1));
+    }
+
+    private void befriend(long... friendIds) {
+        for (long friendId : friendIds) {
+            feedService.onFriend(new FriendEvent(USER, friendId, START, FriendEvent.Operation.ADDED));
+        }
+    }
+
+    private void like(long userId, long filmId) {
+        Instant likedAt = START.plusSeconds(++seconds);
+        Like like = new Like();
+        like.setUserId(userId);
+        like.setFilmId(filmId);
+        like.setCreatedAt(likedAt);
+        storedLikes.add(like);
+        feedService.onLike(new LikeEvent(userId, filmId, likedAt, LikeEvent.Operation.ADDED));
+    }
+
+    private static List<Long> entityIds(FeedPage page) {
+        return page.getEvents().stream()
+                .filter(event -> event.getEventType() == FeedEvent.EventType.LIKE)
+                .map(FeedEvent::getEntityId)
+                .toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,129 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.filmorate.exception.EntityNotFoundException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmPage;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет постраничный список фильмов, которым пользователь поставил лайк:
+ * переход по {@code after}/{@code nextAfter}, признак последней страницы, размер страницы
+ * и схлопывание повторяющихся строк лайков.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:liked-films-page;DB_CLOSE_DELAY=-1",
+        "filmorate.http-log.enabled=false"
+})
+class LikedFilmsPageTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private FilmDbService filmService;
+    @Autowired
+    private UserDbService userService;
+    @Autowired
+    private LikeDao likeDao;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+    private List<Long> likedIds;
+
+    @BeforeEach
+    void setUp() {
+        userId = user();
+        long otherUserId = user();
+        List<Long> filmIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            filmIds.add(film());
+        }
+        // Лайки ставятся не по порядку идентификаторов; шестой фильм лайкнул только другой пользователь
+        for (int index : new int[]{2, 0, 4, 1, 3}) {
+            filmService.addLike(userId, filmIds.get(index));
+        }
+        filmService.addLike(otherUserId, filmIds.get(5));
+        // Повторяющиеся строки лайков, оставшиеся от записей без проверки
+        jdbcTemplate.update("INSERT INTO likes (user_id, film_id) VALUES (?, ?), (?, ?), (?, ?)",
+                userId, filmIds.get(0), userId, filmIds.get(0), userId, filmIds.get(3));
+        likedIds = filmIds.subList(0, 5);
+    }
+
+    @Test
+    void pagesFollowNextAfterUntilLastPage() {
+        FilmPage first = filmService.getLikedFilms(userId, null, 2);
+        assertEquals(likedIds.subList(0, 2), ids(first));
+        assertEquals(likedIds.get(1), first.getNextAfter());
+
+        FilmPage second = filmService.getLikedFilms(userId, first.getNextAfter(), 2);
+        assertEquals(likedIds.subList(2, 4), ids(second));
+        assertEquals(likedIds.get(3), second.getNextAfter());
+
+        FilmPage last = filmService.getLikedFilms(userId, second.getNextAfter(), 2);
+        assertEquals(likedIds.subList(4, 5), ids(last));
+        assertNull(last.getNextAfter());
+    }
+
+    @Test
+    void fullLastPageIsFollowedByEmptyPage() {
+        FilmPage full = filmService.getLikedFilms(userId, null, 5);
+        assertEquals(likedIds, ids(full));
+        assertEquals(likedIds.get(4), full.getNextAfter());
+
+        FilmPage empty = filmService.getLikedFilms(userId, full.getNextAfter(), 5);
+        assertTrue(empty.getFilms().isEmpty());
+        assertNull(empty.getNextAfter());
+    }
+
+    @Test
+    void duplicateLikeRowsAppearOnce() {
+        assertEquals(likedIds, likeDao.getLikedFilmIds(userId, 0, 10));
+        assertEquals(likedIds.subList(1, 3), likeDao.getLikedFilmIds(userId, likedIds.get(0), 2));
+
+        FilmPage page = filmService.getLikedFilms(userId, null, 3);
+        assertEquals(likedIds.subList(0, 3), ids(page));
+    }
+
+    @Test
+    void pageSizeAndUserAreValidated() {
+        assertThrows(ValidationException.class, () -> filmService.getLikedFilms(userId, null, 0));
+        assertThrows(ValidationException.class,
+                () -> filmService.getLikedFilms(userId, null, FilmDbService.MAX_IDS + 1));
+        assertEquals(likedIds, ids(filmService.getLikedFilms(userId, null, FilmDbService.MAX_IDS)));
+        assertThrows(EntityNotFoundException.class, () -> filmService.getLikedFilms(Long.MAX_VALUE, null, 10));
+    }
+
+    private static List<Long> ids(FilmPage page) {
+        return page.getFilms().stream().map(Film::getId).toList();
+    }
+
+    private long user() {
+        int number = SEQUENCE.incrementAndGet();
+        return userService.createUser(new User("liked" + number + "@mail.ru", "liked" + number, "Пользователь",
+                LocalDate.of(1990, 1, 1))).getId();
+    }
+
+    private long film() {
+        Film film = new Film("Фильм", "Описание", LocalDate.of(2000, 1, 1), 120);
+        film.setMpa(new Mpa(1, null));
+        return filmService.addFilm(film).getId();
+    }
+}
\ No newline at end of file
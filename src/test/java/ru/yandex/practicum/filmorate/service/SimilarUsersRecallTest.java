@@ -0,0 +1,135 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.index.LikedFilmsIndex;
+import ru.yandex.practicum.filmorate.storage.index.SimilarUsersIndex;
+import ru.yandex.practicum.filmorate.storage.index.SimilarUsersProperties;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Сравнивает похожих пользователей из индекса MinHash с точным перебором на синтетических данных:
+ * группы пользователей с общими вкусами и пользователи с единственным лайком, которые собираются
+ * в огромные корзины. Для каждой настройки полос в журнал выводятся полнота и время запроса.
+ */
+@Slf4j
+class SimilarUsersRecallTest {
+
+    private static final int GROUPS = 25;
+    private static final int USERS_PER_GROUP = 80;
+    private static final int FILMS_PER_GROUP = 40;
+    private static final int SINGLE_LIKE_USERS = 500;
+    private static final int QUERIES = 100;
+    private static final int COUNT = 10;
+
+    private static final LikedFilmsIndex LIKED_FILMS = new LikedFilmsIndex();
+    private static final List<long[]> LIKES = new ArrayList<>();
+    private static final UserStorage USER_STORAGE = mock(UserStorage.class);
+
+    @BeforeAll
+    static void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        int films = GROUPS * FILMS_PER_GROUP;
+        for (int group = 0; group < GROUPS; group++) {
+            for (int i = 0; i < USERS_PER_GROUP; i++) {
+                long userId = (long) group * USERS_PER_GROUP + i;
+                for (int film = 0; film < FILMS_PER_GROUP; film++) {
+                    if (random.nextInt(40) < 34) {
+                        LIKES.add(new long[]{userId, (long) group * FILMS_PER_GROUP + film});
+                    }
+                }
+                LIKES.add(new long[]{userId, random.nextInt(films)});
+                LIKES.add(new long[]{userId, random.nextInt(films)});
+            }
+        }
+        for (int i = 0; i < SINGLE_LIKE_USERS; i++) {
+            LIKES.add(new long[]{(long) GROUPS * USERS_PER_GROUP + i, random.nextInt(films)});
+        }
+        LIKED_FILMS.rebuild(consumer -> LIKES.forEach(like -> consumer.accept(like[0], like[1])));
+
+        when(USER_STORAGE.existsById(anyLong())).thenReturn(true);
+        when(USER_STORAGE.getUsersByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(SimilarUsersRecallTest::user).toList();
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({"16, 4", "8, 4", "32, 4", "16, 2"})
+    void recallAgainstBruteForce(int bands, int rows) {
+        SimilarUsersProperties properties = new SimilarUsersProperties();
+        properties.setBands(bands);
+        properties.setRows(rows);
+
+        Result result = measure(properties);
+
+        log.info("Похожие пользователи: bands={}, rows={}, полнота {}, {} мкс на запрос",
+                bands, rows, String.format("%.3f", result.recall()), result.nanosPerQuery() / 1_000);
+        assertTrue(result.recall() >= 0.9, "Полнота " + result.recall());
+    }
+
+    /**
+     * Полнота — доля возвращённых пользователей, чьё точное сходство не ниже сходства {@code COUNT}-го
+     * пользователя точного перебора, — и среднее время запроса похожих пользователей.
+     */
+    private static Result measure(SimilarUsersProperties properties) {
+        SimilarUsersIndex index = new SimilarUsersIndex(properties.getBands(), properties.getRows(),
+                properties.getMaxBucketScan());
+        SimilarUsersService service = new SimilarUsersService(index, properties, LIKED_FILMS, USER_STORAGE);
+        service.rebuild();
+
+        long users = (long) GROUPS * USERS_PER_GROUP + SINGLE_LIKE_USERS;
+        int step = GROUPS * USERS_PER_GROUP / QUERIES;
+        int found = 0;
+        long nanos = 0;
+        for (int query = 0; query < QUERIES; query++) {
+            long userId = (long) query * step;
+            double[] exact = new double[(int) users];
+            for (long other = 0; other < users; other++) {
+                exact[(int) other] = other == userId ? 0 : jaccard(userId, other);
+            }
+            double[] sorted = exact.clone();
+            Arrays.sort(sorted);
+            double threshold = sorted[sorted.length - COUNT];
+            long start = System.nanoTime();
+            List<User> similarUsers = service.getSimilarUsers(userId, COUNT);
+            nanos += System.nanoTime() - start;
+            for (User similar : similarUsers) {
+                if (exact[similar.getId().intValue()] >= threshold) {
+                    found++;
+                }
+            }
+        }
+        return new Result((double) found / (QUERIES * COUNT), nanos / QUERIES);
+    }
+
+    private static double jaccard(long first, long second) {
+        int common = LIKED_FILMS.commonCount(first, second);
+        int union = LIKED_FILMS.likedCount(first) + LIKED_FILMS.likedCount(second) - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private record Result(double recall, long nanosPerQuery) {
+    }
+}
\ No newline at end of file
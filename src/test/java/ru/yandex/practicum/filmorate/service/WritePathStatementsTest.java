@@ -0,0 +1,177 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import ru.yandex.practicum.filmorate.model.BatchItemResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.support.StatementCounter;
+import ru.yandex.practicum.filmorate.support.StatementCounterConfig;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Фиксирует количество обращений к базе данных на путях записи фильмов, пользователей и лайков.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-paths;DB_CLOSE_DELAY=-1",
+        "filmorate.http-log.enabled=false"
+})
+@Import(StatementCounterConfig.class)
+class WritePathStatementsTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private FilmDbService filmService;
+    @Autowired
+    private UserDbService userService;
+    @Autowired
+    private BatchImportService importService;
+    @Autowired
+    private DataSource dataSource;
+
+    private StatementCounter statements;
+
+    @BeforeEach
+    void setUp() {
+        statements = (StatementCounter) dataSource;
+    }
+
+    @Test
+    void createUserIsSingleInsert() {
+        statements.reset();
+        User user = userService.createUser(user());
+
+        assertNotNull(user.getId());
+        assertStatements(1);
+    }
+
+    @Test
+    void updateUserIsSingleUpdate() {
+        User user = userService.createUser(user());
+        user.setName("Новое имя");
+
+        statements.reset();
+        userService.updateUser(user);
+
+        assertStatements(1);
+    }
+
+    @Test
+    void addFilmWithoutGenresIsSingleInsert() {
+        statements.reset();
+        Film film = filmService.addFilm(film());
+
+        assertNotNull(film.getId());
+        assertStatements(1);
+    }
+
+    @Test
+    void addFilmWritesGenresInOneBatch() {
+        statements.reset();
+        filmService.addFilm(film(1, 2, 3));
+
+        assertStatements(2);
+    }
+
+    @Test
+    void updateFilmWithGenresReplacesThemWithoutReadingTheFilm() {
+        Film film = filmService.addFilm(film(1));
+        Film update = film(2, 3);
+        update.setId(film.getId());
+
+        statements.reset();
+        filmService.updateFilm(update);
+
+        // UPDATE фильма, удаление старых жанров и пакетная вставка новых
+        assertStatements(3);
+    }
+
+    @Test
+    void importFilmsWritesChunkInTwoBatches() throws Exception {
+        String body = """
+                [{"name":"Первый","description":"Описание","releaseDate":"2000-01-01","duration":90,"mpa":{"id":1},"genres":[{"id":1}]},
+                 {"name":"Второй","description":"Описание","releaseDate":"2001-01-01","duration":95,"mpa":{"id":2},"genres":[{"id":2},{"id":3}]},
+                 {"name":"Третий","description":"Описание","releaseDate":"2002-01-01","duration":100,"mpa":{"id":3}}]
+                """;
+
+        statements.reset();
+        List<BatchItemResult> results = importService.importFilms(stream(body));
+
+        results.forEach(result -> assertEquals(201, result.getStatus()));
+        // Пакет фильмов и пакет жанров
+        assertStatements(2);
+    }
+
+    @Test
+    void importUsersWritesChunkInOneBatch() throws Exception {
+        int first = SEQUENCE.incrementAndGet();
+        int second = SEQUENCE.incrementAndGet();
+        String body = String.format("""
+                {"email":"batch%1$d@mail.ru","login":"batch%1$d","birthday":"1990-01-01"}
+                {"email":"batch%2$d@mail.ru","login":"batch%2$d","birthday":"1991-01-01"}
+                """, first, second);
+
+        statements.reset();
+        List<BatchItemResult> results = importService.importUsers(stream(body));
+
+        results.forEach(result -> assertEquals(201, result.getStatus()));
+        assertStatements(1);
+    }
+
+    @Test
+    void addLikeIsSingleInsert() {
+        Film film = filmService.addFilm(film(1));
+        User user = userService.createUser(user());
+
+        statements.reset();
+        filmService.addLike(user.getId(), film.getId());
+
+        // Существование фильма и пользователя подтверждается фильтром идентификаторов без запросов
+        assertStatements(1);
+    }
+
+    private void assertStatements(int expected) {
+        List<String> executed = statements.executed();
+        assertEquals(expected, executed.size(), () -> "Выполненные операторы: " + executed);
+    }
+
+    private static User user() {
+        int number = SEQUENCE.incrementAndGet();
+        return new User("user" + number + "@mail.ru", "user" + number, "Пользователь", LocalDate.of(1990, 1, 1));
+    }
+
+    private static Film film(int... genreIds) {
+        Film film = new Film("Фильм", "Описание", LocalDate.of(2000, 1, 1), 120);
+        film.setMpa(new Mpa(1, null));
+        if (genreIds.length > 0) {
+            HashSet<Genre> genres = new HashSet<>();
+            for (int genreId : genreIds) {
+                Genre genre = new Genre();
+                genre.setId(genreId);
+                genres.add(genre);
+            }
+            film.setGenres(genres);
+        }
+        return film;
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package ru.yandex.practicum.filmorate.storage.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    @ParameterizedTest
+    @CsvSource({"4, 3", "4, 1000", "12, 50", "12, 100000", "16, 100", "16, 100000"})
+    void roundTripKeepsRegisters(int precision, int values) {
+        HyperLogLog sketch = sketch(precision, 0, values);
+
+        byte[] bytes = sketch.toBytes();
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+        assertEquals(precision, restored.getPrecision());
+        assertEquals(sketch.estimate(), restored.estimate());
+        assertArrayEquals(bytes, restored.toBytes());
+    }
+
+    @Test
+    void sparseSketchIsSmallerThanDense() {
+        HyperLogLog sparse = sketch(16, 0, 100);
+        HyperLogLog dense = sketch(16, 0, 100_000);
+
+        assertTrue(sparse.toBytes().length < 1_000);
+        assertEquals(2 + (1 << 16) * 6 / 8, dense.toBytes().length);
+    }
+
+    @Test
+    void corruptedBytesAreRejected() {
+        byte[] bytes = sketch(12, 0, 100_000).toBytes();
+
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{12}));
+        assertThrows(IllegalArgumentException.class,
+                () -> HyperLogLog.fromBytes(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"12, 60000, 100000", "12, 10, 100000", "14, 50, 80"})
+    void mergeEstimatesUnion(int precision, int split, int total) {
+        HyperLogLog first = sketch(precision, 0, split + total / 4);
+        HyperLogLog second = sketch(precision, split, total);
+        HyperLogLog union = sketch(precision, 0, total);
+
+        first.merge(second);
+
+        assertEquals(union.estimate(), first.estimate());
+    }
+
+    @Test
+    void mergeRejectsOtherPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(12).merge(new HyperLogLog(14)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 100_000, 1_000_000})
+    void estimateIsWithinErrorBound(int values) {
+        int precision = 12;
+        long estimate = sketch(precision, 0, values).estimate();
+
+        double error = Math.abs(estimate - values) / (double) values;
+        assertTrue(error <= 3 * HyperLogLog.relativeError(precision),
+                "Оценка " + estimate + " для " + values + " значений");
+    }
+
+    /**
+     * Скетч значений из полуинтервала {@code [from, to)}.
+     */
+    private static HyperLogLog sketch(int precision, long from, long to) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (long value = from; value < to; value++) {
+            sketch.add(value);
+        }
+        return sketch;
+    }
+}
\ No newline at end of file
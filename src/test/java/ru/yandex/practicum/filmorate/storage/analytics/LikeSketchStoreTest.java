@@ -0,0 +1,83 @@
+package ru.yandex.practicum.filmorate.storage.analytics;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.storage.analytics.LikeSketchStore.Dimension;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LikeSketchStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+    private static final int DENSE_BYTES = 1 << 12;
+    private static final int COMPACTED_BYTES = 2 + DENSE_BYTES * 6 / 8;
+
+    private final LikeSketchStore store = new LikeSketchStore(12, 3);
+
+    @Test
+    void rollCompactsPastDaysAndKeepsEstimates() {
+        recordUsers(DAY, 0, 10_000);
+        long estimate = store.uniqueUsers(Dimension.FILM, 1, DAY, DAY);
+        assertEquals(DENSE_BYTES, store.memoryBytes());
+
+        store.roll(DAY.plusDays(1));
+
+        assertEquals(COMPACTED_BYTES, store.memoryBytes());
+        assertEquals(estimate, store.uniqueUsers(Dimension.FILM, 1, DAY, DAY));
+    }
+
+    @Test
+    void rollKeepsCurrentDayLive() {
+        recordUsers(DAY, 0, 10_000);
+
+        store.roll(DAY);
+
+        assertEquals(DENSE_BYTES, store.memoryBytes());
+    }
+
+    @Test
+    void rollDropsDaysOutsideRetention() {
+        recordUsers(DAY, 0, 10);
+        recordUsers(DAY.plusDays(1), 10, 20);
+
+        store.roll(DAY.plusDays(3));
+
+        assertEquals(0, store.uniqueUsers(Dimension.FILM, 1, DAY, DAY));
+        assertEquals(10, store.uniqueUsers(Dimension.FILM, 1, DAY.plusDays(1), DAY.plusDays(1)));
+
+        store.record(Dimension.FILM, 1, DAY, 100);
+        assertEquals(0, store.uniqueUsers(Dimension.FILM, 1, DAY, DAY));
+    }
+
+    @Test
+    void addRevivesCompactedDay() {
+        recordUsers(DAY, 0, 10_000);
+        store.roll(DAY.plusDays(1));
+        long estimate = store.uniqueUsers(Dimension.FILM, 1, DAY, DAY);
+
+        recordUsers(DAY, 10_000, 20_000);
+
+        assertEquals(DENSE_BYTES, store.memoryBytes());
+        long revived = store.uniqueUsers(Dimension.FILM, 1, DAY, DAY);
+        assertEquals(20_000, revived, 20_000 * 3 * store.relativeError());
+        assertTrue(revived > estimate);
+    }
+
+    @Test
+    void periodEstimateMergesDays() {
+        recordUsers(DAY, 0, 30);
+        recordUsers(DAY.plusDays(1), 20, 50);
+        store.roll(DAY.plusDays(2));
+
+        assertEquals(50, store.uniqueUsers(Dimension.FILM, 1, DAY, DAY.plusDays(1)));
+        assertEquals(0, store.uniqueUsers(Dimension.GENRE, 1, DAY, DAY.plusDays(1)));
+    }
+
+    private void recordUsers(LocalDate day, long from, long to) {
+        for (long userId = from; userId < to; userId++) {
+            store.record(Dimension.FILM, 1, day, userId);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверяет заполнение маски жанров по {@code film_genre} при запуске {@code schema.sql}
+ * на базе, созданной до появления маски.
+ */
+class GenreMaskBackfillTest {
+
+    private final EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScripts("schema.sql", "data.sql")
+            .build();
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+
+    @AfterEach
+    void shutdown() {
+        database.shutdown();
+    }
+
+    @Test
+    void duplicateGenreRowsAreCountedOnce() {
+        jdbcTemplate.update("INSERT INTO film (film_id, name, duration, mpa_id) VALUES (1, 'Фильм', 100, 1)");
+        jdbcTemplate.update("INSERT INTO film (film_id, name, duration, mpa_id) VALUES (2, 'Без жанров', 100, 1)");
+        jdbcTemplate.update("INSERT INTO film_genre (film_id, genre_id) VALUES (1, 1), (1, 1), (1, 3), (1, 3), (1, 3)");
+
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(database);
+
+        assertEquals(0b101L, mask(1));
+        assertEquals(0L, mask(2));
+    }
+
+    private long mask(long filmId) {
+        return jdbcTemplate.queryForObject("SELECT genre_mask FROM film WHERE film_id = ?", Long.class, filmId);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Genre;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GenreMaskTest {
+
+    @Test
+    void maskCoversGenreIdsUpToLimit() {
+        assertEquals(1L | Long.MIN_VALUE, GenreMask.of(List.of(genre(1), genre(GenreMask.MAX_GENRE_ID))));
+    }
+
+    @Test
+    void genreOutsideMaskIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> GenreMask.of(List.of(genre(1), genre(GenreMask.MAX_GENRE_ID + 1))));
+    }
+
+    @Test
+    void masksIntersectWhenTheyShareAGenre() {
+        long comedyAndDrama = GenreMask.of(List.of(genre(1), genre(2)));
+
+        assertTrue(GenreMask.intersects(comedyAndDrama, GenreMask.bit(2)));
+        assertFalse(GenreMask.intersects(comedyAndDrama,
+                GenreMask.of(List.of(genre(3), genre(GenreMask.MAX_GENRE_ID)))));
+        assertFalse(GenreMask.intersects(comedyAndDrama, 0));
+    }
+
+    private static Genre genre(int id) {
+        Genre genre = new Genre();
+        genre.setId(id);
+        return genre;
+    }
+}
\ No newline at end of file
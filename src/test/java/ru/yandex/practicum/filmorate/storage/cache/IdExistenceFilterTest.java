@@ -0,0 +1,54 @@
+package ru.yandex.practicum.filmorate.storage.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdExistenceFilterTest {
+
+    private final IdExistenceFilter filter = new IdExistenceFilter();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void addOutsideTransactionIsVisibleImmediately() {
+        filter.add(42);
+
+        assertTrue(filter.contains(42));
+        assertFalse(filter.contains(43));
+    }
+
+    @Test
+    void addInsideTransactionIsVisibleAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        filter.addAll(List.of(7L, 100_000L));
+
+        assertFalse(filter.contains(7));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertTrue(filter.contains(7));
+        assertTrue(filter.contains(100_000));
+    }
+
+    @Test
+    void addInsideRolledBackTransactionIsDiscarded() {
+        TransactionSynchronizationManager.initSynchronization();
+        filter.add(7);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertFalse(filter.contains(7));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+package ru.yandex.practicum.filmorate.storage.films;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+class ColumnarFilmStorageTest {
+
+    private static final int FILMS = 1_000_000;
+    private static final int BATCH = 10_000;
+
+    /**
+     * Собственная оценка памяти колонок на 1 млн фильмов; сравнение с объектами {@link Film}
+     * по занятой куче — в {@link #heapComparedWithInMemoryStorage(int)}.
+     */
+    @Test
+    void columnarLayoutKeepsMillionFilmsCompact() {
+        ColumnarFilmStorage storage = columnar(FILMS);
+
+        long bytesPerFilm = storage.memoryBytes() / FILMS;
+        // 37 байт колонок + ~45 байт строк + резерв роста массивов
+        assertTrue(bytesPerFilm < 110, "байт на фильм: " + bytesPerFilm);
+    }
+
+    /**
+     * Сравнивает кучу, занятую колоночным хранилищем и {@link InMemoryFilmStorage} с теми же фильмами:
+     * оба замеряются одинаково — по занятой куче после сборки мусора до и после заполнения.
+     */
+    @Tag("benchmark")
+    @ParameterizedTest
+    @ValueSource(ints = {1_000_000, 10_000_000})
+    void heapComparedWithInMemoryStorage(int films) {
+        long columnar = retainedHeap(() -> columnar(films));
+        long objects = retainedHeap(() -> inMemory(films));
+
+        log.info("{} фильмов: колонки {} МБ ({} байт на фильм), объекты Film {} МБ ({} байт на фильм)",
+                films, columnar >> 20, columnar / films, objects >> 20, objects / films);
+        assertTrue(columnar * 2 < objects, "колонки " + columnar + " байт, объекты " + objects + " байт");
+    }
+
+    @Test
+    void mirrorLoadsFromDatabaseAndFollowsLikes() {
+        InMemoryFilmStorage database = new InMemoryFilmStorage();
+        database.addFilm(film("First", "First film"));
+        database.addFilm(film("Second", "Second film"));
+        LikeDao likeDao = mock(LikeDao.class);
+        when(likeDao.getLikeCounts()).thenReturn(Map.of(2L, 5));
+        when(likeDao.getLikeCounts(anyCollection())).thenReturn(Map.of());
+        ColumnarFilmStorage storage = new ColumnarFilmStorage(mock(ReferenceDataCache.class), database, likeDao);
+
+        assertEquals(2, storage.getFilms().size());
+        assertEquals(5, storage.getLikes(2));
+
+        storage.onLike(new LikeEvent(1, 2, Instant.now(), LikeEvent.Operation.ADDED));
+        storage.onLike(new LikeEvent(1, 1, Instant.now(), LikeEvent.Operation.ADDED));
+        assertEquals(6, storage.getLikes(2));
+        assertEquals(1, storage.getLikes(1));
+
+        // Фильмы, записанные в базу в обход колонок, читаются из базы
+        database.addFilm(film("Third", "Written by another node"));
+        database.addFilm(film("Fourth", "Written by another node"));
+        assertEquals("Fourth", storage.getFilmById(4L).getName());
+        assertTrue(storage.existsById(3L));
+        assertEquals(List.of(3L, 1L), storage.getFilmsByIds(List.of(3L, 1L)).stream().map(Film::getId).toList());
+        assertEquals(4, storage.getFilms().size());
+    }
+
+    @Test
+    void writesGoToDatabaseFirst() {
+        InMemoryFilmStorage database = new InMemoryFilmStorage();
+        LikeDao likeDao = mock(LikeDao.class);
+        when(likeDao.getLikeCounts()).thenReturn(Map.of());
+        ColumnarFilmStorage storage = new ColumnarFilmStorage(mock(ReferenceDataCache.class), database, likeDao);
+
+        Film added = storage.addFilm(film("Added", "Through columns"));
+        added.setName("Renamed");
+        storage.updateFilm(added);
+
+        assertEquals("Renamed", database.getFilmById(added.getId()).getName());
+        assertEquals("Renamed", storage.getFilmById(added.getId()).getName());
+    }
+
+    private static ColumnarFilmStorage columnar(int films) {
+        ColumnarFilmStorage storage = new ColumnarFilmStorage(mock(ReferenceDataCache.class));
+        for (int start = 0; start < films; start += BATCH) {
+            List<Film> batch = new ArrayList<>(BATCH);
+            for (int i = start; i < start + BATCH; i++) {
+                batch.add(catalogFilm(i));
+            }
+            storage.addFilms(batch);
+        }
+        return storage;
+    }
+
+    private static InMemoryFilmStorage inMemory(int films) {
+        InMemoryFilmStorage storage = new InMemoryFilmStorage();
+        for (int i = 0; i < films; i++) {
+            storage.addFilm(catalogFilm(i));
+        }
+        return storage;
+    }
+
+    /**
+     * Фильм каталога в том виде, в котором его хранит {@link InMemoryFilmStorage}: свои строки,
+     * дата, рейтинг и изменяемый набор жанров.
+     */
+    private static Film catalogFilm(int i) {
+        Film film = film("Film " + i, "Description of film number " + i);
+        Genre genre = new Genre();
+        genre.setId(i % 6 + 1);
+        film.setGenres(new HashSet<>(Set.of(genre)));
+        return film;
+    }
+
+    /**
+     * Куча, занятая результатом построения, по разнице занятой кучи после сборки мусора.
+     */
+    private static long retainedHeap(Supplier<Object> build) {
+        long before = usedHeapAfterGc();
+        Object built = build.get();
+        long after = usedHeapAfterGc();
+        Reference.reachabilityFence(built);
+        return after - before;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        // Несколько проходов, пока занятая куча перестанет уменьшаться
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            long current = memory.getHeapMemoryUsage().getUsed();
+            if (current >= used) {
+                break;
+            }
+            used = current;
+        }
+        return used;
+    }
+
+    private static Film film(String name, String description) {
+        Film film = new Film(name, description, LocalDate.of(2000, 1, 1), 100);
+        film.setMpa(new Mpa(1, "G"));
+        return film;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.FeedEvent;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActivityLogTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void eventIdsAreDerivedFromTimeAndSurviveRebuild() {
+        ActivityLog log = new ActivityLog();
+        FeedEvent first = log.append(1, FeedEvent.EventType.LIKE, 10, START);
+        FeedEvent sameTime = log.append(2, FeedEvent.EventType.LIKE, 10, START);
+
+        assertEquals(ChronoUnit.MICROS.between(Instant.EPOCH, START), first.getEventId());
+        assertEquals(first.getEventId() + 1, sameTime.getEventId());
+
+        log.clear();
+        assertEquals(first.getEventId(), log.append(1, FeedEvent.EventType.LIKE, 10, START).getEventId());
+    }
+
+    @Test
+    void horizonIsReportedOnlyAfterEviction() {
+        ActivityLog log = new ActivityLog();
+        for (int i = 0; i < ActivityLog.EVENTS_PER_USER; i++) {
+            log.append(1, FeedEvent.EventType.LIKE, i, START.plusSeconds(i));
+        }
+        assertEquals(0, log.horizon(1));
+
+        log.append(1, FeedEvent.EventType.LIKE, -1, START.plusSeconds(ActivityLog.EVENTS_PER_USER));
+        List<FeedEvent> all = log.eventsBefore(1, Long.MAX_VALUE, ActivityLog.EVENTS_PER_USER);
+
+        assertEquals(all.get(all.size() - 1).getEventId(), log.horizon(1));
+        assertTrue(log.horizon(1) > ChronoUnit.MICROS.between(Instant.EPOCH, START));
+    }
+
+    @Test
+    void lastEventIdBeforeRespectsCursor() {
+        ActivityLog log = new ActivityLog();
+        FeedEvent older = log.append(1, FeedEvent.EventType.LIKE, 1, START);
+        FeedEvent newer = log.append(1, FeedEvent.EventType.LIKE, 2, START.plusSeconds(1));
+
+        assertEquals(newer.getEventId(), log.lastEventIdBefore(1, Long.MAX_VALUE));
+        assertEquals(older.getEventId(), log.lastEventIdBefore(1, newer.getEventId()));
+        assertEquals(0, log.lastEventIdBefore(1, older.getEventId()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.filmorate.storage.dao.like.LikeDao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Сравнивает пересечение лайков двух пользователей с десятками тысяч лайков в памяти
+ * с одним SQL-запросом по покрывающему индексу {@code likes (user_id, film_id)}: результаты
+ * должны совпадать, а время обоих способов выводится в журнал для сравнения.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:common-films-sql;DB_CLOSE_DELAY=-1",
+        "filmorate.http-log.enabled=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class CommonFilmsSqlComparisonTest {
+
+    private static final int FILMS = 40_000;
+    private static final String COMMON_SQL = "SELECT a.film_id FROM likes a "
+            + "JOIN likes b ON b.user_id = ? AND b.film_id = a.film_id "
+            + "WHERE a.user_id = ? ORDER BY a.film_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private LikeDao likeDao;
+
+    private final LikedFilmsIndex index = new LikedFilmsIndex();
+    private long first;
+    private long second;
+
+    @BeforeAll
+    void setUp() {
+        long firstFilm = insertFilms();
+        first = insertUser("heavy-first");
+        second = insertUser("heavy-second");
+        List<Object[]> likes = new ArrayList<>();
+        for (int i = 0; i < FILMS; i++) {
+            // Первый пользователь лайкает каждый второй фильм, второй — каждый третий
+            if (i % 2 == 0) {
+                likes.add(new Object[]{firstFilm + i, first});
+            }
+            if (i % 3 == 0) {
+                likes.add(new Object[]{firstFilm + i, second});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO likes (film_id, user_id) VALUES (?, ?)", likes);
+        index.rebuild(likeDao::forEachLike);
+    }
+
+    @Test
+    void inMemoryIntersectionMatchesSql() {
+        long[] sql = sqlCommon();
+        long[] memory = index.common(first, second);
+        assertArrayEquals(sql, memory);
+
+        long sqlNanos = best(this::sqlCommon);
+        long memoryNanos = best(() -> index.common(first, second));
+        log.info("Общие фильмы ({}): SQL {} мкс, в памяти {} мкс",
+                memory.length, sqlNanos / 1_000, memoryNanos / 1_000);
+    }
+
+    private long[] sqlCommon() {
+        return jdbcTemplate.queryForList(COMMON_SQL, Long.class, second, first).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    /**
+     * Лучшее время из нескольких прогонов после разогрева.
+     */
+    private static long best(Supplier<long[]> query) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 30; i++) {
+            long start = System.nanoTime();
+            query.get();
+            long elapsed = System.nanoTime() - start;
+            if (i >= 10) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        return best;
+    }
+
+    private long insertFilms() {
+        List<Object[]> films = new ArrayList<>(FILMS);
+        for (int i = 0; i < FILMS; i++) {
+            films.add(new Object[]{"Фильм " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO film (name, duration, mpa_id) VALUES (?, 100, 1)", films);
+        return jdbcTemplate.queryForObject("SELECT MAX(film_id) FROM film", Long.class) - FILMS + 1;
+    }
+
+    private long insertUser(String login) {
+        jdbcTemplate.update("INSERT INTO users (email, login, name, birthday) VALUES (?, ?, ?, DATE '1990-01-01')",
+                login + "@mail.ru", login, login);
+        return jdbcTemplate.queryForObject("SELECT user_id FROM users WHERE login = ?", Long.class, login);
+    }
+}
\ No newline at end of file
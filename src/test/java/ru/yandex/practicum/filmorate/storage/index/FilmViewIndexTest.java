@@ -0,0 +1,85 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.storage.cache.GenreMask;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class FilmViewIndexTest {
+
+    @Test
+    void callerChangesDoNotLeakIntoView() {
+        FilmViewIndex index = new FilmViewIndex();
+        Film film = film(1L, "Original");
+        index.put(film, 3);
+
+        film.setName("Changed by writer");
+        film.setGenres(new LinkedHashSet<>());
+
+        Film read = index.get(1L);
+        assertEquals("Original", read.getName());
+        assertEquals(1, read.getGenres().size());
+
+        read.setName("Changed by reader");
+        read.setGenres(new LinkedHashSet<>());
+        index.all().get(0).setName("Changed by list reader");
+        index.top(1).get(0).setGenres(null);
+
+        Film again = index.get(1L);
+        assertNotSame(read, again);
+        assertEquals("Original", again.getName());
+        assertEquals(1, again.getGenres().size());
+        assertEquals(3, index.view(1L).likes());
+    }
+
+    @Test
+    void filmsSharingGenresAreRankedBySharedGenresThenLikes() {
+        FilmViewIndex index = new FilmViewIndex();
+        index.put(film(1L, 1, 2, 3), 0);
+        index.put(film(2L, 1), 50);
+        index.put(film(3L, 1, 2), 1);
+        index.put(film(4L, 2, 3), 5);
+        index.put(film(5L, 4), 100);
+        index.put(film(6L, 3), 50);
+
+        List<Long> ids = index.sharingGenres(GenreMask.of(index.get(1L).getGenres()), 1L, 10).stream()
+                .map(Film::getId)
+                .toList();
+
+        assertEquals(List.of(4L, 3L, 2L, 6L), ids);
+        assertEquals(List.of(4L, 3L),
+                index.sharingGenres(GenreMask.bit(2), 1L, 2).stream().map(Film::getId).toList());
+        assertEquals(List.of(), index.sharingGenres(0, 1L, 10));
+    }
+
+    private static Film film(long id, int... genreIds) {
+        Film film = film(id, "Film " + id);
+        LinkedHashSet<Genre> genres = new LinkedHashSet<>();
+        for (int genreId : genreIds) {
+            Genre genre = new Genre();
+            genre.setId(genreId);
+            genres.add(genre);
+        }
+        film.setGenres(genres);
+        return film;
+    }
+
+    private static Film film(long id, String name) {
+        Film film = new Film(name, "Description", LocalDate.of(2000, 1, 1), 100);
+        film.setId(id);
+        film.setMpa(new Mpa(1, "G"));
+        Genre genre = new Genre();
+        genre.setId(1);
+        genre.setName("Комедия");
+        film.setGenres(new LinkedHashSet<>(List.of(genre)));
+        return film;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FriendActivityIndexTest {
+
+    @Test
+    void keepsFriendsWithFreshestEventsAndRaisesFloor() {
+        FriendActivityIndex index = new FriendActivityIndex(2);
+        index.follow(1, 2, 0);
+        index.follow(1, 3, 0);
+        index.follow(1, 4, 0);
+
+        index.touch(2, 10);
+        index.touch(3, 20);
+        index.touch(4, 30);
+
+        FriendActivityIndex.ActiveFriends active = index.activeFriends(1);
+        assertEquals(Set.of(3L, 4L), new HashSet<>(active.friendIds()));
+        assertEquals(10, active.floor());
+
+        index.touch(2, 40);
+        active = index.activeFriends(1);
+        assertEquals(Set.of(2L, 4L), new HashSet<>(active.friendIds()));
+        assertEquals(20, active.floor());
+    }
+
+    @Test
+    void followUsesLastEventAndUnfollowRemovesFriend() {
+        FriendActivityIndex index = new FriendActivityIndex(2);
+        index.follow(1, 2, 15);
+        assertEquals(List.of(2L), index.activeFriends(1).friendIds());
+
+        index.unfollow(1, 2);
+        index.touch(2, 25);
+
+        assertEquals(List.of(), index.activeFriends(1).friendIds());
+    }
+
+    @Test
+    void eventsReachOnlyFollowers() {
+        FriendActivityIndex index = new FriendActivityIndex(2);
+        index.follow(1, 2, 0);
+
+        index.touch(3, 10);
+        index.touch(2, 20);
+
+        assertEquals(List.of(2L), index.activeFriends(1).friendIds());
+        assertEquals(List.of(), index.activeFriends(2).friendIds());
+    }
+}
\ No newline at end of file
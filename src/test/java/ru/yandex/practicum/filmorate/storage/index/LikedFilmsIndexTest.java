@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LikedFilmsIndexTest {
+
+    private final LikedFilmsIndex index = new LikedFilmsIndex();
+
+    @Test
+    void rebuildSortsAndDeduplicates() {
+        index.rebuild(source(new long[][]{{1, 5}, {1, 3}, {1, 5}, {2, 3}}));
+
+        assertArrayEquals(new long[]{3, 5}, index.likedFilms(1));
+        assertEquals(2, index.likedCount(1));
+        assertEquals(1, index.likedCount(2));
+    }
+
+    @Test
+    void commonUsesMergeAndSearch() {
+        for (long filmId = 1; filmId <= 10_000; filmId++) {
+            index.add(1, filmId);
+            if (filmId % 2 == 0) {
+                index.add(2, filmId);
+            }
+        }
+        index.add(3, 4);
+        index.add(3, 7);
+        index.add(3, 20_000);
+
+        assertEquals(5_000, index.common(1, 2).length);
+        assertEquals(5_000, index.commonCount(2, 1));
+        assertArrayEquals(new long[]{4, 7}, index.common(3, 1));
+        assertEquals(1, index.commonCount(2, 3));
+        assertEquals(0, index.commonCount(1, 42));
+    }
+
+    @Test
+    void publishedArraysAreNotChangedByLaterLikes() {
+        index.add(1, 2);
+        index.add(1, 4);
+        List<long[]> published = new ArrayList<>();
+        index.forEachUser((userId, films) -> published.add(films));
+
+        index.add(1, 3);
+        index.remove(1, 2);
+
+        assertArrayEquals(new long[]{2, 4}, published.get(0));
+        assertArrayEquals(new long[]{3, 4}, index.likedFilms(1));
+    }
+
+    private static Consumer<BiConsumer<Long, Long>> source(long[][] likes) {
+        return consumer -> {
+            for (long[] like : likes) {
+                consumer.accept(like[0], like[1]);
+            }
+        };
+    }
+}
\ No newline at end of file
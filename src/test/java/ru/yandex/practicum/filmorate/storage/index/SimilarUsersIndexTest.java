@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.storage.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimilarUsersIndexTest {
+
+    @Test
+    void usersWithSameLikesAreCandidates() {
+        SimilarUsersIndex index = new SimilarUsersIndex(16, 4, 500);
+        index.replace(1, new long[]{1, 2, 3});
+        index.replace(2, new long[]{1, 2, 3});
+        index.replace(3, new long[]{7, 8, 9});
+
+        assertEquals(Set.of(2L), index.candidates(1, 10));
+    }
+
+    @Test
+    void removedUserIsNotCandidate() {
+        SimilarUsersIndex index = new SimilarUsersIndex(16, 4, 500);
+        index.add(1, 5);
+        index.add(2, 5);
+        index.replace(2, new long[0]);
+
+        assertTrue(index.candidates(1, 10).isEmpty());
+    }
+
+    @Test
+    void oversizedBucketsAreScannedUpToLimit() {
+        SimilarUsersIndex index = new SimilarUsersIndex(4, 4, 100);
+        for (long userId = 0; userId < 5_000; userId++) {
+            index.add(userId, 1);
+        }
+
+        Set<Long> candidates = index.candidates(0, 10_000);
+
+        assertFalse(candidates.isEmpty());
+        assertTrue(candidates.size() <= 4 * 100);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package ru.yandex.practicum.filmorate.storage.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.storage.films.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.index.FilmViewIndex;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final ReferenceDataCache referenceData = CatalogSnapshotTest.referenceData("Комедия");
+    private final FilmViewIndex filmViewIndex = new FilmViewIndex();
+    private final FilmStorage filmStorage = mock(FilmStorage.class);
+
+    @Test
+    void savedSnapshotIsLoaded() throws IOException {
+        filmViewIndex.replaceAllViews(CatalogSnapshotTest.views(referenceData, 100));
+        when(filmStorage.existsById(anyLong())).thenReturn(true);
+        CatalogSnapshotStore store = store(true);
+
+        store.save();
+        CatalogSnapshot.Contents contents = store.load();
+
+        Map<Long, FilmViewIndex.View> loaded = new HashMap<>();
+        contents.views().forEach(view -> loaded.put(view.film().getId(), view));
+        assertEquals(filmViewIndex.snapshot(), loaded);
+        assertEquals(100, contents.maxFilmId());
+    }
+
+    @Test
+    void snapshotOfOtherDatabaseIsNotLoaded() throws IOException {
+        filmViewIndex.replaceAllViews(CatalogSnapshotTest.views(referenceData, 10));
+        when(filmStorage.existsById(10L)).thenReturn(false);
+        CatalogSnapshotStore store = store(true);
+
+        store.save();
+
+        assertNull(store.load());
+    }
+
+    @Test
+    void corruptedSnapshotIsNotLoaded() throws IOException {
+        CatalogSnapshotStore store = store(true);
+        Files.write(directory.resolve("catalog.snapshot"), new byte[100]);
+
+        assertNull(store.load());
+    }
+
+    @Test
+    void nothingIsLoadedWhenDisabledOrMissing() throws IOException {
+        filmViewIndex.replaceAllViews(CatalogSnapshotTest.views(referenceData, 10));
+        when(filmStorage.existsById(anyLong())).thenReturn(true);
+
+        assertNull(store(true).load());
+        store(true).save();
+        assertNull(store(false).load());
+    }
+
+    private CatalogSnapshotStore store(boolean enabled) {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setEnabled(enabled);
+        properties.setPath(directory.resolve("catalog.snapshot"));
+        // Маленькое окно, чтобы записи пересекали границы окон
+        properties.setRegionSize(64);
+        return new CatalogSnapshotStore(properties, filmViewIndex, referenceData, filmStorage);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+package ru.yandex.practicum.filmorate.storage.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.storage.dao.genre.GenreDao;
+import ru.yandex.practicum.filmorate.storage.dao.mpa.MpaDao;
+import ru.yandex.practicum.filmorate.storage.index.FilmViewIndex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotTest {
+
+    private static final int HEADER_SIZE = 36;
+
+    @TempDir
+    Path directory;
+
+    private final ReferenceDataCache referenceData = referenceData("Комедия");
+
+    @Test
+    void writtenSnapshotIsReadBack() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        List<FilmViewIndex.View> views = views(referenceData, 50);
+        Instant before = Instant.now().minusSeconds(1);
+
+        CatalogSnapshot.write(path, referenceData.fingerprint(), views);
+        CatalogSnapshot.Contents contents = CatalogSnapshot.read(path, referenceData,
+                CatalogSnapshot.DEFAULT_REGION_SIZE);
+
+        assertEquals(views, contents.views());
+        assertEquals(50, contents.maxFilmId());
+        assertFalse(contents.createdAt().isBefore(before));
+    }
+
+    @Test
+    void emptySnapshotIsReadBack() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+
+        CatalogSnapshot.write(path, referenceData.fingerprint(), List.of());
+        CatalogSnapshot.Contents contents = CatalogSnapshot.read(path, referenceData, 16);
+
+        assertTrue(contents.views().isEmpty());
+        assertEquals(0, contents.maxFilmId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {24, 29, 37, 64, 1000})
+    void valuesAcrossWindowBoundariesAreReadBack(int regionSize) throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        List<FilmViewIndex.View> views = views(referenceData, 200);
+
+        CatalogSnapshot.write(path, referenceData.fingerprint(), views);
+
+        assertEquals(views, CatalogSnapshot.read(path, referenceData, regionSize).views());
+    }
+
+    @Test
+    void valueLongerThanWindowIsRejected() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(path, referenceData.fingerprint(), views(referenceData, 3));
+
+        IOException error = assertThrows(IOException.class, () -> CatalogSnapshot.read(path, referenceData, 16));
+        assertTrue(error.getMessage().contains("окно"), error.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> CatalogSnapshot.read(path, referenceData, 4));
+    }
+
+    @Test
+    void flippedByteIsRejected() throws IOException {
+        Path path = written(10);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[HEADER_SIZE + 5] ^= 1;
+        Files.write(path, bytes);
+
+        IOException error = assertThrows(IOException.class,
+                () -> CatalogSnapshot.read(path, referenceData, CatalogSnapshot.DEFAULT_REGION_SIZE));
+        assertTrue(error.getMessage().contains("Контрольная сумма"), error.getMessage());
+    }
+
+    @Test
+    void otherVersionIsRejected() throws IOException {
+        Path path = written(10);
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).putInt(4, CatalogSnapshot.VERSION + 1);
+        Files.write(path, withChecksum(bytes));
+
+        IOException error = assertThrows(IOException.class,
+                () -> CatalogSnapshot.read(path, referenceData, CatalogSnapshot.DEFAULT_REGION_SIZE));
+        assertTrue(error.getMessage().contains("версия"), error.getMessage());
+    }
+
+    @Test
+    void otherReferenceDataIsRejected() throws IOException {
+        Path path = written(10);
+        ReferenceDataCache renamedGenre = referenceData("Комедии");
+
+        IOException error = assertThrows(IOException.class,
+                () -> CatalogSnapshot.read(path, renamedGenre, CatalogSnapshot.DEFAULT_REGION_SIZE));
+        assertTrue(error.getMessage().contains("справочник"), error.getMessage());
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path path = written(10);
+        byte[] bytes = Files.readAllBytes(path);
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 20));
+        IOException checksum = assertThrows(IOException.class,
+                () -> CatalogSnapshot.read(path, referenceData, CatalogSnapshot.DEFAULT_REGION_SIZE));
+        assertTrue(checksum.getMessage().contains("Контрольная сумма"), checksum.getMessage());
+
+        // Обрезанные записи с пересчитанной контрольной суммой отклоняются при разборе
+        Files.write(path, withChecksum(Arrays.copyOf(bytes, HEADER_SIZE + 30 + 8)));
+        IOException record = assertThrows(IOException.class,
+                () -> CatalogSnapshot.read(path, referenceData, 32));
+        assertTrue(record.getMessage().contains("обрывается"), record.getMessage());
+
+        Files.write(path, Arrays.copyOf(bytes, 10));
+        IOException header = assertThrows(IOException.class,
+                () -> CatalogSnapshot.read(path, referenceData, CatalogSnapshot.DEFAULT_REGION_SIZE));
+        assertTrue(header.getMessage().contains("короче"), header.getMessage());
+    }
+
+    private Path written(int films) throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshot.write(path, referenceData.fingerprint(), views(referenceData, films));
+        return path;
+    }
+
+    /**
+     * Пересчитывает CRC32C в последних 8 байтах, чтобы проверка дошла до разбора содержимого.
+     */
+    private static byte[] withChecksum(byte[] bytes) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes, 0, bytes.length - Long.BYTES);
+        ByteBuffer.wrap(bytes).putLong(bytes.length - Long.BYTES, checksum.getValue());
+        return bytes;
+    }
+
+    /**
+     * Записи представления с пропусками необязательных полей: без названия, описания,
+     * даты выхода, рейтинга и жанров.
+     */
+    static List<FilmViewIndex.View> views(ReferenceDataCache referenceData, int count) {
+        List<FilmViewIndex.View> views = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Film film = new Film(i % 7 == 0 ? null : "Фильм " + i, i % 5 == 0 ? null : "Описание " + i,
+                    i % 11 == 0 ? null : LocalDate.of(1990, 1, 1).plusDays(i), 90 + i);
+            film.setId((long) i);
+            film.setMpa(i % 13 == 0 ? null : referenceData.getMpa(1 + i % 3));
+            long genreMask = i % 8;
+            film.setGenres(referenceData.genresOf(genreMask));
+            views.add(new FilmViewIndex.View(film, i * 3, genreMask));
+        }
+        return views;
+    }
+
+    /**
+     * Кэш справочников с тремя рейтингами и тремя жанрами; название первого жанра задаётся,
+     * чтобы получить справочники с другим отпечатком.
+     */
+    static ReferenceDataCache referenceData(String firstGenre) {
+        MpaDao mpaDao = mock(MpaDao.class);
+        when(mpaDao.getListMpa()).thenReturn(List.of(new Mpa(1, "G"), new Mpa(2, "PG"), new Mpa(3, "PG-13")));
+        GenreDao genreDao = mock(GenreDao.class);
+        when(genreDao.getGenres())
+                .thenReturn(Set.of(genre(1, firstGenre), genre(2, "Драма"), genre(3, "Мультфильм")));
+        return new ReferenceDataCache(mpaDao, genreDao);
+    }
+
+    private static Genre genre(int id, String name) {
+        Genre genre = new Genre();
+        genre.setId(id);
+        genre.setName(name);
+        return genre;
+    }
+}
\ No newline at end of file
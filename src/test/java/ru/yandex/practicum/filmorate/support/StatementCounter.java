@@ -0,0 +1,96 @@
+package ru.yandex.practicum.filmorate.support;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Источник данных для тестов, запоминающий SQL каждого выполненного оператора.
+ * <p>
+ * Учитываются только операторы потока, вызвавшего {@link #reset()}, поэтому фоновые задачи
+ * приложения (прогрев, планировщики) не влияют на результат. Пакет операторов
+ * ({@code executeBatch}) считается одним обращением к базе.
+ */
+public class StatementCounter extends DelegatingDataSource {
+
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+    private volatile Thread owner;
+
+    public StatementCounter(DataSource target) {
+        super(target);
+    }
+
+    /**
+     * Начинает новый подсчёт операторов текущего потока.
+     */
+    public void reset() {
+        executed.clear();
+        owner = Thread.currentThread();
+    }
+
+    /**
+     * Возвращает SQL операторов, выполненных с момента последнего {@link #reset()}.
+     *
+     * @return выполненные операторы в порядке выполнения
+     */
+    public List<String> executed() {
+        return List.copyOf(executed);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return wrap(statement, sql, method.getReturnType());
+            }
+            return result;
+        });
+    }
+
+    private Object wrap(Statement statement, String preparedSql, Class<?> type) {
+        Class<?> statementType = CallableStatement.class.isAssignableFrom(type) ? CallableStatement.class
+                : PreparedStatement.class.isAssignableFrom(type) ? PreparedStatement.class : Statement.class;
+        return proxy(statementType, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute") && Thread.currentThread() == owner) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                executed.add(method.getName().equals("executeBatch") ? "[batch] " + sql : sql);
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Подменяет источник данных приложения на {@link StatementCounter}.
+ */
+@TestConfiguration
+public class StatementCounterConfig {
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCounter)) {
+                    return new StatementCounter(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
\ No newline at end of file
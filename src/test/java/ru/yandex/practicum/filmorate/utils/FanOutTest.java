@@ -0,0 +1,109 @@
+package ru.yandex.practicum.filmorate.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import ru.yandex.practicum.filmorate.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class FanOutTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void queriesRunInlineWhenNoPermitsLeft() {
+        FanOut fanOut = new FanOut("test", Duration.ofSeconds(2), new Semaphore(0), transactionManager);
+        Thread caller = Thread.currentThread();
+
+        Thread[] threads = fanOut.join(Thread::currentThread, Thread::currentThread, (a, b) -> new Thread[]{a, b});
+
+        assertEquals(caller, threads[0]);
+        assertEquals(caller, threads[1]);
+    }
+
+    @Test
+    void permitsAreReturnedAfterQueries() {
+        Semaphore permits = new Semaphore(2);
+        FanOut fanOut = new FanOut("test", Duration.ofSeconds(2), permits, transactionManager);
+
+        int sum = fanOut.join(() -> 1, () -> 2, Integer::sum);
+
+        assertEquals(3, sum);
+        assertEquals(2, permits.availablePermits());
+    }
+
+    @Test
+    void queriesRunInReadOnlyTransactionWithDeadlineTimeout() {
+        FanOut fanOut = new FanOut("test", Duration.ofMillis(1500), new Semaphore(2), transactionManager);
+
+        fanOut.join(() -> 1, () -> 2, Integer::sum);
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, atLeastOnce()).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+        assertEquals(2, definition.getValue().getTimeout());
+    }
+
+    @Test
+    void queryPastDeadlineFailsWithDeadlineExceeded() throws InterruptedException {
+        Semaphore permits = new Semaphore(2);
+        FanOut fanOut = new FanOut("test", Duration.ofMillis(100), permits, transactionManager);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        fanOut.bindTo(registry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            assertThrows(DeadlineExceededException.class,
+                    () -> fanOut.join(() -> 1, () -> awaitRelease(release), Integer::sum));
+        } finally {
+            release.countDown();
+        }
+
+        assertEquals(1, registry.get("filmorate.fanout.expired").functionCounter().count());
+        // Опоздавший запрос возвращает разрешение, когда действительно заканчивается
+        assertTrue(permits.tryAcquire(2, 5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void firstFailureIsRethrownUnwrappedWithoutWaitingForOtherQuery() {
+        FanOut fanOut = new FanOut("test", Duration.ofSeconds(5), new Semaphore(2), transactionManager);
+        IllegalStateException failure = new IllegalStateException("Запрос не выполнен");
+        Supplier<Integer> failing = () -> {
+            throw failure;
+        };
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            // Второй запрос завершается только после ответа join, поэтому ожидание его привело бы к сроку
+            IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                    () -> fanOut.join(failing, () -> awaitRelease(release), Integer::sum));
+            assertSame(failure, thrown);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static int awaitRelease(CountDownLatch release) {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 2;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package ru.yandex.practicum.filmorate.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.cache.ReferenceDataCache;
+import ru.yandex.practicum.filmorate.storage.dao.genre.GenreDao;
+import ru.yandex.practicum.filmorate.storage.dao.genre.GenreDaoImpl;
+import ru.yandex.practicum.filmorate.storage.dao.mpa.MpaDao;
+import ru.yandex.practicum.filmorate.storage.dao.mpa.MpaDaoImpl;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-замер проверки фильмов и пользователей: прежняя проверка (регулярное выражение через
+ * {@link String#matches}, запрос к справочникам в базе на рейтинг и каждый жанр, остановка на первой
+ * ошибке) против {@link ValidationUtils} с заранее скомпилированным шаблоном и {@link ReferenceDataCache}.
+ * Справочники в обоих случаях лежат в H2 с теми же данными, что и у приложения.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ValidationBenchmarkTest {
+
+    private EmbeddedDatabase database;
+    private MpaDao mpaDao;
+    private GenreDao genreDao;
+    private ReferenceDataCache referenceData;
+    private Film film;
+    private User user;
+
+    @Tag("benchmark")
+    @Test
+    void legacyAndCurrentValidation() throws RunnerException {
+        // Без отдельной JVM: дочерний процесс не получает путь классов surefire
+        for (RunResult result : new Runner(new OptionsBuilder()
+                .include(ValidationBenchmarkTest.class.getName() + "\\.")
+                .forks(0)
+                .addProfiler(GCProfiler.class)
+                .build()).run()) {
+            log.info("{}: {} {}, выделено {} байт на вызов",
+                    result.getParams().getBenchmark(),
+                    String.format("%.1f", result.getPrimaryResult().getScore()),
+                    result.getPrimaryResult().getScoreUnit(),
+                    String.format("%.0f", allocatedPerCall(result)));
+        }
+    }
+
+    /**
+     * Байты, выделенные за один вызов, по данным {@link GCProfiler}.
+     */
+    private static double allocatedPerCall(RunResult result) {
+        return result.getSecondaryResults().entrySet().stream()
+                .filter(entry -> entry.getKey().endsWith("gc.alloc.rate.norm"))
+                .mapToDouble(entry -> entry.getValue().getScore())
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScripts("schema.sql", "data.sql")
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        mpaDao = new MpaDaoImpl(jdbcTemplate);
+        genreDao = new GenreDaoImpl(jdbcTemplate);
+        referenceData = new ReferenceDataCache(mpaDao, genreDao);
+
+        film = new Film("Крёстный отец", "Глава мафиозного клана передаёт дела младшему сыну.",
+                LocalDate.of(1972, 3, 14), 175);
+        film.setMpa(new Mpa(4, null));
+        Set<Genre> genres = new LinkedHashSet<>();
+        for (int id : new int[]{2, 4, 6}) {
+            Genre genre = new Genre();
+            genre.setId(id);
+            genres.add(genre);
+        }
+        film.setGenres(genres);
+        user = new User("vito.corleone@example.com", "vito", "Вито", LocalDate.of(1960, 5, 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public void legacyFilm() {
+        legacyValidateFilm(film, mpaDao, genreDao);
+    }
+
+    @Benchmark
+    public void currentFilm() {
+        ValidationUtils.validateFilm(film, referenceData);
+    }
+
+    @Benchmark
+    public void legacyUser(Blackhole blackhole) {
+        legacyValidateUser(user);
+        blackhole.consume(user);
+    }
+
+    @Benchmark
+    public void currentUser(Blackhole blackhole) {
+        ValidationUtils.validateUser(user);
+        blackhole.consume(user);
+    }
+
+    /**
+     * Прежняя проверка пользователя: шаблон email компилируется при каждом вызове.
+     */
+    private static void legacyValidateUser(User user) {
+        if (user.getEmail() == null || user.getEmail().trim().isEmpty() ||
+                !user.getEmail().matches("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}")) {
+            throw new ValidationException("Некорректный формат Email.");
+        }
+        if (user.getBirthday() == null || user.getBirthday().isAfter(LocalDate.now())) {
+            throw new ValidationException("Неправильная дата рождения.");
+        }
+        if (user.getLogin() == null || user.getLogin().trim().isEmpty()) {
+            throw new ValidationException("Логин не может быть пустым.");
+        }
+    }
+
+    /**
+     * Прежняя проверка фильма: рейтинг и каждый жанр запрашиваются из базы.
+     */
+    private static void legacyValidateFilm(Film film, MpaDao mpaDao, GenreDao genreDao) {
+        if (film.getName() == null || film.getName().trim().isEmpty()) {
+            throw new ValidationException("Название фильма обязательно");
+        }
+        LocalDate releaseDate = film.getReleaseDate();
+        if (releaseDate == null || releaseDate.isBefore(LocalDate.of(1895, 12, 28))) {
+            throw new ValidationException("Дата выпуска фильма не должна быть раньше 28 декабря 1895 года");
+        }
+        if (film.getDuration() <= 0) {
+            throw new ValidationException("Продолжительность фильма должна быть положительной");
+        }
+        if (mpaDao.getMpaById(film.getMpa().getId()) == null) {
+            throw new ValidationException("Рейтинг с ID " + film.getMpa().getId() + " не существует");
+        }
+        if (film.getGenres() != null && !film.getGenres().isEmpty()) {
+            for (Genre genre : film.getGenres()) {
+                if (genreDao.getGenreById(genre.getId()) == null) {
+                    throw new ValidationException("Жанр с ID " + genre.getId() + " не существует");
+                }
+            }
+        }
+    }
+}
\ No newline at end of file